@@ -0,0 +1,87 @@
+package com.journeo.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Petit cache LRU borné en taille, avec expiration par entrée.
+ * Suffisant pour des caches locaux à faible cardinalité (principals, tokens) sans dépendance externe.
+ * Toutes les opérations sont synchronisées : les sections critiques sont O(1).
+ */
+public class ExpiringLruCache<K, V> {
+
+    private final int maxSize;
+    private final long defaultTtlMillis;
+    private final LongSupplier clock;
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public ExpiringLruCache(int maxSize, long defaultTtlMillis) {
+        this(maxSize, defaultTtlMillis, System::currentTimeMillis);
+    }
+
+    ExpiringLruCache(int maxSize, long defaultTtlMillis, LongSupplier clock) {
+        if (maxSize <= 0) throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+        this.maxSize = maxSize;
+        this.defaultTtlMillis = defaultTtlMillis;
+        this.clock = clock;
+        // accessOrder = true : l'entrée la moins récemment lue est la première évincée
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                boolean evict = size() > ExpiringLruCache.this.maxSize;
+                if (evict) evictions.incrementAndGet();
+                return evict;
+            }
+        };
+    }
+
+    /** Returns the cached value, or null if absent or expired. */
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        if (entry.expiresAt <= clock.getAsLong()) {
+            entries.remove(key);
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.value;
+    }
+
+    public void put(K key, V value) {
+        put(key, value, clock.getAsLong() + defaultTtlMillis);
+    }
+
+    /** Stores a value that expires at the given epoch millis (capped by the default TTL). */
+    public synchronized void put(K key, V value, long expiresAtMillis) {
+        long expiresAt = Math.min(expiresAtMillis, clock.getAsLong() + defaultTtlMillis);
+        entries.put(key, new Entry<>(value, expiresAt));
+    }
+
+    public synchronized void remove(K key) {
+        entries.remove(key);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long getHits() { return hits.get(); }
+    public long getMisses() { return misses.get(); }
+    public long getEvictions() { return evictions.get(); }
+
+    private record Entry<V>(V value, long expiresAt) {}
+}
@@ -1,11 +1,13 @@
 package com.journeo.config;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -19,10 +21,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final UserPrincipalCache userPrincipalCache;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
+    private final VerifiedTokenCache verifiedTokenCache;
 
-    public JwtAuthenticationFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService,
+                                   UserPrincipalCache userPrincipalCache,
+                                   TokenRevocationRegistry tokenRevocationRegistry,
+                                   VerifiedTokenCache verifiedTokenCache) {
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
+        this.userPrincipalCache = userPrincipalCache;
+        this.tokenRevocationRegistry = tokenRevocationRegistry;
+        this.verifiedTokenCache = verifiedTokenCache;
     }
 
     @Override
@@ -38,18 +49,26 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         String token = authHeader.substring(7);
-        String email;
+        // Token déjà vérifié : pas de parsing ni de HMAC
+        VerifiedToken verified = verifiedTokenCache.get(token);
 
-        try {
-            email = jwtUtil.extractEmail(token);
-        } catch (Exception e) {
-            filterChain.doFilter(request, response);
-            return;
+        if (verified == null) {
+            try {
+                // Un seul parsing : signature et expiration sont vérifiées ici
+                verified = jwtUtil.verify(token);
+            } catch (Exception e) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+            verifiedTokenCache.put(token, verified);
         }
 
+        String email = verified.getEmail();
         if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(email);
-            if (jwtUtil.isTokenValid(token, email)) {
+            UserDetails userDetails = jwtUtil.isStateless(verified)
+                    ? principalFromClaims(verified.getClaims())
+                    : loadPrincipal(email);
+            if (userDetails != null) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -59,4 +78,27 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    /** Builds the principal from a stateless token, or null if the token has been revoked. */
+    private UserDetails principalFromClaims(Claims claims) {
+        Long userId = ((Number) claims.get(JwtUtil.CLAIM_USER_ID)).longValue();
+        int version = ((Number) claims.get(JwtUtil.CLAIM_VERSION)).intValue();
+        if (tokenRevocationRegistry.isRevoked(userId, version)) {
+            return null;
+        }
+        return User.withUsername(claims.getSubject())
+                .password("")
+                .roles(claims.get(JwtUtil.CLAIM_ROLE, String.class))
+                .build();
+    }
+
+    private UserDetails loadPrincipal(String email) {
+        // Principal en cache : pas d'aller-retour en base pour les requêtes suivantes
+        UserDetails userDetails = userPrincipalCache.getUserFromCache(email);
+        if (userDetails == null) {
+            userDetails = userDetailsService.loadUserByUsername(email);
+            userPrincipalCache.putUserInCache(userDetails);
+        }
+        return userDetails;
+    }
 }
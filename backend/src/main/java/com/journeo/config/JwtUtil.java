@@ -1,6 +1,9 @@
 package com.journeo.config;
 
+import com.journeo.model.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
@@ -13,48 +16,77 @@ import java.util.Date;
 @Component
 public class JwtUtil {
 
-    @Value("${jwt.secret}")
-    private String secret;
+    // Claims du format sans état : suffisent à construire l'Authentication sans requête SQL
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_VERSION = "ver";
 
-    @Value("${jwt.expiration}")
-    private long expiration;
+    private final long expiration;
+
+    // Opt-in : émettre des tokens portant id, rôle et version de l'utilisateur
+    private final boolean stateless;
+
+    // Clé et parser construits une seule fois au démarrage (immuables et thread-safe)
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+
+    public JwtUtil(@Value("${jwt.secret}") String secret,
+                   @Value("${jwt.expiration}") long expiration,
+                   @Value("${jwt.stateless:false}") boolean stateless) {
+        this.expiration = expiration;
+        this.stateless = stateless;
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
+    }
 
     public String generateToken(String email) {
         return Jwts.builder()
                 .subject(email)
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey())
+                .signWith(signingKey)
+                .compact();
+    }
+
+    /** Generates a stateless token when jwt.stateless is enabled, a subject-only token otherwise. */
+    public String generateToken(User user) {
+        if (!stateless) return generateToken(user.getEmail());
+        return Jwts.builder()
+                .subject(user.getEmail())
+                .claim(CLAIM_USER_ID, user.getId())
+                .claim(CLAIM_ROLE, user.getRole().name())
+                .claim(CLAIM_VERSION, user.getTokenVersion())
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + expiration))
+                .signWith(signingKey)
                 .compact();
     }
 
+    /**
+     * Parses the token once, checking signature and expiry.
+     * Throws a JwtException (or IllegalArgumentException for a blank token) if it is not valid.
+     */
+    public VerifiedToken verify(String token) {
+        return new VerifiedToken(parser.parseSignedClaims(token).getPayload());
+    }
+
     public String extractEmail(String token) {
-        return extractAllClaims(token).getSubject();
+        return verify(token).getEmail();
     }
 
     public boolean isTokenValid(String token, String email) {
         try {
-            String tokenEmail = extractEmail(token);
-            return tokenEmail.equals(email) && !isTokenExpired(token);
-        } catch (Exception e) {
+            VerifiedToken verified = verify(token);
+            return verified.getEmail().equals(email) && !verified.isExpired();
+        } catch (JwtException | IllegalArgumentException e) {
             return false;
         }
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractAllClaims(token).getExpiration().before(new Date());
-    }
-
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-    }
-
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+    /** True if the token carries everything needed to authenticate without a database lookup. */
+    public boolean isStateless(VerifiedToken token) {
+        Claims claims = token.getClaims();
+        return stateless && claims.get(CLAIM_USER_ID) != null
+                && claims.get(CLAIM_ROLE) != null && claims.get(CLAIM_VERSION) != null;
     }
 }
@@ -0,0 +1,214 @@
+package com.journeo.config;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Stockage sur disque local réparti par préfixe : abcd1234-...jpg est rangé dans ab/cd/.
+ * Avec 2 niveaux (65 536 répertoires), aucun répertoire ne dépasse quelques centaines d'entrées
+ * même avec des millions de fichiers. Les noms générés (UUID, empreinte SHA-256) commencent par des
+ * chiffres hexadécimaux aléatoires, et un dérivé (nom-small.jpg) tombe dans le répertoire de son original ;
+ * tout autre nom est réparti d'après son propre SHA-256.
+ */
+public class LocalMediaStorage implements MediaStorage {
+
+    // Zones de MediaStorageService sous la même racine (même volume : renommages atomiques)
+    private static final Set<String> RESERVED_DIRS = Set.of(MediaStorageService.STAGING_DIR, MediaStorageService.PARTIAL_DIR);
+
+    private final Path root;
+    private final int shardDepth;
+
+    public LocalMediaStorage(Path root, int shardDepth) throws IOException {
+        if (shardDepth < 0 || shardDepth > 4) {
+            throw new IllegalArgumentException("media.storage.local.shard-depth must be between 0 and 4");
+        }
+        this.root = root.toAbsolutePath().normalize();
+        this.shardDepth = shardDepth;
+        Files.createDirectories(this.root);
+    }
+
+    /** Sharded location of name; the name must be a plain file name inside the storage root. */
+    public Path pathFor(String name) {
+        Path dir = root;
+        String key = shardKey(name);
+        for (int level = 0; level < shardDepth; level++) {
+            dir = dir.resolve(key.substring(2 * level, 2 * level + 2));
+        }
+        return checked(dir.resolve(name).normalize(), name);
+    }
+
+    @Override
+    public void put(String name, Path staged) throws IOException {
+        move(staged, pathFor(name));
+    }
+
+    @Override
+    public StoredObject find(String name) {
+        Path path = existingPath(name);
+        return path == null ? null : new LocalObject(path);
+    }
+
+    @Override
+    public void rename(String name, String targetName) throws IOException {
+        Path source = existingPath(name);
+        if (source == null) throw new NoSuchFileException(name);
+        move(source, pathFor(targetName));
+    }
+
+    @Override
+    public void delete(String name) throws IOException {
+        Files.deleteIfExists(pathFor(name));
+        Files.deleteIfExists(legacyPath(name));
+    }
+
+    // Parcours trié répertoire par répertoire : le préfixe du nom étant le chemin de répartition, l'ordre
+    // des noms est global, et seul le contenu d'un répertoire (borné par la répartition) est en mémoire
+    @Override
+    public void forEachEntry(Consumer<Entry> action) throws IOException {
+        forEachSorted(root, action);
+    }
+
+    /**
+     * Moves every file that is not at its sharded location (flat layout from before sharding, or another
+     * shard depth) and removes the emptied shard directories. Safe to run again; returns the number moved.
+     */
+    public int reshard() throws IOException {
+        // Déplacement au fil du parcours (pas de liste en mémoire) : un fichier déjà déplacé et revisité
+        // est à sa place et ignoré
+        int[] moved = {0};
+        walk(file -> {
+            Path target = pathFor(file.getFileName().toString());
+            if (file.equals(target)) return;
+            try {
+                move(file, target);
+                moved[0]++;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        removeEmptyDirectories();
+        return moved[0];
+    }
+
+    // Emplacement réparti, sinon ancien emplacement à plat (fichiers pas encore répartis par reshard)
+    private Path existingPath(String name) {
+        Path sharded = pathFor(name);
+        if (Files.isRegularFile(sharded)) return sharded;
+        Path legacy = legacyPath(name);
+        return shardDepth > 0 && Files.isRegularFile(legacy) ? legacy : null;
+    }
+
+    private Path legacyPath(String name) {
+        return checked(root.resolve(name).normalize(), name);
+    }
+
+    private Path checked(Path path, String name) {
+        // Protection path traversal : un nom ne désigne qu'un fichier sous la racine
+        if (name.isEmpty() || name.equals(".") || name.equals("..") || name.contains("/") || name.contains("\\")
+                || !path.startsWith(root)) {
+            throw new IllegalArgumentException("Chemin de fichier invalide : " + name);
+        }
+        return path;
+    }
+
+    private String shardKey(String name) {
+        int length = 2 * shardDepth;
+        if (name.length() >= length && name.substring(0, length).chars().allMatch(LocalMediaStorage::isLowerHex)) {
+            return name;
+        }
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(name.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static boolean isLowerHex(int c) {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f');
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private void forEachSorted(Path dir, Consumer<Entry> action) throws IOException {
+        List<Path> children;
+        try (Stream<Path> list = Files.list(dir)) {
+            children = list.sorted(Comparator.comparing(path -> path.getFileName().toString())).toList();
+        }
+        for (Path child : children) {
+            BasicFileAttributes attrs;
+            try {
+                attrs = Files.readAttributes(child, BasicFileAttributes.class);
+            } catch (NoSuchFileException e) {
+                continue;  // supprimé pendant le parcours
+            }
+            if (attrs.isDirectory()) {
+                if (!(dir.equals(root) && RESERVED_DIRS.contains(child.getFileName().toString()))) {
+                    forEachSorted(child, action);
+                }
+            } else if (attrs.isRegularFile()) {
+                action.accept(new Entry(child.getFileName().toString(), attrs.size(),
+                        attrs.lastModifiedTime().toInstant()));
+            }
+        }
+    }
+
+    private void walk(Consumer<Path> action) throws IOException {
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                boolean reserved = root.equals(dir.getParent()) && RESERVED_DIRS.contains(dir.getFileName().toString());
+                return reserved ? FileVisitResult.SKIP_SUBTREE : FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (attrs.isRegularFile()) action.accept(file);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private void removeEmptyDirectories() throws IOException {
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                boolean reserved = root.equals(dir.getParent()) && RESERVED_DIRS.contains(dir.getFileName().toString());
+                return reserved ? FileVisitResult.SKIP_SUBTREE : FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException e) throws IOException {
+                if (!dir.equals(root)) {
+                    try (var entries = Files.list(dir)) {
+                        if (entries.findAny().isEmpty()) Files.delete(dir);
+                    }
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+}
@@ -0,0 +1,115 @@
+package com.journeo.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Envoi d'un fichier média (complet ou une plage d'octets) sans copie dans le tas.
+ * Sous Tomcat (connecteur NIO), le fichier est confié au conteneur via les attributs sendfile :
+ * le noyau le copie directement vers la socket. Ailleurs, FileChannel.transferTo vers la sortie
+ * de la réponse, sans tampon intermédiaire côté application ; hors disque local (S3), lecture de la plage
+ * demandée seulement.
+ */
+@Component
+public class MediaFileSender {
+
+    // Attributs de requête sendfile de Tomcat (cf. DefaultServlet)
+    static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    /**
+     * Answers a GET/HEAD for the file: 304 if the validators match, 206 for a single satisfiable
+     * range, 416 for an unsatisfiable one, 200 otherwise (multiple ranges are served in full).
+     * Content type and caching headers must already be set by the caller.
+     */
+    public void send(MediaStorage.StoredObject file, String etag, long lastModified,
+                     HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) return;
+
+        long length = file.size();
+        long start = 0;
+        long end = length - 1;
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        List<HttpRange> ranges = rangesToApply(request, etag, lastModified);
+        if (ranges.size() == 1) {
+            try {
+                start = ranges.get(0).getRangeStart(length);
+                end = ranges.get(0).getRangeEnd(length);
+            } catch (IllegalArgumentException e) {
+                start = length;
+            }
+            if (start >= length || start > end) {
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                return;
+            }
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+        if (count == 0 || "HEAD".equals(request.getMethod())) return;
+
+        Path path = file.localPath();
+        if (path != null && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Tomcat envoie le fichier après le retour du servlet (fin exclusive)
+            request.setAttribute(SENDFILE_FILENAME, path.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+        file.transferTo(start, count, Channels.newChannel(response.getOutputStream()));
+    }
+
+    /** Copies count bytes from position to target with FileChannel.transferTo (zero-copy for sockets). */
+    public static long transfer(FileChannel channel, long position, long count, WritableByteChannel target)
+            throws IOException {
+        long sent = 0;
+        while (sent < count) {
+            long n = channel.transferTo(position + sent, count - sent, target);
+            if (n <= 0) break;
+            sent += n;
+        }
+        return sent;
+    }
+
+    // Range ignoré s'il est mal formé ou si If-Range ne correspond plus à la version servie
+    private static List<HttpRange> rangesToApply(HttpServletRequest request, String etag, long lastModified) {
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range == null) return List.of();
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null) {
+            boolean matches;
+            if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+                matches = ifRange.equals(etag);
+            } else {
+                try {
+                    matches = request.getDateHeader(HttpHeaders.IF_RANGE) / 1000 == lastModified / 1000;
+                } catch (IllegalArgumentException e) {
+                    matches = false;
+                }
+            }
+            if (!matches) return List.of();
+        }
+        try {
+            return HttpRange.parseRanges(range);
+        } catch (IllegalArgumentException e) {
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.journeo.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Migration vers le stockage réparti : lancer l'application avec --reshard-media déplace les fichiers
+ * existants (ancienne disposition à plat ou autre profondeur) vers leur répertoire de préfixe.
+ * Les fichiers non encore déplacés restent servis depuis leur ancien emplacement pendant la migration.
+ */
+@Component
+public class MediaReshardRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(MediaReshardRunner.class);
+
+    static final String OPTION = "reshard-media";
+
+    private final MediaStorage storage;
+
+    public MediaReshardRunner(MediaStorage storage) {
+        this.storage = storage;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        if (!args.containsOption(OPTION)) return;
+        if (!(storage instanceof LocalMediaStorage local)) {
+            log.warn("--{} ignored: media storage is not local", OPTION);
+            return;
+        }
+        long start = System.currentTimeMillis();
+        int moved = local.reshard();
+        log.info("Media reshard done: {} files moved in {} ms", moved, System.currentTimeMillis() - start);
+    }
+}
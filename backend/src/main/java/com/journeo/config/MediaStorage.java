@@ -0,0 +1,103 @@
+package com.journeo.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.function.Consumer;
+
+/**
+ * Backend de stockage des fichiers média, choisi par media.storage.type :
+ * répertoires locaux répartis par préfixe (local) ou stockage objet compatible S3 (s3).
+ * Les fichiers sont d'abord écrits dans la zone de préparation locale de MediaStorageService,
+ * puis confiés au backend par put().
+ */
+public interface MediaStorage {
+
+    /** Takes ownership of a staged local file and stores it under name (replacing any previous content). */
+    void put(String name, Path staged) throws IOException;
+
+    /** The stored file, or null if there is none under that name. */
+    StoredObject find(String name) throws IOException;
+
+    void rename(String name, String targetName) throws IOException;
+
+    /** Deletes the file if present. */
+    void delete(String name) throws IOException;
+
+    /**
+     * Calls action for every stored file in ascending name order (String.compareTo), without loading the
+     * listing in memory. Files whose location does not follow their name (flat files not yet resharded)
+     * may come out of order.
+     */
+    void forEachEntry(Consumer<Entry> action) throws IOException;
+
+    /**
+     * Whether everything forEachEntry lists belongs to this application. False for a bucket used without
+     * a key prefix, which may hold objects written by something else.
+     */
+    default boolean isScoped() {
+        return true;
+    }
+
+    /** A listed file: name, byte count and last modification (files still being written are recent). */
+    record Entry(String name, long size, Instant lastModified) {}
+
+    /** A stored file as served: size, content access and, on local disk, its path for zero-copy sends. */
+    interface StoredObject {
+
+        String name();
+
+        long size();
+
+        Instant lastModified() throws IOException;
+
+        // Null hors disque local : l'envoi passe alors par transferTo
+        Path localPath();
+
+        InputStream openStream() throws IOException;
+
+        /** Copies count bytes starting at position to target. */
+        void transferTo(long position, long count, WritableByteChannel target) throws IOException;
+    }
+
+    /** File on the local filesystem, sent with FileChannel.transferTo or sendfile. */
+    record LocalObject(Path path) implements StoredObject {
+
+        @Override
+        public String name() { return path.getFileName().toString(); }
+
+        @Override
+        public long size() {
+            try {
+                return Files.size(path);
+            } catch (IOException e) {
+                throw new RuntimeException("Could not read size of " + path, e);
+            }
+        }
+
+        @Override
+        public Instant lastModified() throws IOException {
+            return Files.getLastModifiedTime(path).toInstant();
+        }
+
+        @Override
+        public Path localPath() { return path; }
+
+        @Override
+        public InputStream openStream() throws IOException {
+            return Files.newInputStream(path);
+        }
+
+        @Override
+        public void transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                MediaFileSender.transfer(channel, position, count, target);
+            }
+        }
+    }
+}
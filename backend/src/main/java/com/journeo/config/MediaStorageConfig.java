@@ -0,0 +1,65 @@
+package com.journeo.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.checksums.RequestChecksumCalculation;
+import software.amazon.awssdk.core.checksums.ResponseChecksumValidation;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.s3.S3Configuration;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Paths;
+
+/**
+ * Choix du backend de stockage des médias (media.storage.type) : local (défaut) ou s3.
+ */
+@Configuration
+public class MediaStorageConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "media.storage.type", havingValue = "local", matchIfMissing = true)
+    public MediaStorage localMediaStorage(@Value("${media.upload-dir:./uploads}") String uploadDir,
+                                          @Value("${media.storage.local.shard-depth:2}") int shardDepth)
+            throws IOException {
+        return new LocalMediaStorage(Paths.get(uploadDir), shardDepth);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "media.storage.type", havingValue = "s3")
+    public MediaStorage s3MediaStorage(@Value("${media.storage.s3.bucket}") String bucket,
+                                       @Value("${media.storage.s3.prefix:}") String prefix,
+                                       @Value("${media.storage.s3.region:us-east-1}") String region,
+                                       @Value("${media.storage.s3.endpoint:}") String endpoint,
+                                       @Value("${media.storage.s3.access-key:}") String accessKey,
+                                       @Value("${media.storage.s3.secret-key:}") String secretKey) {
+        return new S3MediaStorage(s3Client(endpoint, region, accessKey, secretKey), bucket, prefix);
+    }
+
+    /**
+     * Client for AWS or any S3-compatible endpoint (MinIO...): path-style addressing, plain request bodies
+     * and checksums only where the API requires them, which non-AWS implementations all accept.
+     * Without keys, the default AWS credential chain applies.
+     */
+    public static S3Client s3Client(String endpoint, String region, String accessKey, String secretKey) {
+        S3ClientBuilder builder = S3Client.builder()
+                .region(Region.of(region))
+                .serviceConfiguration(S3Configuration.builder()
+                        .pathStyleAccessEnabled(true)
+                        .chunkedEncodingEnabled(false)
+                        .build())
+                .requestChecksumCalculation(RequestChecksumCalculation.WHEN_REQUIRED)
+                .responseChecksumValidation(ResponseChecksumValidation.WHEN_REQUIRED);
+        if (!endpoint.isBlank()) builder.endpointOverride(URI.create(endpoint));
+        if (!accessKey.isBlank()) {
+            builder.credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey)));
+        }
+        return builder.build();
+    }
+}
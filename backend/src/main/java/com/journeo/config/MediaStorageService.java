@@ -1,89 +1,266 @@
 package com.journeo.config;
 
+import com.journeo.exception.PayloadTooLargeException;
+import com.journeo.exception.ResourceNotFoundException;
 import com.journeo.model.GuideMedia;
 import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.util.unit.DataSize;
 
 import java.io.IOException;
-import java.net.MalformedURLException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.FileSystemException;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.UUID;
 
+/**
+ * Réception des fichiers média : écriture avec empreinte SHA-256 et limite de taille dans une zone de
+ * préparation locale (uploads par morceaux compris), puis remise au backend MediaStorage choisi par configuration.
+ */
 @Service
 public class MediaStorageService {
 
+    private static final Logger log = LoggerFactory.getLogger(MediaStorageService.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // Sous-répertoires de media.upload-dir : fichiers en cours d'écriture, uploads par morceaux (<id>.part)
+    static final String STAGING_DIR = "staging";
+    static final String PARTIAL_DIR = "partial";
+
+    /** Result of a stored upload: generated file name, byte count and hex SHA-256 of the content. */
+    public record StoredFile(String fileName, long size, String sha256) {}
+
     @Value("${media.upload-dir:./uploads}")
     private String uploadDir;
 
-    private Path uploadPath;
+    @Value("${media.max-upload-size:50MB}")
+    private DataSize maxUploadSize;
+
+    private final MediaStorage storage;
+
+    private Path stagingPath;
+    private Path partialPath;
+
+    public MediaStorageService(MediaStorage storage) {
+        this.storage = storage;
+    }
 
     @PostConstruct
     public void init() {
-        uploadPath = Paths.get(uploadDir).toAbsolutePath().normalize();
+        Path uploadPath = Paths.get(uploadDir).toAbsolutePath().normalize();
+        stagingPath = uploadPath.resolve(STAGING_DIR);
+        partialPath = uploadPath.resolve(PARTIAL_DIR);
         try {
-            Files.createDirectories(uploadPath);
+            Files.createDirectories(stagingPath);
+            Files.createDirectories(partialPath);
         } catch (IOException e) {
             throw new RuntimeException("Could not create upload directory: " + uploadPath, e);
         }
     }
 
-    public String store(MultipartFile file) {
-        String originalFilename = file.getOriginalFilename();
-        String extension = "";
-        if (originalFilename != null && originalFilename.contains(".")) {
-            // Assainir l'extension : conserver uniquement le point + caractères alphanumériques
-            String raw = originalFilename.substring(originalFilename.lastIndexOf("."));
-            extension = raw.replaceAll("[^a-zA-Z0-9.]", "");
+    /**
+     * Writes the stream in a single pass, hashing it on the way, then hands it to the storage backend
+     * (a rename on local disk). Aborts and removes the partial file as soon as the content exceeds
+     * media.max-upload-size.
+     */
+    public StoredFile store(InputStream content, String originalFilename) {
+        String uniqueFileName = UUID.randomUUID() + extensionOf(originalFilename);
+        Path staged = stagingPath.resolve(uniqueFileName);
+        MessageDigest digest = sha256();
+        long limit = maxUploadSize.toBytes();
+        long size = 0;
+        try (OutputStream out = Files.newOutputStream(staged, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.WRITE)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int n;
+            while ((n = content.read(buffer)) != -1) {
+                size += n;
+                if (size > limit) {
+                    throw new PayloadTooLargeException("File exceeds the maximum upload size of " + maxUploadSize);
+                }
+                digest.update(buffer, 0, n);
+                out.write(buffer, 0, n);
+            }
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(staged);
+            if (e instanceof RuntimeException runtime) throw runtime;
+            throw new RuntimeException("Failed to store file: " + uniqueFileName, e);
         }
-        String uniqueFileName = UUID.randomUUID() + extension;
-        Path targetPath = uploadPath.resolve(uniqueFileName).normalize();
-        // Protection path traversal : le chemin résolu doit rester dans uploadPath
-        if (!targetPath.startsWith(uploadPath)) {
-            throw new IllegalArgumentException("Chemin de fichier invalide : " + uniqueFileName);
+        put(uniqueFileName, staged);
+        return new StoredFile(uniqueFileName, size, HexFormat.of().formatHex(digest.digest()));
+    }
+
+    /**
+     * Writes the stream at the given position of an upload's part file. Positional writes let a chunk
+     * sent again after a dropped connection overwrite the same bytes. Fails once more than maxBytes arrive.
+     */
+    public long writeChunk(String uploadId, long position, InputStream content, long maxBytes) {
+        // Canal de lecture non fermé : le flux appartient à la requête
+        ReadableByteChannel in = Channels.newChannel(content);
+        // Sans CREATE : un morceau arrivé après la finalisation ne recrée pas un fichier que plus rien ne purge
+        try (FileChannel channel = FileChannel.open(partFor(uploadId), StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            long written = 0;
+            while (in.read(buffer) != -1) {
+                buffer.flip();
+                if (written + buffer.remaining() > maxBytes) {
+                    throw new PayloadTooLargeException("Chunk exceeds the " + maxBytes + " bytes allowed at offset " + position);
+                }
+                while (buffer.hasRemaining()) written += channel.write(buffer, position + written);
+                buffer.clear();
+            }
+            // Sur disque avant d'être compté comme reçu : une reprise repart d'un offset fiable
+            channel.force(false);
+            return written;
+        } catch (NoSuchFileException e) {
+            throw new ResourceNotFoundException("Upload not found: " + uploadId);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write chunk of upload: " + uploadId, e);
         }
+    }
+
+    /** Creates the empty part file of a new chunked upload; chunks are only ever written into it. */
+    public void createPart(String uploadId) {
         try {
-            Files.copy(file.getInputStream(), targetPath, StandardCopyOption.REPLACE_EXISTING);
+            Files.createFile(partFor(uploadId));
         } catch (IOException e) {
-            throw new RuntimeException("Failed to store file: " + uniqueFileName, e);
+            throw new RuntimeException("Could not create upload: " + uploadId, e);
         }
-        return uniqueFileName;
     }
 
-    public Resource load(String fileName) {
-        try {
-            Path filePath = uploadPath.resolve(fileName).normalize();
-            if (!filePath.startsWith(uploadPath)) {
-                throw new IllegalArgumentException("Chemin de fichier invalide : " + fileName);
+    /**
+     * Hashes a fully received part file and stores it under a new unique name, like a single-pass upload.
+     * The part file itself is left in place, so a failed hand-off can be retried; the caller deletes it.
+     */
+    public StoredFile storeAssembled(String uploadId, String originalFilename) {
+        Path part = partFor(uploadId);
+        String uniqueFileName = UUID.randomUUID() + extensionOf(originalFilename);
+        MessageDigest digest = sha256();
+        long size;
+        try (FileChannel channel = FileChannel.open(part, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
             }
-            Resource resource = new UrlResource(filePath.toUri());
-            if (resource.exists() && resource.isReadable()) {
-                return resource;
+            size = channel.size();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read upload: " + uploadId, e);
+        }
+        // Lien physique dans la zone de préparation (même volume, aucune copie) remis au stockage à la place du
+        // fichier partiel : put() le consomme, y compris en cas d'échec, le fichier partiel reste intact
+        Path staged = stagingPath.resolve(uniqueFileName);
+        try {
+            try {
+                Files.createLink(staged, part);
+            } catch (UnsupportedOperationException | FileSystemException e) {
+                Files.copy(part, staged);
             }
-            throw new RuntimeException("File not found or not readable: " + fileName);
-        } catch (MalformedURLException e) {
-            throw new RuntimeException("File not found: " + fileName, e);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to stage upload: " + uploadId, e);
         }
+        put(uniqueFileName, staged);
+        return new StoredFile(uniqueFileName, size, HexFormat.of().formatHex(digest.digest()));
     }
 
-    public void delete(String fileName) {
-        Path filePath = uploadPath.resolve(fileName).normalize();
-        if (!filePath.startsWith(uploadPath)) {
-            throw new IllegalArgumentException("Chemin de fichier invalide : " + fileName);
+    public void deletePart(String uploadId) {
+        deleteQuietly(partFor(uploadId));
+    }
+
+    private Path partFor(String uploadId) {
+        Path part = partialPath.resolve(uploadId + ".part").normalize();
+        if (!part.startsWith(partialPath)) {
+            throw new IllegalArgumentException("Identifiant d'upload invalide : " + uploadId);
+        }
+        return part;
+    }
+
+    /** The stored file for serving or reading; 404 if there is none. */
+    public MediaStorage.StoredObject resolve(String fileName) {
+        try {
+            MediaStorage.StoredObject object = storage.find(fileName);
+            if (object == null) throw new ResourceNotFoundException("File not found or not readable: " + fileName);
+            return object;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read file: " + fileName, e);
         }
+    }
+
+    // Fichier temporaire de la zone de préparation, remis ensuite au stockage par put (dérivés)
+    public Path createStagingFile(String suffix) {
         try {
-            Files.deleteIfExists(filePath);
+            return Files.createTempFile(stagingPath, "tmp-", suffix);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not create staging file", e);
+        }
+    }
+
+    /** Stores a staged file under fileName; the staged file is consumed (deleted on failure too). */
+    public void put(String fileName, Path staged) {
+        try {
+            storage.put(fileName, staged);
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(staged);
+            throw new RuntimeException("Failed to store file: " + fileName, e);
+        }
+    }
+
+    // Renommage dans le stockage ; remplace une cible existante (contenu identique)
+    public void rename(String fileName, String targetName) {
+        try {
+            storage.rename(fileName, targetName);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to rename file: " + fileName, e);
+        }
+    }
+
+    public void delete(String fileName) {
+        try {
+            storage.delete(fileName);
         } catch (IOException e) {
             throw new RuntimeException("Failed to delete file: " + fileName, e);
         }
     }
 
+    // Assainir l'extension : conserver uniquement le point + caractères alphanumériques
+    private static String extensionOf(String originalFilename) {
+        if (originalFilename == null || !originalFilename.contains(".")) return "";
+        return originalFilename.substring(originalFilename.lastIndexOf(".")).replaceAll("[^a-zA-Z0-9.]", "");
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete partial file {}", path, e);
+        }
+    }
+
     public GuideMedia.FileType detectFileType(String contentType) {
         if (contentType == null) return GuideMedia.FileType.IMAGE;
         if (contentType.startsWith("video/")) return GuideMedia.FileType.VIDEO;
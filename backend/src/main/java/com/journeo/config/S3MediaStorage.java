@@ -0,0 +1,147 @@
+package com.journeo.config;
+
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.function.Consumer;
+
+/**
+ * Stockage objet compatible S3 (AWS, MinIO...) : une clé prefix + nom par fichier, sans répartition
+ * (le stockage objet n'a pas de répertoires à saturer). Les lectures partielles (Range) sont
+ * transmises telles quelles au stockage, sans télécharger l'objet entier.
+ */
+public class S3MediaStorage implements MediaStorage, AutoCloseable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final S3Client client;
+    private final String bucket;
+    private final String prefix;
+
+    public S3MediaStorage(S3Client client, String bucket, String prefix) {
+        this.client = client;
+        this.bucket = bucket;
+        // Préfixe terminé par "/" : "media" ne doit pas couvrir (ni lister, ni purger) "media-archive/..."
+        if (prefix == null) prefix = "";
+        this.prefix = prefix.isEmpty() || prefix.endsWith("/") ? prefix : prefix + "/";
+    }
+
+    @Override
+    public void put(String name, Path staged) throws IOException {
+        client.putObject(b -> b.bucket(bucket).key(key(name)), RequestBody.fromFile(staged));
+        Files.deleteIfExists(staged);
+    }
+
+    @Override
+    public StoredObject find(String name) {
+        try {
+            HeadObjectResponse head = client.headObject(b -> b.bucket(bucket).key(key(name)));
+            return new RemoteObject(name, head.contentLength(), head.lastModified());
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) return null;
+            throw e;
+        }
+    }
+
+    // Copie côté serveur puis suppression : aucun octet ne transite par l'application
+    @Override
+    public void rename(String name, String targetName) throws IOException {
+        try {
+            client.copyObject(b -> b.sourceBucket(bucket).sourceKey(key(name))
+                    .destinationBucket(bucket).destinationKey(key(targetName)));
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) throw new NoSuchFileException(name);
+            throw e;
+        }
+        delete(name);
+    }
+
+    @Override
+    public void delete(String name) {
+        client.deleteObject(b -> b.bucket(bucket).key(key(name)));
+    }
+
+    // Listing S3 paginé, déjà trié par clé (ordre binaire UTF-8)
+    @Override
+    public void forEachEntry(Consumer<Entry> action) {
+        for (S3Object object : client.listObjectsV2Paginator(b -> b.bucket(bucket).prefix(prefix)).contents()) {
+            action.accept(new Entry(object.key().substring(prefix.length()), object.size(), object.lastModified()));
+        }
+    }
+
+    @Override
+    public boolean isScoped() {
+        return !prefix.isEmpty();
+    }
+
+    @Override
+    public void close() {
+        client.close();
+    }
+
+    private String key(String name) {
+        if (name.isEmpty() || name.contains("/") || name.contains("\\")) {
+            throw new IllegalArgumentException("Chemin de fichier invalide : " + name);
+        }
+        return prefix + name;
+    }
+
+    private final class RemoteObject implements StoredObject {
+
+        private final String name;
+        private final long size;
+        private final Instant lastModified;
+
+        private RemoteObject(String name, long size, Instant lastModified) {
+            this.name = name;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+
+        @Override
+        public String name() { return name; }
+
+        @Override
+        public long size() { return size; }
+
+        @Override
+        public Instant lastModified() { return lastModified; }
+
+        @Override
+        public Path localPath() { return null; }
+
+        @Override
+        public InputStream openStream() {
+            return client.getObject(GetObjectRequest.builder().bucket(bucket).key(key(name)).build());
+        }
+
+        @Override
+        public void transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            if (count <= 0) return;
+            GetObjectRequest request = GetObjectRequest.builder().bucket(bucket).key(key(name))
+                    .range("bytes=" + position + "-" + (position + count - 1)).build();
+            try (ResponseInputStream<GetObjectResponse> in = client.getObject(request)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int n;
+                while ((n = in.read(buffer)) != -1) {
+                    ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, n);
+                    while (chunk.hasRemaining()) target.write(chunk);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.journeo.config;
+
+import com.journeo.model.TokenRevocation;
+import com.journeo.repository.TokenRevocationRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Révocations des tokens JWT sans état, gardées en mémoire sur chaque nœud.
+ * Les révocations locales sont visibles immédiatement ; celles des autres nœuds le sont
+ * au prochain rafraîchissement (une requête par nœud et par intervalle, pas par requête HTTP).
+ * Une révocation plus ancienne que la durée de vie d'un token est inutile et purgée.
+ */
+@Component
+public class TokenRevocationRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationRegistry.class);
+
+    /** Version minimale enregistrée pour un utilisateur supprimé : plus aucun token n'est accepté. */
+    public static final int REVOKE_ALL = Integer.MAX_VALUE;
+
+    // Marge de recouvrement entre deux rafraîchissements (écritures concurrentes sur d'autres nœuds)
+    private static final long POLL_OVERLAP_SECONDS = 5;
+
+    private final TokenRevocationRepository repository;
+    private final long retentionMillis;
+    private final Map<Long, Integer> minVersions = new ConcurrentHashMap<>();
+    private volatile LocalDateTime lastRefresh;
+
+    public TokenRevocationRegistry(TokenRevocationRepository repository,
+                                   @Value("${jwt.expiration}") long retentionMillis) {
+        this.repository = repository;
+        this.retentionMillis = retentionMillis;
+    }
+
+    @PostConstruct
+    public void init() {
+        lastRefresh = LocalDateTime.now();
+        repository.findAll().forEach(this::apply);
+    }
+
+    /** Rejects every token of this user whose version is below {@code minVersion}. */
+    public void revoke(Long userId, int minVersion) {
+        TokenRevocation revocation = repository.findById(userId)
+                .orElseGet(() -> new TokenRevocation(userId, minVersion, LocalDateTime.now()));
+        revocation.setMinVersion(Math.max(revocation.getMinVersion(), minVersion));
+        revocation.setRevokedAt(LocalDateTime.now());
+        apply(repository.save(revocation));
+    }
+
+    public boolean isRevoked(Long userId, int tokenVersion) {
+        Integer min = minVersions.get(userId);
+        return min != null && tokenVersion < min;
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.refresh-ms:30000}")
+    public void refresh() {
+        LocalDateTime now = LocalDateTime.now();
+        repository.findByRevokedAtAfter(lastRefresh.minusSeconds(POLL_OVERLAP_SECONDS)).forEach(this::apply);
+        lastRefresh = now;
+
+        // Jamais de vidage de la map vivante : isRevoked la lit en continu, une entrée absente même un
+        // instant réadmettrait des tokens révoqués. Seules les entrées purgées sont retirées, et seulement
+        // si leur version n'a pas changé entre-temps (nouvelle révocation locale)
+        LocalDateTime expiredBefore = now.minus(Duration.ofMillis(retentionMillis));
+        List<TokenRevocation> expired = repository.findByRevokedAtBefore(expiredBefore);
+        if (expired.isEmpty()) return;
+        int purged = repository.deleteRevokedBefore(expiredBefore);
+        expired.forEach(revocation -> minVersions.remove(revocation.getUserId(), revocation.getMinVersion()));
+        log.debug("Purged {} expired token revocations", purged);
+    }
+
+    private void apply(TokenRevocation revocation) {
+        minVersions.merge(revocation.getUserId(), revocation.getMinVersion(), Math::max);
+    }
+}
@@ -0,0 +1,42 @@
+package com.journeo.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache des principals authentifiés, indexé par email.
+ * Consulté par JwtAuthenticationFilter pour éviter un SELECT sur users à chaque requête ;
+ * UserService l'invalide quand un utilisateur est modifié, change de rôle ou est supprimé.
+ */
+@Component
+public class UserPrincipalCache implements UserCache {
+
+    private final ExpiringLruCache<String, UserDetails> cache;
+
+    public UserPrincipalCache(@Value("${auth.principal-cache.max-size:10000}") int maxSize,
+                              @Value("${auth.principal-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.cache = new ExpiringLruCache<>(maxSize, ttlSeconds * 1000);
+    }
+
+    @Override
+    public UserDetails getUserFromCache(String email) {
+        return cache.get(email);
+    }
+
+    @Override
+    public void putUserInCache(UserDetails user) {
+        // Le hash du mot de passe n'est pas utile au filtre JWT : on ne le garde pas en mémoire
+        cache.put(user.getUsername(), User.withUserDetails(user).password("").build());
+    }
+
+    @Override
+    public void removeUserFromCache(String email) {
+        if (email != null) cache.remove(email);
+    }
+
+    public long getHits() { return cache.getHits(); }
+    public long getMisses() { return cache.getMisses(); }
+}
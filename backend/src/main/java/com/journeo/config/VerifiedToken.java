@@ -0,0 +1,26 @@
+package com.journeo.config;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Date;
+
+/**
+ * Résultat d'une vérification JWT (signature + expiration), obtenu en un seul parsing.
+ * Réutilisable par le filtre sans re-parser ni re-vérifier le token.
+ */
+public class VerifiedToken {
+
+    private final Claims claims;
+
+    VerifiedToken(Claims claims) {
+        this.claims = claims;
+    }
+
+    public String getEmail() { return claims.getSubject(); }
+    public Date getExpiration() { return claims.getExpiration(); }
+    public Claims getClaims() { return claims; }
+
+    public boolean isExpired() {
+        return claims.getExpiration() != null && claims.getExpiration().before(new Date());
+    }
+}
@@ -0,0 +1,72 @@
+package com.journeo.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * Cache optionnel des tokens déjà vérifiés, indexé par le SHA-256 du token.
+ * Le SPA renvoie le même bearer à chaque requête : un hit évite le parsing et la vérification HMAC.
+ * Une entrée expire avec son token ; la révocation reste contrôlée à chaque requête par le filtre.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private static final Logger log = LoggerFactory.getLogger(VerifiedTokenCache.class);
+
+    // null si le cache est désactivé
+    private final ExpiringLruCache<String, VerifiedToken> cache;
+
+    public VerifiedTokenCache(@Value("${jwt.verified-cache.enabled:false}") boolean enabled,
+                              @Value("${jwt.verified-cache.max-size:10000}") int maxSize,
+                              @Value("${jwt.expiration}") long expiration) {
+        this.cache = enabled ? new ExpiringLruCache<>(maxSize, expiration) : null;
+    }
+
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    /** Returns the verification result cached for this token, or null. */
+    public VerifiedToken get(String token) {
+        return cache == null ? null : cache.get(hash(token));
+    }
+
+    public void put(String token, VerifiedToken verified) {
+        if (cache == null) return;
+        if (verified.getExpiration() == null) {
+            cache.put(hash(token), verified);
+        } else {
+            cache.put(hash(token), verified, verified.getExpiration().getTime());
+        }
+    }
+
+    public long getHits() { return cache == null ? 0 : cache.getHits(); }
+    public long getMisses() { return cache == null ? 0 : cache.getMisses(); }
+    public long getEvictions() { return cache == null ? 0 : cache.getEvictions(); }
+    public int size() { return cache == null ? 0 : cache.size(); }
+
+    // Statistiques périodiques pour dimensionner jwt.verified-cache.max-size
+    @Scheduled(fixedDelayString = "${jwt.verified-cache.stats-ms:300000}")
+    public void logStats() {
+        if (cache == null) return;
+        log.info("Verified token cache: size={}, hits={}, misses={}, evictions={}",
+                size(), getHits(), getMisses(), getEvictions());
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+}
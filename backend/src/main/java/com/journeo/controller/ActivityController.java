@@ -1,5 +1,6 @@
 package com.journeo.controller;
 
+import com.journeo.dto.ActivityReorderDTO;
 import com.journeo.dto.ActivityRequestDTO;
 import com.journeo.dto.ActivityResponseDTO;
 import com.journeo.model.Activity;
@@ -13,7 +14,9 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -69,13 +72,28 @@ public class ActivityController {
     }
 
     @GetMapping("/guide/{guideId}")
-    @Operation(summary = "Lister toutes les activités d'un guide")
-    public ResponseEntity<Set<ActivityResponseDTO>> getActivities(@PathVariable Long guideId) {
+    @Operation(summary = "Lister toutes les activités d'un guide",
+               description = "ETag fort dérivé des versions des activités ; 304 si `If-None-Match` correspond.")
+    public ResponseEntity<Set<ActivityResponseDTO>> getActivities(@PathVariable Long guideId,
+                                                                  ServletWebRequest webRequest) {
+        if (ConditionalRequests.notModified(webRequest, activityService.findActivitiesETag(guideId))) return null;
         Set<Activity> activities = activityService.getActivitiesOfGuide(guideId);
         if (activities == null) return ResponseEntity.notFound().build();
         return ResponseEntity.ok(activities.stream().map(ActivityResponseDTO::new).collect(Collectors.toSet()));
     }
 
+    @PutMapping("/guide/{guideId}/order")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Réordonner les activités d'un guide",
+               description = "Applique en une transaction les nouvelles positions (jour, ordre) : liste complète "
+                       + "ou seulement les activités déplacées. Renvoie toutes les activités du guide triées.")
+    public ResponseEntity<List<ActivityResponseDTO>> reorderActivities(@PathVariable Long guideId,
+                                                                       @Valid @RequestBody ActivityReorderDTO dto) {
+        List<Activity> activities = activityService.reorderActivities(guideId, dto.getMoves());
+        if (activities == null) return ResponseEntity.notFound().build();
+        return ResponseEntity.ok(activities.stream().map(ActivityResponseDTO::new).toList());
+    }
+
     @PutMapping("/{activityId}")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Mettre à jour une activité")
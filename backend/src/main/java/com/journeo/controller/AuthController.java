@@ -34,8 +34,8 @@ public class AuthController {
         authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(dto.getEmail(), dto.getPassword()));
 
-        String token = jwtUtil.generateToken(dto.getEmail());
         User user = userService.findByEmail(dto.getEmail());
+        String token = jwtUtil.generateToken(user);
 
         return ResponseEntity.ok(new LoginResponseDTO(token, user.getEmail(), user.getFirstName(), user.getLastName(), user.getRole().name()));
     }
@@ -2,6 +2,7 @@ package com.journeo.controller;
 
 import com.journeo.dto.CommentRequestDTO;
 import com.journeo.dto.CommentResponseDTO;
+import com.journeo.dto.PageResponseDTO;
 import com.journeo.service.CommentService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -39,6 +40,15 @@ public class CommentController {
         return commentService.getCommentsForGuide(guideId);
     }
 
+    @GetMapping("/feed")
+    @Operation(summary = "Fil paginé des commentaires d'un guide (curseur, du plus récent au plus ancien)")
+    public PageResponseDTO<CommentResponseDTO> getCommentFeed(
+            @PathVariable Long guideId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return commentService.getCommentFeed(guideId, cursor, size);
+    }
+
     @DeleteMapping("/{commentId}")
     @Operation(summary = "Supprimer un commentaire (ADMIN ou auteur uniquement)")
     public ResponseEntity<Void> deleteComment(
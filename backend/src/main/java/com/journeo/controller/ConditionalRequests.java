@@ -0,0 +1,27 @@
+package com.journeo.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * Requêtes conditionnelles (If-None-Match) sur les ressources versionnées.
+ * L'ETag est calculé à partir des versions en base, avant de charger quoi que ce soit d'autre.
+ */
+final class ConditionalRequests {
+
+    private static final String REVALIDATE = CacheControl.noCache().cachePrivate().getHeaderValue();
+
+    private ConditionalRequests() {}
+
+    /**
+     * Sets ETag and Cache-Control and returns true (response already 304) when If-None-Match matches.
+     * A null etag (resource unknown or not visible) leaves the response untouched.
+     */
+    static boolean notModified(ServletWebRequest request, String etag) {
+        if (etag == null) return false;
+        // Copie privée gardée par le client mais revalidée à chaque lecture (remplace le no-store par défaut)
+        if (request.getResponse() != null) request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, REVALIDATE);
+        return request.checkNotModified(etag);
+    }
+}
@@ -0,0 +1,51 @@
+package com.journeo.controller;
+
+import java.util.Locale;
+
+/**
+ * Négociation de la compression à partir d'Accept-Encoding (codages et q-values, RFC 9110 §12.5.3).
+ */
+final class ContentCodings {
+
+    private ContentCodings() {}
+
+    /**
+     * The gzip coding to answer with ("gzip", or "x-gzip" for clients that only list that alias), or null
+     * when gzip is not acceptable: absent, refused with q=0, or only reachable through a "*" refused too.
+     */
+    static String gzipCoding(String acceptEncoding) {
+        if (acceptEncoding == null) return null;
+        double gzip = -1, xGzip = -1, any = -1;
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            double q = qValue(parts);
+            switch (coding) {
+                case "gzip" -> gzip = q;
+                case "x-gzip" -> xGzip = q;
+                case "*" -> any = q;
+                default -> { }
+            }
+        }
+        // Le codage nommé prime sur son alias, l'alias sur "*"
+        if (gzip >= 0) return gzip > 0 ? "gzip" : null;
+        if (xGzip >= 0) return xGzip > 0 ? "x-gzip" : null;
+        return any > 0 ? "gzip" : null;
+    }
+
+    // q absent : 1 ; q illisible : 0 (codage ignoré plutôt que servi par erreur)
+    private static double qValue(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String param = parts[i].trim();
+            if (param.length() > 1 && Character.toLowerCase(param.charAt(0)) == 'q' && param.charAt(1) == '=') {
+                try {
+                    double q = Double.parseDouble(param.substring(2).trim());
+                    return q >= 0 && q <= 1 ? q : 0;
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
@@ -2,39 +2,57 @@ package com.journeo.controller;
 
 import com.journeo.dto.GuideRequestDTO;
 import com.journeo.dto.GuideResponseDTO;
+import com.journeo.dto.GuideSummaryDTO;
+import com.journeo.dto.ImportReportDTO;
+import com.journeo.dto.PageResponseDTO;
 import com.journeo.model.Guide;
-import com.journeo.service.CommentService;
+import com.journeo.model.User;
+import com.journeo.service.GuideExportService;
+import com.journeo.service.GuideImportService;
 import com.journeo.service.GuideService;
 import com.journeo.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
 import java.net.URI;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/guides")
 @Tag(name = "Guides", description = "Endpoints pour gérer les guides")
 public class GuideController {
 
+    private static final Long NO_USER = -1L;
+
     private final GuideService guideService;
     private final UserService userService;
-    private final CommentService commentService;
+    private final GuideImportService guideImportService;
+    private final GuideExportService guideExportService;
 
-    public GuideController(GuideService guideService, UserService userService, CommentService commentService) {
+    public GuideController(GuideService guideService, UserService userService,
+                           GuideImportService guideImportService, GuideExportService guideExportService) {
         this.guideService = guideService;
         this.userService = userService;
-        this.commentService = commentService;
+        this.guideImportService = guideImportService;
+        this.guideExportService = guideExportService;
     }
 
     /** Returns the email of the currently authenticated user. */
@@ -51,23 +69,45 @@ public class GuideController {
     }
 
     @GetMapping
-    public List<GuideResponseDTO> getAllGuides() {
-        List<Guide> all = guideService.findAll();
-
-        // Regular users see only their assigned guides
-        if (!isAdmin()) {
-            String email = currentEmail();
-            if (email != null) {
-                all = all.stream()
-                        .filter(g -> g.getUsers().stream()
-                                .anyMatch(u -> u.getEmail().equals(email)))
-                        .collect(Collectors.toList());
-            } else {
-                all = List.of();
-            }
-        }
+    @Operation(summary = "Lister les guides visibles (paginé)",
+               description = "Mode offset (page/size/sort) par défaut. Si `cursor` est fourni (vide pour la "
+                       + "première page), pagination keyset triée par id et `nextCursor` dans la réponse. "
+                       + "Le total n'est calculé que si `withTotal=true`.")
+    public PageResponseDTO<GuideResponseDTO> getAllGuides(
+            @PageableDefault(size = 50, sort = "id", direction = Sort.Direction.ASC) Pageable pageable,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean withTotal) {
+        Long userId = listingUserId();
+        PageResponseDTO<Guide> page = cursor != null
+                ? guideService.findPageAfter(userId, cursor, pageable.getPageSize(), withTotal)
+                : guideService.findPage(userId, pageable, withTotal);
+        return page.map(g -> buildDTO(g, false));
+    }
+
+    @GetMapping("/summary")
+    @Operation(summary = "Lister les guides visibles en version résumée (paginé)",
+               description = "Mêmes paramètres que GET /api/guides. Renvoie titre, durée, mobilité, saison, "
+                       + "public et compteurs d'activités / utilisateurs, sans charger les collections.")
+    public PageResponseDTO<GuideSummaryDTO> getGuideSummaries(
+            @PageableDefault(size = 50, sort = "id", direction = Sort.Direction.ASC) Pageable pageable,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean withTotal) {
+        Long userId = listingUserId();
+        return cursor != null
+                ? guideService.findSummaryPageAfter(userId, cursor, pageable.getPageSize(), withTotal)
+                : guideService.findSummaryPage(userId, pageable, withTotal);
+    }
 
-        return all.stream().map(g -> buildDTO(g, false)).collect(Collectors.toList());
+    /**
+     * Returns the user id used to scope guide listings: null for admins (no filter),
+     * otherwise the caller's id. Unknown callers get an id that matches no guide_user row.
+     */
+    private Long listingUserId() {
+        if (isAdmin()) return null;
+        // Regular users see only their assigned guides — filtered in SQL through guide_user
+        String email = currentEmail();
+        User user = email != null ? userService.findByEmail(email) : null;
+        return user != null ? user.getId() : NO_USER;
     }
 
     @PostMapping
@@ -96,14 +136,58 @@ public class GuideController {
         return ResponseEntity.created(location).body(buildDTO(saved, false));
     }
 
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Importer des guides en masse",
+               description = "Tableau JSON ou NDJSON de guides (champs de création + `activities`). Lecture en "
+                       + "streaming et écriture par lots ; les enregistrements invalides sont listés dans le "
+                       + "compte rendu sans bloquer les autres.")
+    public ImportReportDTO importGuides(HttpServletRequest request) throws IOException {
+        return guideImportService.importGuides(request.getInputStream());
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Exporter tous les guides en NDJSON",
+               description = "Une ligne JSON par guide (activités, utilisateurs, totaux de notes), triée par id, "
+                       + "écrite au fil de la lecture en base. Compressée en gzip si `Accept-Encoding` accepte gzip (q > 0).")
+    public ResponseEntity<StreamingResponseBody> exportGuides(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        String coding = ContentCodings.gzipCoding(acceptEncoding);
+        boolean gzip = coding != null;
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                // finish() écrit la fin du flux gzip sans fermer la sortie du conteneur
+                GZIPOutputStream gzipOut = new GZIPOutputStream(out, true);
+                guideExportService.exportNdjson(gzipOut);
+                gzipOut.finish();
+            } else {
+                guideExportService.exportNdjson(out);
+            }
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) response.header(HttpHeaders.CONTENT_ENCODING, coding);
+        return response.body(body);
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<GuideResponseDTO> getGuideById(@PathVariable Long id) {
+    @Operation(summary = "Récupérer un guide",
+               description = "Renvoie un ETag fort dérivé des versions du guide et de ses activités. Avec "
+                       + "`If-None-Match`, répond 304 sans recharger le guide s'il n'a pas changé.")
+    public ResponseEntity<GuideResponseDTO> getGuideById(@PathVariable Long id, ServletWebRequest webRequest) {
+        // Une seule requête agrégée (accès compris) ; 304 avant tout chargement des collections
+        boolean admin = isAdmin();
+        String email = currentEmail();
+        String etag = admin || email != null ? guideService.findETag(id, admin ? null : email) : null;
+        if (ConditionalRequests.notModified(webRequest, etag)) return null;
+
         Guide guide = guideService.findById(id);
         if (guide == null) return ResponseEntity.notFound().build();
 
         // Regular users can only access guides they are assigned to
-        if (!isAdmin()) {
-            String email = currentEmail();
+        if (!admin) {
             boolean assigned = email != null && guide.getUsers().stream()
                     .anyMatch(u -> u.getEmail().equals(email));
             if (!assigned) {
@@ -159,7 +243,7 @@ public class GuideController {
     private GuideResponseDTO buildDTO(Guide guide, boolean withRating) {
         GuideResponseDTO dto = new GuideResponseDTO(guide);
         if (withRating) {
-            dto.setAverageRating(commentService.getAverageRating(guide.getId()));
+            dto.setAverageRating(guide.getAverageRating());
         }
         return dto;
     }
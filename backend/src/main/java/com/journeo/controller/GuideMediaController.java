@@ -1,28 +1,47 @@
 package com.journeo.controller;
 
+import com.journeo.config.MediaFileSender;
+import com.journeo.config.MediaStorage;
 import com.journeo.dto.GuideMediaResponseDTO;
+import com.journeo.model.GuideMedia;
 import com.journeo.service.GuideMediaService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import org.springframework.core.io.Resource;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.time.ZoneId;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 
 @RestController
 @Tag(name = "Media", description = "Endpoints pour gérer les médias d'un guide")
 public class GuideMediaController {
 
+    // Noms de fichiers UUID : le contenu d'une URL ne change jamais, inutile de revalider
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePrivate().immutable();
+
+    private static final Set<String> INLINE_IMAGE_SUBTYPES = Set.of("jpeg", "png", "gif", "webp", "avif");
+
     private final GuideMediaService mediaService;
+    private final MediaFileSender fileSender;
 
-    public GuideMediaController(GuideMediaService mediaService) {
+    public GuideMediaController(GuideMediaService mediaService, MediaFileSender fileSender) {
         this.mediaService = mediaService;
+        this.fileSender = fileSender;
     }
 
     @PostMapping("/api/guides/{guideId}/media")
@@ -36,9 +55,28 @@ public class GuideMediaController {
         return ResponseEntity.status(201).body(dto);
     }
 
+    @PostMapping(value = "/api/guides/{guideId}/media",
+                 consumes = {"image/*", "video/*", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Uploader un média en flux (corps brut)",
+               description = "Le corps de la requête est le fichier, `Content-Type` son type MIME et `name` son nom "
+                       + "d'origine. Écrit directement à son emplacement final avec empreinte SHA-256 ; "
+                       + "413 au-delà de la taille maximale.")
+    public ResponseEntity<GuideMediaResponseDTO> uploadMediaStream(
+            @PathVariable Long guideId,
+            @RequestParam(value = "name", required = false) String name,
+            HttpServletRequest request) throws IOException {
+        String baseUrl = ServletUriComponentsBuilder.fromCurrentContextPath().build().toUriString();
+        GuideMediaResponseDTO dto = mediaService.uploadMedia(guideId, request.getInputStream(), name,
+                request.getContentType(), baseUrl);
+        return ResponseEntity.status(201).body(dto);
+    }
+
     @GetMapping("/api/guides/{guideId}/media")
-    @Operation(summary = "Lister les médias d'un guide")
-    public List<GuideMediaResponseDTO> getMedia(@PathVariable Long guideId) {
+    @Operation(summary = "Lister les médias d'un guide",
+               description = "ETag fort dérivé des versions des médias ; 304 si `If-None-Match` correspond.")
+    public List<GuideMediaResponseDTO> getMedia(@PathVariable Long guideId, ServletWebRequest webRequest) {
+        if (ConditionalRequests.notModified(webRequest, mediaService.findMediaETag(guideId))) return null;
         String baseUrl = ServletUriComponentsBuilder.fromCurrentContextPath().build().toUriString();
         return mediaService.getMediaForGuide(guideId, baseUrl);
     }
@@ -54,13 +92,52 @@ public class GuideMediaController {
     }
 
     @GetMapping("/api/media/files/{fileName:.+}")
-    @Operation(summary = "Télécharger un fichier média")
-    public ResponseEntity<Resource> serveFile(@PathVariable String fileName) {
-        Resource resource = mediaService.loadFile(fileName);
-        String contentType = "application/octet-stream";
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + resource.getFilename() + "\"")
-                .contentType(MediaType.parseMediaType(contentType))
-                .body(resource);
+    @Operation(summary = "Télécharger un fichier média",
+               description = "Renvoie le type MIME enregistré à l'upload. Supporte `Range` (206 Partial Content) "
+                       + "pour la lecture vidéo, et `If-None-Match` / `If-Modified-Since` (304).")
+    public void serveFile(@PathVariable String fileName, HttpServletRequest request,
+                          HttpServletResponse response) throws IOException {
+        GuideMedia media = mediaService.findByFileName(fileName);
+        send(media, mediaService.resolveFile(media), servedContentType(media), request, response);
+    }
+
+    @GetMapping("/api/media/files/{fileName:.+}/{variant}")
+    @Operation(summary = "Télécharger un dérivé redimensionné d'une image",
+               description = "Tailles : `small` (320 px), `medium` (1024 px), en JPEG. 404 tant que les dérivés "
+                       + "ne sont pas générés (`variantStatus` du média).")
+    public void serveVariant(@PathVariable String fileName, @PathVariable String variant,
+                             HttpServletRequest request, HttpServletResponse response) throws IOException {
+        GuideMedia media = mediaService.findByFileName(fileName);
+        send(media, mediaService.resolveVariantFile(media, variant), MediaType.IMAGE_JPEG, request, response);
+    }
+
+    private void send(GuideMedia media, MediaStorage.StoredObject file, MediaType contentType,
+                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+        // Seuls les types rendus sans script par le navigateur sont affichés inline ; le reste est téléchargé
+        String disposition = MediaType.APPLICATION_OCTET_STREAM.equals(contentType) ? "attachment" : "inline";
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, disposition + "; filename=\"" + file.name() + "\"");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, IMMUTABLE.getHeaderValue());
+        response.setContentType(contentType.toString());
+        long lastModified = media.getUploadedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        // 304, Range (206 / 416) puis envoi sendfile, FileChannel.transferTo ou lecture par plage (S3)
+        fileSender.send(file, "\"" + file.name() + "\"", lastModified, request, response);
+    }
+
+    // Types servis tels quels : images matricielles et vidéos. SVG (scripts) ou HTML déclarés à l'upload
+    // seraient exécutés depuis l'origine de l'API, ils sont servis en application/octet-stream
+    private static MediaType servedContentType(GuideMedia media) {
+        String contentType = media.getContentType();
+        if (contentType == null) return MediaType.APPLICATION_OCTET_STREAM;
+        try {
+            MediaType type = MediaType.parseMediaType(contentType);
+            if ("image".equalsIgnoreCase(type.getType())
+                    && INLINE_IMAGE_SUBTYPES.contains(type.getSubtype().toLowerCase(Locale.ROOT))) {
+                return type;
+            }
+            if ("video".equalsIgnoreCase(type.getType())) return type;
+        } catch (InvalidMediaTypeException e) {
+            // type invalide : téléchargement
+        }
+        return MediaType.APPLICATION_OCTET_STREAM;
     }
 }
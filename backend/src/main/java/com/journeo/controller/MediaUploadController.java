@@ -0,0 +1,74 @@
+package com.journeo.controller;
+
+import com.journeo.dto.GuideMediaResponseDTO;
+import com.journeo.dto.MediaUploadRequestDTO;
+import com.journeo.dto.MediaUploadResponseDTO;
+import com.journeo.service.MediaUploadService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/guides/{guideId}/media/uploads")
+@Tag(name = "Media", description = "Endpoints pour gérer les médias d'un guide")
+public class MediaUploadController {
+
+    private final MediaUploadService uploadService;
+
+    public MediaUploadController(MediaUploadService uploadService) {
+        this.uploadService = uploadService;
+    }
+
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Démarrer un upload par morceaux",
+               description = "Déclare le nom, le type et la taille totale du fichier ; renvoie l'identifiant de l'upload.")
+    public ResponseEntity<MediaUploadResponseDTO> initiate(@PathVariable Long guideId,
+                                                           @Valid @RequestBody MediaUploadRequestDTO request) {
+        return ResponseEntity.status(201).body(uploadService.initiate(guideId, request));
+    }
+
+    @GetMapping("/{uploadId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "État d'un upload par morceaux",
+               description = "`received` est l'offset à partir duquel reprendre après une coupure.")
+    public MediaUploadResponseDTO getStatus(@PathVariable Long guideId, @PathVariable UUID uploadId) {
+        return uploadService.getStatus(guideId, uploadId);
+    }
+
+    @PutMapping("/{uploadId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Envoyer un morceau à un offset",
+               description = "Corps brut écrit à la position `offset` du fichier. L'offset ne doit pas dépasser "
+                       + "`received` (409 sinon) ; un morceau déjà reçu peut être renvoyé.")
+    public MediaUploadResponseDTO writeChunk(@PathVariable Long guideId, @PathVariable UUID uploadId,
+                                             @RequestParam long offset,
+                                             HttpServletRequest request) throws IOException {
+        return uploadService.writeChunk(guideId, uploadId, offset, request.getInputStream());
+    }
+
+    @PostMapping("/{uploadId}/complete")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Finaliser un upload par morceaux",
+               description = "Crée le média une fois tous les octets reçus (409 sinon).")
+    public ResponseEntity<GuideMediaResponseDTO> complete(@PathVariable Long guideId, @PathVariable UUID uploadId) {
+        String baseUrl = ServletUriComponentsBuilder.fromCurrentContextPath().build().toUriString();
+        return ResponseEntity.status(201).body(uploadService.complete(guideId, uploadId, baseUrl));
+    }
+
+    @DeleteMapping("/{uploadId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Abandonner un upload par morceaux")
+    public ResponseEntity<Void> abort(@PathVariable Long guideId, @PathVariable UUID uploadId) {
+        uploadService.abort(guideId, uploadId);
+        return ResponseEntity.ok().build();
+    }
+}
@@ -0,0 +1,49 @@
+package com.journeo.controller;
+
+import com.journeo.dto.SyncResponseDTO;
+import com.journeo.model.User;
+import com.journeo.service.SyncService;
+import com.journeo.service.UserService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+@RestController
+@RequestMapping("/api/sync")
+@Tag(name = "Sync", description = "Synchronisation incrémentale pour le mode hors ligne")
+public class SyncController {
+
+    private static final Long NO_USER = -1L;
+
+    private final SyncService syncService;
+    private final UserService userService;
+
+    public SyncController(SyncService syncService, UserService userService) {
+        this.syncService = syncService;
+        this.userService = userService;
+    }
+
+    @GetMapping
+    @Operation(summary = "Récupérer les modifications depuis la dernière synchronisation",
+               description = "Sans `since` (ou avec un jeton trop ancien), renvoie tout ce qui est visible avec "
+                       + "`full=true`. Sinon, seulement les guides, activités, commentaires et médias créés ou "
+                       + "modifiés et les suppressions (`deleted`). Conserver `token` pour l'appel suivant.")
+    public SyncResponseDTO sync(@RequestParam(required = false) String since, Authentication authentication) {
+        String baseUrl = ServletUriComponentsBuilder.fromCurrentContextPath().build().toUriString();
+        return syncService.changesSince(syncUserId(authentication), since, baseUrl);
+    }
+
+    // Administrateur : tous les guides (null) ; utilisateur : ses guides assignés
+    private Long syncUserId(Authentication authentication) {
+        boolean admin = authentication.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+        if (admin) return null;
+        User user = userService.findByEmail(authentication.getName());
+        return user != null ? user.getId() : NO_USER;
+    }
+}
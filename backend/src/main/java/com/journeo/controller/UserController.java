@@ -2,8 +2,9 @@ package com.journeo.controller;
 
 import com.journeo.dto.UserRequestDTO;
 import com.journeo.dto.UserResponseDTO;
-import com.journeo.dto.GuideResponseDTO;
+import com.journeo.dto.GuideSummaryDTO;
 import com.journeo.model.User;
+import com.journeo.service.GuideService;
 import com.journeo.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -30,9 +31,11 @@ import java.util.List;
 public class UserController {
 
     private final UserService userService;
+    private final GuideService guideService;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, GuideService guideService) {
         this.userService = userService;
+        this.guideService = guideService;
     }
 
     @GetMapping("/ping")
@@ -156,14 +159,10 @@ public class UserController {
         @ApiResponse(responseCode = "200", description = "Liste des guides"),
         @ApiResponse(responseCode = "404", description = "Utilisateur introuvable")
     })
-    public ResponseEntity<List<GuideResponseDTO>> getUserGuides(
+    public ResponseEntity<List<GuideSummaryDTO>> getUserGuides(
             @Parameter(description = "ID de l'utilisateur", required = true) @PathVariable Long userId) {
         User user = userService.findById(userId);
         if (user == null) return ResponseEntity.notFound().build();
-        List<GuideResponseDTO> guides = user.getGuides()
-                .stream()
-                .map(GuideResponseDTO::new)
-                .collect(java.util.stream.Collectors.toList());
-        return ResponseEntity.ok(guides);
+        return ResponseEntity.ok(guideService.findSummariesByUserId(userId));
     }
 }
@@ -0,0 +1,38 @@
+package com.journeo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Nouvelle position (jour, ordre) d'une activité existante.
+ */
+public class ActivityMoveDTO {
+
+    @NotNull(message = "L'id de l'activité est obligatoire")
+    @Schema(example = "12")
+    private Long id;
+
+    @Min(value = 1, message = "Le jour doit être d'au moins 1")
+    @Schema(example = "1", description = "Numéro du jour dans le guide")
+    private int jour;
+
+    @Min(value = 1, message = "L'ordre doit être d'au moins 1")
+    @Schema(example = "2", description = "Position dans la journée")
+    private int ordre;
+
+    public ActivityMoveDTO() {}
+
+    public ActivityMoveDTO(Long id, int jour, int ordre) {
+        this.id = id;
+        this.jour = jour;
+        this.ordre = ordre;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public int getJour() { return jour; }
+    public void setJour(int jour) { this.jour = jour; }
+    public int getOrdre() { return ordre; }
+    public void setOrdre(int ordre) { this.ordre = ordre; }
+}
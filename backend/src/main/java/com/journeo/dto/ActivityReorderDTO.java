@@ -0,0 +1,20 @@
+package com.journeo.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Réordonnancement des activités d'un guide : la liste complète ou seulement les activités déplacées.
+ */
+public class ActivityReorderDTO {
+
+    @NotEmpty(message = "Au moins un déplacement est requis")
+    @Valid
+    private List<ActivityMoveDTO> moves = new ArrayList<>();
+
+    public List<ActivityMoveDTO> getMoves() { return moves; }
+    public void setMoves(List<ActivityMoveDTO> moves) { this.moves = moves; }
+}
@@ -2,6 +2,8 @@ package com.journeo.dto;
 
 import com.journeo.model.Activity;
 
+import java.time.LocalDateTime;
+
 public class ActivityResponseDTO {
 
     private Long id;
@@ -17,6 +19,9 @@ public class ActivityResponseDTO {
     private int jour;
     private Double latitude;
     private Double longitude;
+    private Long guideId;
+    private long version;
+    private LocalDateTime updatedAt;
 
     public ActivityResponseDTO(Activity activity) {
         this.id = activity.getId();
@@ -32,6 +37,9 @@ public class ActivityResponseDTO {
         this.jour = activity.getJour();
         this.latitude = activity.getLatitude();
         this.longitude = activity.getLongitude();
+        this.guideId = activity.getGuide() != null ? activity.getGuide().getId() : null;
+        this.version = activity.getVersion();
+        this.updatedAt = activity.getUpdatedAt();
     }
 
     // Getters
@@ -48,4 +56,7 @@ public class ActivityResponseDTO {
     public int getJour() { return jour; }
     public Double getLatitude() { return latitude; }
     public Double getLongitude() { return longitude; }
+    public Long getGuideId() { return guideId; }
+    public long getVersion() { return version; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
 }
\ No newline at end of file
@@ -14,6 +14,8 @@ public class CommentResponseDTO {
     private Long authorId;
     private LocalDateTime createdAt;
     private Long guideId;
+    private long version;
+    private LocalDateTime updatedAt;
 
     public CommentResponseDTO(Comment comment) {
         this.id = comment.getId();
@@ -25,6 +27,8 @@ public class CommentResponseDTO {
         this.authorId = comment.getAuthor().getId();
         this.createdAt = comment.getCreatedAt();
         this.guideId = comment.getGuide().getId();
+        this.version = comment.getVersion();
+        this.updatedAt = comment.getUpdatedAt();
     }
 
     public Long getId() { return id; }
@@ -36,4 +40,6 @@ public class CommentResponseDTO {
     public Long getAuthorId() { return authorId; }
     public LocalDateTime getCreatedAt() { return createdAt; }
     public Long getGuideId() { return guideId; }
+    public long getVersion() { return version; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
 }
@@ -0,0 +1,22 @@
+package com.journeo.dto;
+
+import com.journeo.model.Guide;
+
+/**
+ * Ligne de l'export NDJSON : le guide complet et ses totaux de notes.
+ */
+public class GuideExportDTO extends GuideResponseDTO {
+
+    private final int ratingCount;
+    private final long ratingSum;
+
+    public GuideExportDTO(Guide guide) {
+        super(guide);
+        setAverageRating(guide.getAverageRating());
+        this.ratingCount = guide.getRatingCount();
+        this.ratingSum = guide.getRatingSum();
+    }
+
+    public int getRatingCount() { return ratingCount; }
+    public long getRatingSum() { return ratingSum; }
+}
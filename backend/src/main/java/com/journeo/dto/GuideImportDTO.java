@@ -0,0 +1,20 @@
+package com.journeo.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Un enregistrement de l'import en masse : un guide et ses activités.
+ */
+public class GuideImportDTO extends GuideRequestDTO {
+
+    // "activities": null ou [null] : erreur de l'enregistrement, pas de l'import entier
+    @NotNull
+    private List<@NotNull @Valid ActivityRequestDTO> activities = new ArrayList<>();
+
+    public List<ActivityRequestDTO> getActivities() { return activities; }
+    public void setActivities(List<ActivityRequestDTO> activities) { this.activities = activities; }
+}
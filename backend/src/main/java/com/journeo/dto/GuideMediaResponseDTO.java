@@ -2,6 +2,8 @@ package com.journeo.dto;
 
 import com.journeo.model.GuideMedia;
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 public class GuideMediaResponseDTO {
 
@@ -11,9 +13,15 @@ public class GuideMediaResponseDTO {
     private GuideMedia.FileType fileType;
     private String contentType;
     private Long size;
+    private String sha256;
     private LocalDateTime uploadedAt;
     private Long guideId;
     private String url;
+    private GuideMedia.VariantStatus variantStatus;
+    // Taille ("small", "medium") -> URL du dérivé JPEG ; vide tant que les dérivés ne sont pas prêts
+    private Map<String, String> variants;
+    private long version;
+    private LocalDateTime updatedAt;
 
     public GuideMediaResponseDTO(GuideMedia media, String baseUrl) {
         this.id = media.getId();
@@ -22,9 +30,19 @@ public class GuideMediaResponseDTO {
         this.fileType = media.getFileType();
         this.contentType = media.getContentType();
         this.size = media.getSize();
+        this.sha256 = media.getSha256();
         this.uploadedAt = media.getUploadedAt();
         this.guideId = media.getGuide().getId();
         this.url = baseUrl + "/api/media/files/" + media.getFileName();
+        this.variantStatus = media.getVariantStatus();
+        this.variants = new LinkedHashMap<>();
+        if (media.getVariantStatus() == GuideMedia.VariantStatus.READY) {
+            for (GuideMedia.Variant variant : GuideMedia.Variant.values()) {
+                variants.put(variant.key(), baseUrl + "/api/media/files/" + media.getFileName() + "/" + variant.key());
+            }
+        }
+        this.version = media.getVersion();
+        this.updatedAt = media.getUpdatedAt();
     }
 
     public Long getId() { return id; }
@@ -33,7 +51,12 @@ public class GuideMediaResponseDTO {
     public GuideMedia.FileType getFileType() { return fileType; }
     public String getContentType() { return contentType; }
     public Long getSize() { return size; }
+    public String getSha256() { return sha256; }
     public LocalDateTime getUploadedAt() { return uploadedAt; }
     public Long getGuideId() { return guideId; }
     public String getUrl() { return url; }
+    public GuideMedia.VariantStatus getVariantStatus() { return variantStatus; }
+    public Map<String, String> getVariants() { return variants; }
+    public long getVersion() { return version; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
 }
@@ -0,0 +1,45 @@
+package com.journeo.dto;
+
+import com.journeo.model.Guide;
+
+/**
+ * Vue allégée d'un guide pour les écrans de liste.
+ * Construite directement par une expression JPQL (voir GuideRepository) : les compteurs
+ * sont calculés en SQL, sans charger les activités ni les utilisateurs assignés.
+ */
+public class GuideSummaryDTO {
+
+    private Long id;
+    private String titre;
+    private String description;
+    private int jours;
+    private Guide.Mobilite mobilite;
+    private Guide.Saison saison;
+    private Guide.PublicCible pourQui;
+    private long activityCount;
+    private long userCount;
+
+    public GuideSummaryDTO(Long id, String titre, String description, int jours,
+                           Guide.Mobilite mobilite, Guide.Saison saison, Guide.PublicCible pourQui,
+                           Long activityCount, Integer userCount) {
+        this.id = id;
+        this.titre = titre;
+        this.description = description;
+        this.jours = jours;
+        this.mobilite = mobilite;
+        this.saison = saison;
+        this.pourQui = pourQui;
+        this.activityCount = activityCount != null ? activityCount : 0L;
+        this.userCount = userCount != null ? userCount : 0L;
+    }
+
+    public Long getId() { return id; }
+    public String getTitre() { return titre; }
+    public String getDescription() { return description; }
+    public int getJours() { return jours; }
+    public Guide.Mobilite getMobilite() { return mobilite; }
+    public Guide.Saison getSaison() { return saison; }
+    public Guide.PublicCible getPourQui() { return pourQui; }
+    public long getActivityCount() { return activityCount; }
+    public long getUserCount() { return userCount; }
+}
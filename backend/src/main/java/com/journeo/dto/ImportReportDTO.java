@@ -0,0 +1,40 @@
+package com.journeo.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compte rendu d'un import en masse.
+ * {@code errors} est borné : au-delà de la limite seul le compteur {@code failed} progresse.
+ * {@code fatalError} est renseigné si la lecture du flux a dû s'arrêter (JSON mal formé).
+ */
+public class ImportReportDTO {
+
+    private int imported;
+    private int failed;
+    private final List<RecordError> errors = new ArrayList<>();
+    private boolean errorsTruncated;
+    private String fatalError;
+
+    public void addImported(int count) { imported += count; }
+
+    public void addError(int index, String titre, String message, int maxReported) {
+        failed++;
+        if (errors.size() < maxReported) {
+            errors.add(new RecordError(index, titre, message));
+        } else {
+            errorsTruncated = true;
+        }
+    }
+
+    public void setFatalError(String fatalError) { this.fatalError = fatalError; }
+
+    public int getImported() { return imported; }
+    public int getFailed() { return failed; }
+    public List<RecordError> getErrors() { return errors; }
+    public boolean isErrorsTruncated() { return errorsTruncated; }
+    public String getFatalError() { return fatalError; }
+
+    /** Error on one record, identified by its 0-based position in the stream. */
+    public record RecordError(int index, String titre, String message) {}
+}
@@ -0,0 +1,28 @@
+package com.journeo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+public class MediaUploadRequestDTO {
+
+    @NotBlank(message = "Le nom du fichier est obligatoire")
+    @Schema(example = "visite.mp4")
+    private String fileName;
+
+    @Schema(example = "video/mp4")
+    private String contentType;
+
+    @NotNull(message = "La taille du fichier est obligatoire")
+    @Min(value = 1, message = "La taille du fichier doit être positive")
+    @Schema(example = "47185920", description = "Taille totale du fichier en octets")
+    private Long size;
+
+    public String getFileName() { return fileName; }
+    public void setFileName(String fileName) { this.fileName = fileName; }
+    public String getContentType() { return contentType; }
+    public void setContentType(String contentType) { this.contentType = contentType; }
+    public Long getSize() { return size; }
+    public void setSize(Long size) { this.size = size; }
+}
@@ -0,0 +1,35 @@
+package com.journeo.dto;
+
+import com.journeo.model.MediaUpload;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public class MediaUploadResponseDTO {
+
+    private UUID id;
+    private Long guideId;
+    private String fileName;
+    private String contentType;
+    private long size;
+    // Offset à partir duquel reprendre l'envoi
+    private long received;
+    private LocalDateTime updatedAt;
+
+    public MediaUploadResponseDTO(MediaUpload upload, long received) {
+        this.id = upload.getId();
+        this.guideId = upload.getGuideId();
+        this.fileName = upload.getOriginalName();
+        this.contentType = upload.getContentType();
+        this.size = upload.getSize();
+        this.received = received;
+        this.updatedAt = upload.getUpdatedAt();
+    }
+
+    public UUID getId() { return id; }
+    public Long getGuideId() { return guideId; }
+    public String getFileName() { return fileName; }
+    public String getContentType() { return contentType; }
+    public long getSize() { return size; }
+    public long getReceived() { return received; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+}
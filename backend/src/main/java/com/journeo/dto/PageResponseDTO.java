@@ -0,0 +1,42 @@
+package com.journeo.dto;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Page de résultats renvoyée par les endpoints de liste.
+ * {@code page} n'est renseigné qu'en mode offset, {@code nextCursor} qu'en mode keyset,
+ * et {@code totalElements} uniquement si le client l'a demandé (COUNT(*) coûteux).
+ */
+public class PageResponseDTO<T> {
+
+    private List<T> content;
+    private int size;
+    private Integer page;
+    private boolean hasNext;
+    private String nextCursor;
+    private Long totalElements;
+
+    public PageResponseDTO(List<T> content, int size, Integer page, boolean hasNext,
+                           String nextCursor, Long totalElements) {
+        this.content = content;
+        this.size = size;
+        this.page = page;
+        this.hasNext = hasNext;
+        this.nextCursor = nextCursor;
+        this.totalElements = totalElements;
+    }
+
+    public <R> PageResponseDTO<R> map(Function<? super T, ? extends R> mapper) {
+        List<R> mapped = content.stream().map(mapper).collect(Collectors.toList());
+        return new PageResponseDTO<>(mapped, size, page, hasNext, nextCursor, totalElements);
+    }
+
+    public List<T> getContent() { return content; }
+    public int getSize() { return size; }
+    public Integer getPage() { return page; }
+    public boolean isHasNext() { return hasNext; }
+    public String getNextCursor() { return nextCursor; }
+    public Long getTotalElements() { return totalElements; }
+}
@@ -0,0 +1,46 @@
+package com.journeo.dto;
+
+import com.journeo.model.Guide;
+
+import java.time.LocalDateTime;
+
+/**
+ * Guide modifié renvoyé par la synchronisation, sans ses collections (transmises séparément).
+ */
+public class SyncGuideDTO {
+
+    private final Long id;
+    private final String titre;
+    private final String description;
+    private final int jours;
+    private final Guide.Mobilite mobilite;
+    private final Guide.Saison saison;
+    private final Guide.PublicCible pourQui;
+    private final Double averageRating;
+    private final long version;
+    private final LocalDateTime updatedAt;
+
+    public SyncGuideDTO(Guide guide) {
+        this.id = guide.getId();
+        this.titre = guide.getTitre();
+        this.description = guide.getDescription();
+        this.jours = guide.getJours();
+        this.mobilite = guide.getMobilite();
+        this.saison = guide.getSaison();
+        this.pourQui = guide.getPourQui();
+        this.averageRating = guide.getAverageRating();
+        this.version = guide.getVersion();
+        this.updatedAt = guide.getUpdatedAt();
+    }
+
+    public Long getId() { return id; }
+    public String getTitre() { return titre; }
+    public String getDescription() { return description; }
+    public int getJours() { return jours; }
+    public Guide.Mobilite getMobilite() { return mobilite; }
+    public Guide.Saison getSaison() { return saison; }
+    public Guide.PublicCible getPourQui() { return pourQui; }
+    public Double getAverageRating() { return averageRating; }
+    public long getVersion() { return version; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+}
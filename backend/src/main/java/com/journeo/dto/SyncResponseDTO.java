@@ -0,0 +1,49 @@
+package com.journeo.dto;
+
+import com.journeo.model.SyncTombstone;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Réponse de GET /api/sync : enregistrements créés ou modifiés et suppressions depuis le jeton du client.
+ * Le client applique d'abord {@code deleted}, puis les autres listes, et conserve {@code token}.
+ * {@code full} : le jeton était absent ou trop ancien, la réponse contient tout et remplace les données locales.
+ */
+public class SyncResponseDTO {
+
+    private final String token;
+    private final boolean full;
+    private final List<SyncGuideDTO> guides;
+    private final List<ActivityResponseDTO> activities;
+    private final List<CommentResponseDTO> comments;
+    private final List<GuideMediaResponseDTO> media;
+    private final List<Deleted> deleted;
+
+    public SyncResponseDTO(String token, boolean full, List<SyncGuideDTO> guides,
+                           List<ActivityResponseDTO> activities, List<CommentResponseDTO> comments,
+                           List<GuideMediaResponseDTO> media, List<Deleted> deleted) {
+        this.token = token;
+        this.full = full;
+        this.guides = guides;
+        this.activities = activities;
+        this.comments = comments;
+        this.media = media;
+        this.deleted = deleted;
+    }
+
+    public String getToken() { return token; }
+    public boolean isFull() { return full; }
+    public List<SyncGuideDTO> getGuides() { return guides; }
+    public List<ActivityResponseDTO> getActivities() { return activities; }
+    public List<CommentResponseDTO> getComments() { return comments; }
+    public List<GuideMediaResponseDTO> getMedia() { return media; }
+    public List<Deleted> getDeleted() { return deleted; }
+
+    /** Tombstone: a record removed (or a guide no longer visible) since the previous sync. */
+    public record Deleted(SyncTombstone.EntityType type, Long id, Long guideId, LocalDateTime deletedAt) {
+        public Deleted(SyncTombstone tombstone) {
+            this(tombstone.getEntityType(), tombstone.getEntityId(), tombstone.getGuideId(), tombstone.getDeletedAt());
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.journeo.exception.handler;
 
 import com.journeo.dto.ErrorResponseDTO;
 import com.journeo.exception.ConflictException;
+import com.journeo.exception.PayloadTooLargeException;
 import com.journeo.exception.ResourceNotFoundException;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.HttpStatus;
@@ -11,6 +12,7 @@ import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 
 import java.util.stream.Collectors;
 
@@ -57,6 +59,13 @@ public class GlobalExceptionHandler {
                 .body(new ErrorResponseDTO(400, "Bad Request", ex.getMessage(), request.getRequestURI()));
     }
 
+    // 413 — Fichier trop volumineux (upload en flux ou multipart)
+    @ExceptionHandler({PayloadTooLargeException.class, MaxUploadSizeExceededException.class})
+    public ResponseEntity<ErrorResponseDTO> handlePayloadTooLarge(Exception ex, HttpServletRequest request) {
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                .body(new ErrorResponseDTO(413, "Payload Too Large", ex.getMessage(), request.getRequestURI()));
+    }
+
     // 403 — Accès refusé (rôle insuffisant)
     @ExceptionHandler(AccessDeniedException.class)
     public ResponseEntity<ErrorResponseDTO> handleAccessDenied(AccessDeniedException ex,
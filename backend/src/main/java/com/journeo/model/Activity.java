@@ -5,10 +5,11 @@ import jakarta.persistence.*;
 
 @Entity
 @Table(name = "activities")
-public class Activity {
+public class Activity extends SyncTracked {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "activities_seq")
+    @SequenceGenerator(name = "activities_seq", sequenceName = "activities_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
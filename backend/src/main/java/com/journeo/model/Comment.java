@@ -5,10 +5,11 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "comments")
-public class Comment {
+public class Comment extends SyncTracked {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "comments_seq")
+    @SequenceGenerator(name = "comments_seq", sequenceName = "comments_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, columnDefinition = "TEXT")
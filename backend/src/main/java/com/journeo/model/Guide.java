@@ -7,14 +7,16 @@ import java.util.Set;
 
 @Entity
 @Table(name = "guides")
-public class Guide {
+public class Guide extends SyncTracked {
 
     public enum Mobilite { VOITURE, VELO, A_PIED, MOTO, METRO, TRANSPORTS_EN_COMMUN }
     public enum Saison { ETE, PRINTEMPS, AUTOMNE, HIVER }
     public enum PublicCible { FAMILLE, SEUL, EN_GROUPE, ENTRE_AMIS }
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Séquence avec optimiseur pooled (50 ids par appel) : les INSERT peuvent être envoyés en batch JDBC
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "guides_seq")
+    @SequenceGenerator(name = "guides_seq", sequenceName = "guides_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -49,6 +51,13 @@ public class Guide {
     )
     private Set<User> users = new HashSet<>();
 
+    // Totaux des notes, maintenus par des UPDATE atomiques (GuideRepository) : jamais réécrits par l'entité
+    @Column(name = "rating_count", nullable = false, updatable = false)
+    private int ratingCount;
+
+    @Column(name = "rating_sum", nullable = false, updatable = false)
+    private long ratingSum;
+
     // Constructeur vide
     public Guide() {}
 
@@ -80,6 +89,13 @@ public class Guide {
     public void setActivities(Set<Activity> activities) { this.activities = activities; }
     public Set<User> getUsers() { return users; }
     public void setUsers(Set<User> users) { this.users = users; }
+    public int getRatingCount() { return ratingCount; }
+    public long getRatingSum() { return ratingSum; }
+
+    /** Average rating from the stored totals, or null when the guide has no comment. */
+    public Double getAverageRating() {
+        return ratingCount == 0 ? null : (double) ratingSum / ratingCount;
+    }
 
     // Relations helpers
     public void addActivity(Activity activity) { activities.add(activity); activity.setGuide(this); }
@@ -5,17 +5,44 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "guide_media")
-public class GuideMedia {
+public class GuideMedia extends SyncTracked {
 
     public enum FileType { IMAGE, VIDEO }
 
+    /** Resized JPEG derivatives of an image, bounded by a maximum width and height in pixels. */
+    public enum Variant {
+        SMALL(320), MEDIUM(1024);
+
+        private final int maxDimension;
+
+        Variant(int maxDimension) { this.maxDimension = maxDimension; }
+
+        public int getMaxDimension() { return maxDimension; }
+        public String key() { return name().toLowerCase(); }
+
+        // photo-uuid.png -> photo-uuid-small.jpg
+        public String fileName(String original) {
+            int dot = original.lastIndexOf('.');
+            String base = dot > 0 ? original.substring(0, dot) : original;
+            return base + "-" + key() + ".jpg";
+        }
+    }
+
+    // NONE : vidéo ou média antérieur au pipeline ; PENDING : en file ; FAILED : image illisible
+    public enum VariantStatus { NONE, PENDING, READY, FAILED }
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "guide_media_seq")
+    @SequenceGenerator(name = "guide_media_seq", sequenceName = "guide_media_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "file_name", nullable = false, unique = true)
     private String fileName;
 
+    // Blob partagé (MediaBlob) contenant le fichier ; null si le fichier est stocké sous fileName
+    @Column(name = "storage_name")
+    private String storageName;
+
     @Column(name = "original_name", nullable = false)
     private String originalName;
 
@@ -28,6 +55,14 @@ public class GuideMedia {
 
     private Long size;
 
+    // Empreinte SHA-256 (hex) calculée pendant l'écriture ; null pour les médias plus anciens
+    @Column(name = "sha256", length = 64)
+    private String sha256;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "variant_status", nullable = false)
+    private VariantStatus variantStatus = VariantStatus.NONE;
+
     @Column(name = "uploaded_at", nullable = false)
     private LocalDateTime uploadedAt;
 
@@ -45,6 +80,10 @@ public class GuideMedia {
     public Long getId() { return id; }
     public String getFileName() { return fileName; }
     public void setFileName(String fileName) { this.fileName = fileName; }
+    public String getStorageName() { return storageName; }
+    public void setStorageName(String storageName) { this.storageName = storageName; }
+    /** Name of the file on disk: the shared blob when content-addressed, the media's own file otherwise. */
+    public String storedFileName() { return storageName != null ? storageName : fileName; }
     public String getOriginalName() { return originalName; }
     public void setOriginalName(String originalName) { this.originalName = originalName; }
     public FileType getFileType() { return fileType; }
@@ -53,6 +92,10 @@ public class GuideMedia {
     public void setContentType(String contentType) { this.contentType = contentType; }
     public Long getSize() { return size; }
     public void setSize(Long size) { this.size = size; }
+    public String getSha256() { return sha256; }
+    public void setSha256(String sha256) { this.sha256 = sha256; }
+    public VariantStatus getVariantStatus() { return variantStatus; }
+    public void setVariantStatus(VariantStatus variantStatus) { this.variantStatus = variantStatus; }
     public LocalDateTime getUploadedAt() { return uploadedAt; }
     public Guide getGuide() { return guide; }
     public void setGuide(Guide guide) { this.guide = guide; }
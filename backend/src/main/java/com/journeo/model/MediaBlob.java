@@ -0,0 +1,63 @@
+package com.journeo.model;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Fichier partagé du stockage adressé par contenu : nommé d'après son empreinte SHA-256,
+ * référencé par ref_count lignes guide_media (colonne storage_name).
+ */
+@Entity
+@Table(name = "media_blobs")
+public class MediaBlob implements Persistable<String> {
+
+    @Id
+    @Column(name = "sha256", length = 64)
+    private String sha256;
+
+    @Column(name = "file_name", nullable = false, unique = true)
+    private String fileName;
+
+    @Column(nullable = false)
+    private long size;
+
+    @Column(name = "ref_count", nullable = false)
+    private int refCount;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Identifiant assigné : sans cela save() ferait un merge (SELECT puis UPDATE d'un blob créé en parallèle)
+    @Transient
+    private boolean isNew = true;
+
+    public MediaBlob() {}
+
+    public MediaBlob(String sha256, String fileName, long size) {
+        this.sha256 = sha256;
+        this.fileName = fileName;
+        this.size = size;
+        this.refCount = 1;
+        this.createdAt = SyncTracked.now();
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        isNew = false;
+    }
+
+    @Override
+    public String getId() { return sha256; }
+
+    @Override
+    public boolean isNew() { return isNew; }
+
+    public String getSha256() { return sha256; }
+    public String getFileName() { return fileName; }
+    public long getSize() { return size; }
+    public int getRefCount() { return refCount; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
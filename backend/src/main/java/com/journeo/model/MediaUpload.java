@@ -0,0 +1,64 @@
+package com.journeo.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Upload par morceaux en cours : le fichier est assemblé dans uploads/partial/<id>.part,
+ * received est le nombre d'octets reçus sans trou depuis le début (offset de reprise).
+ */
+@Entity
+@Table(name = "media_uploads")
+public class MediaUpload {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "guide_id", nullable = false)
+    private Long guideId;
+
+    @Column(name = "original_name", nullable = false)
+    private String originalName;
+
+    @Column(name = "content_type")
+    private String contentType;
+
+    @Column(nullable = false)
+    private long size;
+
+    @Column(nullable = false)
+    private long received;
+
+    // Finalisation en cours (réservée par une seule requête) ; rétabli à false si elle échoue
+    @Column(nullable = false)
+    private boolean completing;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public MediaUpload() {}
+
+    public MediaUpload(Long guideId, String originalName, String contentType, long size) {
+        this.guideId = guideId;
+        this.originalName = originalName;
+        this.contentType = contentType;
+        this.size = size;
+        this.createdAt = SyncTracked.now();
+        this.updatedAt = createdAt;
+    }
+
+    public UUID getId() { return id; }
+    public Long getGuideId() { return guideId; }
+    public String getOriginalName() { return originalName; }
+    public String getContentType() { return contentType; }
+    public long getSize() { return size; }
+    public long getReceived() { return received; }
+    public boolean isCompleting() { return completing; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+}
@@ -0,0 +1,51 @@
+package com.journeo.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "sync_tombstones")
+public class SyncTombstone {
+
+    public enum EntityType { GUIDE, ACTIVITY, COMMENT, MEDIA }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sync_tombstones_seq")
+    @SequenceGenerator(name = "sync_tombstones_seq", sequenceName = "sync_tombstones_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false, length = 20)
+    private EntityType entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    // Guide parent (ou le guide lui-même) : sert à filtrer les tombstones visibles par un utilisateur
+    @Column(name = "guide_id", nullable = false)
+    private Long guideId;
+
+    // Renseigné pour un guide supprimé ou retiré : la tombstone ne concerne que cet utilisateur
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+
+    public SyncTombstone() {}
+
+    public SyncTombstone(EntityType entityType, Long entityId, Long guideId, Long userId) {
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.guideId = guideId;
+        this.userId = userId;
+        this.deletedAt = SyncTracked.now();
+    }
+
+    public Long getId() { return id; }
+    public EntityType getEntityType() { return entityType; }
+    public Long getEntityId() { return entityId; }
+    public Long getGuideId() { return guideId; }
+    public Long getUserId() { return userId; }
+    public LocalDateTime getDeletedAt() { return deletedAt; }
+}
@@ -0,0 +1,56 @@
+package com.journeo.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.ColumnTransformer;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Date de dernière modification et numéro de version d'une ligne, lus par la synchronisation incrémentale.
+ * La date est maintenue par les callbacks JPA ; la version est incrémentée en SQL (version + 1) à chaque
+ * UPDATE de l'entité, comme dans les UPDATE en masse (JPQL), qui doivent mettre à jour l'une et l'autre
+ * eux-mêmes : deux écritures concurrentes n'aboutissent jamais au même numéro. La valeur en mémoire
+ * peut être en retard sur la base après un UPDATE en masse ; l'ETag et la synchronisation la relisent.
+ */
+@MappedSuperclass
+public abstract class SyncTracked {
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Absente des INSERT (DEFAULT 0, V11) ; la valeur liée est ignorée, sans relecture (UPDATE batchés)
+    @ColumnTransformer(write = "version + 1 + 0 * ?")
+    @ColumnDefault("0")
+    @Column(nullable = false, insertable = false)
+    private long version;
+
+    @PrePersist
+    protected void onSyncPersist() {
+        updatedAt = now();
+    }
+
+    @PreUpdate
+    protected void onSyncUpdate() {
+        updatedAt = now();
+        // Reflet en mémoire pour la réponse ; seule la base fait foi (voir @ColumnTransformer)
+        version++;
+    }
+
+    /** Marks the row as changed even if only a collection was modified (forces an UPDATE at flush). */
+    public void markChanged() {
+        updatedAt = now();
+    }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public long getVersion() { return version; }
+
+    // Précision de la colonne TIMESTAMP : la valeur relue en base est identique
+    public static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+}
@@ -0,0 +1,35 @@
+package com.journeo.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "token_revocations")
+public class TokenRevocation {
+
+    // Identifiant de l'utilisateur révoqué (pas de relation : la ligne survit à sa suppression)
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    // Les tokens portant une version strictement inférieure sont refusés
+    @Column(name = "min_version", nullable = false)
+    private int minVersion;
+
+    @Column(name = "revoked_at", nullable = false)
+    private LocalDateTime revokedAt;
+
+    public TokenRevocation() {}
+
+    public TokenRevocation(Long userId, int minVersion, LocalDateTime revokedAt) {
+        this.userId = userId;
+        this.minVersion = minVersion;
+        this.revokedAt = revokedAt;
+    }
+
+    public Long getUserId() { return userId; }
+    public int getMinVersion() { return minVersion; }
+    public void setMinVersion(int minVersion) { this.minVersion = minVersion; }
+    public LocalDateTime getRevokedAt() { return revokedAt; }
+    public void setRevokedAt(LocalDateTime revokedAt) { this.revokedAt = revokedAt; }
+}
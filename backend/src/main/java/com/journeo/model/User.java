@@ -9,7 +9,8 @@ import java.util.Set;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true)
@@ -28,6 +29,10 @@ public class User {
     @Column(nullable = false)
     private Role role;
 
+    // Incrémentée pour invalider les tokens JWT sans état déjà émis
+    @Column(name = "token_version", nullable = false)
+    private int tokenVersion;
+
     @ManyToMany(mappedBy = "users")
     private Set<Guide> guides = new HashSet<>();
 
@@ -60,6 +65,9 @@ public class User {
     public Role getRole() { return role; }
     public void setRole(Role role) { this.role = role; }
 
+    public int getTokenVersion() { return tokenVersion; }
+    public void setTokenVersion(int tokenVersion) { this.tokenVersion = tokenVersion; }
+
     public Set<Guide> getGuides() { return guides; }
     public void setGuides(Set<Guide> guides) { this.guides = guides; }
 
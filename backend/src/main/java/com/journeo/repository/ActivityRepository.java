@@ -9,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -23,6 +24,19 @@ public interface ActivityRepository extends JpaRepository<Activity, Long> {
     // Récupérer une activité spécifique par guide et ordre
     Activity findByGuideAndOrdre(Guide guide, int ordre);
 
+    // Synchronisation incrémentale : activités modifiées depuis :since, guide chargé dans la même requête
+    @Query("SELECT a FROM Activity a JOIN FETCH a.guide WHERE a.updatedAt > :since ORDER BY a.id")
+    List<Activity> findChangedSince(@Param("since") LocalDateTime since);
+
+    @Query("SELECT a FROM Activity a JOIN FETCH a.guide WHERE a.updatedAt > :since "
+            + "AND a.guide.id IN (" + GuideRepository.VISIBLE_GUIDE_IDS + ") ORDER BY a.id")
+    List<Activity> findChangedSinceByUserId(@Param("userId") Long userId, @Param("since") LocalDateTime since);
+
+    // Marque toutes les activités d'un guide comme modifiées (guide nouvellement assigné à un utilisateur)
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Activity a SET a.updatedAt = :now, a.version = a.version + 1 WHERE a.guide.id = :guideId")
+    int touchByGuideId(@Param("guideId") Long guideId, @Param("now") LocalDateTime now);
+
     // Supprimer toutes les activités d'un guide
     @Transactional
     @Modifying
@@ -1,18 +1,57 @@
 package com.journeo.repository;
 
 import com.journeo.model.Comment;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
-    List<Comment> findByGuideIdOrderByCreatedAtDesc(Long guideId);
+    // Auteur chargé dans la même requête : CommentResponseDTO le lit pour chaque commentaire.
+    // Filtre sur la clé étrangère, sans jointure vers guides : suit idx_comments_guide_created_id
+    @Query("SELECT c FROM Comment c JOIN FETCH c.author WHERE c.guide.id = :guideId ORDER BY c.createdAt DESC")
+    List<Comment> findByGuideIdOrderByCreatedAtDesc(@Param("guideId") Long guideId);
 
+    // Fil paginé par curseur (created_at DESC, id) : suit l'index idx_comments_guide_created_id
+    @Query("SELECT c FROM Comment c JOIN FETCH c.author WHERE c.guide.id = :guideId "
+            + "ORDER BY c.createdAt DESC, c.id ASC")
+    List<Comment> findFeedByGuideId(@Param("guideId") Long guideId, Limit limit);
+
+    @Query("SELECT c FROM Comment c JOIN FETCH c.author WHERE c.guide.id = :guideId "
+            + "AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id > :id)) "
+            + "ORDER BY c.createdAt DESC, c.id ASC")
+    List<Comment> findFeedByGuideIdAfter(@Param("guideId") Long guideId,
+                                         @Param("createdAt") LocalDateTime createdAt,
+                                         @Param("id") Long id, Limit limit);
+
+    // Synchronisation incrémentale : commentaires modifiés depuis :since
+    @Query("SELECT c FROM Comment c JOIN FETCH c.author WHERE c.updatedAt > :since ORDER BY c.id")
+    List<Comment> findChangedSince(@Param("since") LocalDateTime since);
+
+    @Query("SELECT c FROM Comment c JOIN FETCH c.author WHERE c.updatedAt > :since "
+            + "AND c.guide.id IN (" + GuideRepository.VISIBLE_GUIDE_IDS + ") ORDER BY c.id")
+    List<Comment> findChangedSinceByUserId(@Param("userId") Long userId, @Param("since") LocalDateTime since);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Comment c SET c.updatedAt = :now, c.version = c.version + 1 WHERE c.guide.id = :guideId")
+    int touchByGuideId(@Param("guideId") Long guideId, @Param("now") LocalDateTime now);
+
+    @Query("SELECT c FROM Comment c WHERE c.author.id = :userId")
+    List<Comment> findByAuthorId(@Param("userId") Long userId);
+
+    // Commentaires d'un utilisateur supprimé ; fait aussi par ON DELETE CASCADE sur les bases migrées
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM Comment c WHERE c.author.id = :userId")
+    int deleteByAuthorId(@Param("userId") Long userId);
+
+    // Recalcul complet : sert de référence pour contrôler les totaux dénormalisés du guide
     @Query("SELECT AVG(c.rating) FROM Comment c WHERE c.guide.id = :guideId")
     Double findAverageRatingByGuideId(@Param("guideId") Long guideId);
 }
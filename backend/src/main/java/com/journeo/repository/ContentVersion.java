@@ -0,0 +1,27 @@
+package com.journeo.repository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Empreinte de version d'une ressource et de ses enfants, lue par agrégat sans charger les collections.
+ * Toute création, modification ou suppression d'un enfant change childCount ou lastUpdated.
+ */
+public interface ContentVersion {
+
+    // Version de la ligne parente (0 quand seuls les enfants comptent)
+    long getVersion();
+
+    long getChildCount();
+
+    // Null si aucun enfant
+    LocalDateTime getLastUpdated();
+
+    /** Strong ETag value (quoted) for the given resource prefix, e.g. "guide42-3-5-1718...". */
+    default String toETag(String prefix) {
+        LocalDateTime last = getLastUpdated();
+        long micros = last == null ? 0
+                : last.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + last.getNano() / 1_000;
+        return "\"" + prefix + "-" + getVersion() + "-" + getChildCount() + "-" + micros + "\"";
+    }
+}
@@ -1,13 +1,70 @@
 package com.journeo.repository;
 
 import com.journeo.model.GuideMedia;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface GuideMediaRepository extends JpaRepository<GuideMedia, Long> {
 
-    List<GuideMedia> findByGuideIdOrderByUploadedAtDesc(Long guideId);
+    // Filtre sur la clé étrangère, sans jointure vers guides : suit idx_guide_media_guide_uploaded
+    @Query("SELECT m FROM GuideMedia m WHERE m.guide.id = :guideId ORDER BY m.uploadedAt DESC")
+    List<GuideMedia> findByGuideIdOrderByUploadedAtDesc(@Param("guideId") Long guideId);
+
+    // Métadonnées d'un fichier servi (file_name est unique, donc indexé)
+    Optional<GuideMedia> findByFileName(String fileName);
+
+    // Un autre média partage-t-il ce blob (dérivés déjà générés, fichiers à conserver)
+    boolean existsByStorageNameAndVariantStatus(String storageName, GuideMedia.VariantStatus variantStatus);
+
+    boolean existsByStorageNameAndIdNot(String storageName, Long id);
+
+    // Réconciliation des fichiers : noms stockés (storage_name, sinon file_name) triés, par pages keyset
+    // (idx_guide_media_stored_name ; colonnes en COLLATE "C" : même ordre que le listing du stockage)
+    @Query("SELECT DISTINCT COALESCE(m.storageName, m.fileName) FROM GuideMedia m "
+            + "WHERE COALESCE(m.storageName, m.fileName) > :after ORDER BY COALESCE(m.storageName, m.fileName)")
+    List<String> findStoredNamesAfter(@Param("after") String after, Limit limit);
+
+    // Vérification ponctuelle avant suppression d'un fichier, et d'un dérivé par le nom de son original
+    boolean existsByFileNameOrStorageName(String fileName, String storageName);
+
+    boolean existsByFileNameStartingWithOrStorageNameStartingWith(String fileNamePrefix, String storageNamePrefix);
+
+    // Une empreinte par média adossé à un blob (une référence chacun), pour la suppression d'un guide
+    @Query("SELECT m.sha256 FROM GuideMedia m WHERE m.guide.id = :guideId AND m.storageName IS NOT NULL")
+    List<String> findBlobHashesByGuideId(@Param("guideId") Long guideId);
+
+    // Empreinte pour l'ETag de la liste des médias ; aucune ligne si le guide n'existe pas
+    @Query("SELECT 0L AS version, COUNT(m) AS childCount, MAX(m.updatedAt) AS lastUpdated "
+            + "FROM Guide g LEFT JOIN GuideMedia m ON m.guide = g WHERE g.id = :guideId GROUP BY g.id")
+    Optional<ContentVersion> findMediaVersion(@Param("guideId") Long guideId);
+
+    // Synchronisation incrémentale : médias modifiés depuis :since
+    @Query("SELECT m FROM GuideMedia m WHERE m.updatedAt > :since ORDER BY m.id")
+    List<GuideMedia> findChangedSince(@Param("since") LocalDateTime since);
+
+    @Query("SELECT m FROM GuideMedia m WHERE m.updatedAt > :since "
+            + "AND m.guide.id IN (" + GuideRepository.VISIBLE_GUIDE_IDS + ") ORDER BY m.id")
+    List<GuideMedia> findChangedSinceByUserId(@Param("userId") Long userId, @Param("since") LocalDateTime since);
+
+    // État des dérivés, écrit par le pipeline hors requête : version incrémentée pour la synchronisation et l'ETag
+    @Transactional
+    @Modifying
+    @Query("UPDATE GuideMedia m SET m.variantStatus = :status, m.updatedAt = :now, m.version = m.version + 1 "
+            + "WHERE m.id = :id")
+    int updateVariantStatus(@Param("id") Long id, @Param("status") GuideMedia.VariantStatus status,
+                            @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE GuideMedia m SET m.updatedAt = :now, m.version = m.version + 1 WHERE m.guide.id = :guideId")
+    int touchByGuideId(@Param("guideId") Long guideId, @Param("now") LocalDateTime now);
 }
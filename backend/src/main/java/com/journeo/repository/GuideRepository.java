@@ -1,19 +1,141 @@
 package com.journeo.repository;
 
+import com.journeo.dto.GuideSummaryDTO;
 import com.journeo.model.Guide;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface GuideRepository extends JpaRepository<Guide, Long> {
 
-    List<Guide> findByUsersId(Long userId);
+    // Filtre par utilisateur en jointure interne : le plan part de guide_user (idx_guide_user_user_guide)
+    // au lieu de parcourir guides, ce que la jointure externe des requêtes dérivées imposait
+    String BY_USER = "FROM Guide g JOIN g.users u WHERE u.id = :userId";
+
+    // Ids des guides assignés à :userId, pour filtrer les enfants (activités, commentaires, médias)
+    String VISIBLE_GUIDE_IDS = "SELECT vg.id FROM Guide vg JOIN vg.users vu WHERE vu.id = :userId";
+
+    @Query("SELECT g " + BY_USER)
+    List<Guide> findByUsersId(@Param("userId") Long userId);
 
     Page<Guide> findAll(Pageable pageable);
 
-    Page<Guide> findByUsersId(Long userId, Pageable pageable);
-}
\ No newline at end of file
+    @Query(value = "SELECT g " + BY_USER, countQuery = "SELECT COUNT(g) " + BY_USER)
+    Page<Guide> findByUsersId(@Param("userId") Long userId, Pageable pageable);
+
+    // Variantes sans COUNT(*) : une requête LIMIT size + 1 suffit pour savoir s'il reste une page
+    Slice<Guide> findAllBy(Pageable pageable);
+
+    @Query("SELECT g " + BY_USER)
+    Slice<Guide> findAllByUsersId(@Param("userId") Long userId, Pageable pageable);
+
+    // Pagination keyset : seek sur l'id, coût O(taille de page) quelle que soit la profondeur
+    List<Guide> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    @Query("SELECT g " + BY_USER + " AND g.id > :afterId ORDER BY g.id ASC")
+    List<Guide> findByUsersIdAndIdGreaterThanOrderByIdAsc(@Param("userId") Long userId,
+                                                          @Param("afterId") Long afterId, Limit limit);
+
+    @Query("SELECT COUNT(g) " + BY_USER)
+    long countByUsersId(@Param("userId") Long userId);
+
+    // Empreintes pour les ETags : une ligne agrégée, sans charger les collections (aucune ligne si le guide
+    // n'existe pas, ou si :email n'est pas null et que le guide n'est pas assigné à cet utilisateur)
+    @Query("SELECT g.version AS version, COUNT(a) AS childCount, MAX(a.updatedAt) AS lastUpdated "
+            + "FROM Guide g LEFT JOIN g.activities a WHERE g.id = :id "
+            + "AND (:email IS NULL OR EXISTS (SELECT 1 FROM g.users vu WHERE vu.email = :email)) "
+            + "GROUP BY g.id, g.version")
+    Optional<ContentVersion> findContentVersion(@Param("id") Long id, @Param("email") String email);
+
+    @Query("SELECT 0L AS version, COUNT(a) AS childCount, MAX(a.updatedAt) AS lastUpdated "
+            + "FROM Guide g LEFT JOIN g.activities a WHERE g.id = :id GROUP BY g.id")
+    Optional<ContentVersion> findActivitiesVersion(@Param("id") Long id);
+
+    // Guides assignés à :userId marqués modifiés (profil de l'utilisateur affiché dans le guide)
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Guide g SET g.updatedAt = :now, g.version = g.version + 1 WHERE g.id IN (" + VISIBLE_GUIDE_IDS + ")")
+    int touchByUserId(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    // Chargement groupé des collections d'une page de guides : une requête par collection,
+    // quel que soit le nombre de guides (deux fetch joins dans une même requête feraient un produit cartésien)
+    @EntityGraph(attributePaths = "activities")
+    List<Guide> findWithActivitiesByIdIn(Collection<Long> ids);
+
+    @EntityGraph(attributePaths = "users")
+    List<Guide> findWithUsersByIdIn(Collection<Long> ids);
+
+    // Projection résumé : une seule requête, compteurs calculés en SQL, aucune collection chargée
+    String SUMMARY_SELECT = "SELECT new com.journeo.dto.GuideSummaryDTO(g.id, g.titre, g.description, g.jours, "
+            + "g.mobilite, g.saison, g.pourQui, (SELECT COUNT(a) FROM Activity a WHERE a.guide = g), SIZE(g.users)) ";
+
+    @Query(SUMMARY_SELECT + "FROM Guide g")
+    Slice<GuideSummaryDTO> findAllSummaries(Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "FROM Guide g JOIN g.users su WHERE su.id = :userId")
+    Slice<GuideSummaryDTO> findSummariesByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "FROM Guide g WHERE g.id > :afterId ORDER BY g.id")
+    List<GuideSummaryDTO> findSummariesAfter(@Param("afterId") Long afterId, Limit limit);
+
+    @Query(SUMMARY_SELECT + "FROM Guide g JOIN g.users su WHERE su.id = :userId AND g.id > :afterId ORDER BY g.id")
+    List<GuideSummaryDTO> findSummariesByUserIdAfter(@Param("userId") Long userId,
+                                                     @Param("afterId") Long afterId, Limit limit);
+
+    // Export complet : curseur JDBC lu par paquets de EXPORT_FETCH_SIZE lignes (à consommer dans une
+    // transaction, sinon le driver PostgreSQL charge tout le résultat), entités en lecture seule
+    String EXPORT_FETCH_SIZE = "500";
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT g FROM Guide g ORDER BY g.id")
+    Stream<Guide> streamAllOrderById();
+
+    // Synchronisation incrémentale : guides modifiés depuis :since (idx_guides_updated_at)
+    @Query("SELECT g FROM Guide g WHERE g.updatedAt > :since ORDER BY g.id")
+    List<Guide> findChangedSince(@Param("since") LocalDateTime since);
+
+    @Query("SELECT g " + BY_USER + " AND g.updatedAt > :since ORDER BY g.id")
+    List<Guide> findChangedSinceByUsersId(@Param("userId") Long userId, @Param("since") LocalDateTime since);
+
+    // Totaux des notes : incrément atomique en base, sans relire le guide (pas de mise à jour perdue).
+    // Les callbacks JPA ne voient pas ces UPDATE : date et version de synchronisation sont mises à jour ici
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Guide g SET g.ratingCount = g.ratingCount + 1, g.ratingSum = g.ratingSum + :rating, "
+            + "g.updatedAt = :now, g.version = g.version + 1 WHERE g.id = :guideId")
+    int addRating(@Param("guideId") Long guideId, @Param("rating") int rating, @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Guide g SET g.ratingCount = g.ratingCount - 1, g.ratingSum = g.ratingSum - :rating, "
+            + "g.updatedAt = :now, g.version = g.version + 1 WHERE g.id = :guideId")
+    int removeRating(@Param("guideId") Long guideId, @Param("rating") int rating, @Param("now") LocalDateTime now);
+
+    // Utilisateur supprimé : ses notes retirées de chaque guide noté, en un seul UPDATE, avant que ses
+    // commentaires ne disparaissent (ON DELETE CASCADE sur comments.user_id)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Guide g SET "
+            + "g.ratingCount = g.ratingCount - (SELECT COUNT(c) FROM Comment c WHERE c.guide.id = g.id AND c.author.id = :userId), "
+            + "g.ratingSum = g.ratingSum - (SELECT COALESCE(SUM(c.rating), 0) FROM Comment c "
+            + "WHERE c.guide.id = g.id AND c.author.id = :userId), "
+            + "g.updatedAt = :now, g.version = g.version + 1 "
+            + "WHERE g.id IN (SELECT c.guide.id FROM Comment c WHERE c.author.id = :userId)")
+    int removeRatingsByAuthor(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,32 @@
+package com.journeo.repository;
+
+import com.journeo.model.MediaBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Repository
+public interface MediaBlobRepository extends JpaRepository<MediaBlob, String> {
+
+    @Query("SELECT b.fileName FROM MediaBlob b WHERE b.sha256 = :sha256")
+    Optional<String> findFileName(@Param("sha256") String sha256);
+
+    // Incrément atomique (verrou de ligne) ; 0 si le blob n'existe pas encore
+    @Transactional
+    @Modifying
+    @Query("UPDATE MediaBlob b SET b.refCount = b.refCount + 1 WHERE b.sha256 = :sha256")
+    int incrementRefCount(@Param("sha256") String sha256);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE MediaBlob b SET b.refCount = b.refCount - 1 WHERE b.sha256 = :sha256")
+    int decrementRefCount(@Param("sha256") String sha256);
+
+    @Modifying
+    @Query("DELETE FROM MediaBlob b WHERE b.sha256 = :sha256 AND b.refCount <= 0")
+    int deleteIfUnreferenced(@Param("sha256") String sha256);
+}
@@ -0,0 +1,42 @@
+package com.journeo.repository;
+
+import com.journeo.model.MediaUpload;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface MediaUploadRepository extends JpaRepository<MediaUpload, UUID> {
+
+    // Avance l'offset de reprise si le morceau [offset, end) prolonge la partie reçue ; 0 sinon (doublon ou trou).
+    // Contexte vidé : un MediaUpload déjà chargé ne doit pas garder l'ancien offset
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE MediaUpload u SET u.received = :end, u.updatedAt = :now "
+            + "WHERE u.id = :id AND u.received >= :offset AND u.received < :end AND u.completing = false")
+    int advanceReceived(@Param("id") UUID id, @Param("offset") long offset, @Param("end") long end,
+                        @Param("now") LocalDateTime now);
+
+    // Réserve la finalisation d'un upload complet pour une seule requête ; la ligne n'est supprimée
+    // qu'une fois le média créé, pour qu'un échec laisse l'upload reprenable
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE MediaUpload u SET u.completing = true, u.updatedAt = :now "
+            + "WHERE u.id = :id AND u.received = u.size AND u.completing = false")
+    int claimCompletion(@Param("id") UUID id, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE MediaUpload u SET u.completing = false WHERE u.id = :id")
+    int releaseCompletion(@Param("id") UUID id);
+
+    @Query("SELECT u.id FROM MediaUpload u WHERE u.updatedAt < :before")
+    List<UUID> findIdsUpdatedBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,32 @@
+package com.journeo.repository;
+
+import com.journeo.model.SyncTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SyncTombstoneRepository extends JpaRepository<SyncTombstone, Long> {
+
+    // Vue administrateur : toutes les suppressions, sans les tombstones propres à un utilisateur
+    @Query("SELECT t FROM SyncTombstone t WHERE t.deletedAt > :since AND t.userId IS NULL ORDER BY t.id")
+    List<SyncTombstone> findDeletedSince(@Param("since") LocalDateTime since);
+
+    // Vue utilisateur : ses guides supprimés ou retirés, et les enfants supprimés de ses guides
+    @Query("SELECT t FROM SyncTombstone t WHERE t.deletedAt > :since AND (t.userId = :userId "
+            + "OR (t.userId IS NULL AND t.entityType <> com.journeo.model.SyncTombstone.EntityType.GUIDE "
+            + "AND t.guideId IN (" + GuideRepository.VISIBLE_GUIDE_IDS + "))) ORDER BY t.id")
+    List<SyncTombstone> findDeletedSinceByUserId(@Param("userId") Long userId, @Param("since") LocalDateTime since);
+
+    // Purge des tombstones plus anciennes que la rétention (les clients plus anciens refont une synchro complète)
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM SyncTombstone t WHERE t.deletedAt < :before")
+    int deleteDeletedBefore(@Param("before") LocalDateTime before);
+}
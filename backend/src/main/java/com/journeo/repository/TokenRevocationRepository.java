@@ -0,0 +1,28 @@
+package com.journeo.repository;
+
+import com.journeo.model.TokenRevocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, Long> {
+
+    // Révocations apparues depuis le dernier passage
+    List<TokenRevocation> findByRevokedAtAfter(LocalDateTime since);
+
+    // Révocations expirées, retirées de la mémoire après leur purge
+    List<TokenRevocation> findByRevokedAtBefore(LocalDateTime before);
+
+    // Purge des révocations plus anciennes que la durée de vie d'un token
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM TokenRevocation r WHERE r.revokedAt < :before")
+    int deleteRevokedBefore(@Param("before") LocalDateTime before);
+}
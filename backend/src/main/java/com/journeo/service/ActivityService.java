@@ -1,13 +1,21 @@
 package com.journeo.service;
 
+import com.journeo.dto.ActivityMoveDTO;
 import com.journeo.dto.ActivityRequestDTO;
 import com.journeo.dto.ActivityResponseDTO;
 import com.journeo.model.Activity;
 import com.journeo.model.Guide;
+import com.journeo.model.SyncTombstone;
 import com.journeo.repository.ActivityRepository;
 import com.journeo.repository.GuideRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -17,10 +25,13 @@ public class ActivityService {
 
     private final ActivityRepository activityRepository;
     private final GuideRepository guideRepository;
+    private final SyncService syncService;
 
-    public ActivityService(ActivityRepository activityRepository, GuideRepository guideRepository) {
+    public ActivityService(ActivityRepository activityRepository, GuideRepository guideRepository,
+                           SyncService syncService) {
         this.activityRepository = activityRepository;
         this.guideRepository = guideRepository;
+        this.syncService = syncService;
     }
 
     // Ajouter une activité à un guide
@@ -57,6 +68,41 @@ public class ActivityService {
         return activityRepository.save(activity);
     }
 
+    /**
+     * Applies (jour, ordre) moves to the activities of a guide in one transaction.
+     * The activities are loaded with one SELECT and updated through dirty checking, so every
+     * changed row goes out in the same JDBC batch at commit. Returns null if the guide is unknown.
+     */
+    @Transactional
+    public List<Activity> reorderActivities(Long guideId, List<ActivityMoveDTO> moves) {
+        Optional<Guide> guideOpt = guideRepository.findById(guideId);
+        if (guideOpt.isEmpty()) return null;
+
+        Map<Long, Activity> byId = new HashMap<>();
+        List<Activity> activities = activityRepository.findByGuide(guideOpt.get());
+        for (Activity activity : activities) byId.put(activity.getId(), activity);
+
+        // Tout valider avant de modifier quoi que ce soit
+        Set<Long> seen = new HashSet<>();
+        for (ActivityMoveDTO move : moves) {
+            if (!byId.containsKey(move.getId())) {
+                throw new IllegalArgumentException("Activity " + move.getId() + " does not belong to guide " + guideId);
+            }
+            if (!seen.add(move.getId())) {
+                throw new IllegalArgumentException("Activity " + move.getId() + " is moved more than once");
+            }
+        }
+
+        for (ActivityMoveDTO move : moves) {
+            Activity activity = byId.get(move.getId());
+            activity.setJour(move.getJour());
+            activity.setOrdre(move.getOrdre());
+        }
+
+        activities.sort(Comparator.comparingInt(Activity::getJour).thenComparingInt(Activity::getOrdre));
+        return activities;
+    }
+
     // Supprimer une activité
     public boolean deleteActivity(Long activityId) {
         Optional<Activity> activityOpt = activityRepository.findById(activityId);
@@ -67,6 +113,7 @@ public class ActivityService {
         if (guide != null) {
             guide.removeActivity(activity);
             guideRepository.save(guide);
+            syncService.recordDeletion(SyncTombstone.EntityType.ACTIVITY, activityId, guide.getId());
         } else {
             activityRepository.delete(activity);
         }
@@ -80,6 +127,11 @@ public class ActivityService {
         return guideOpt.get().getActivities();
     }
 
+    // ETag de la liste des activités d'un guide ; null si le guide est introuvable
+    public String findActivitiesETag(Long guideId) {
+        return guideRepository.findActivitiesVersion(guideId).map(v -> v.toETag("activities" + guideId)).orElse(null);
+    }
+
     // Conversion en DTO
     public ActivityResponseDTO toDTO(Activity activity) {
         return new ActivityResponseDTO(activity);
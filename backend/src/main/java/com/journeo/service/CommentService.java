@@ -2,17 +2,25 @@ package com.journeo.service;
 
 import com.journeo.dto.CommentRequestDTO;
 import com.journeo.dto.CommentResponseDTO;
+import com.journeo.dto.PageResponseDTO;
 import com.journeo.exception.ResourceNotFoundException;
 import com.journeo.model.Comment;
 import com.journeo.model.Guide;
+import com.journeo.model.SyncTombstone;
+import com.journeo.model.SyncTracked;
 import com.journeo.model.User;
 import com.journeo.repository.CommentRepository;
 import com.journeo.repository.GuideRepository;
 import com.journeo.repository.UserRepository;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -22,13 +30,18 @@ public class CommentService {
     private final CommentRepository commentRepository;
     private final GuideRepository guideRepository;
     private final UserRepository userRepository;
+    private final SyncService syncService;
+
+    static final int MAX_FEED_SIZE = 100;
 
     public CommentService(CommentRepository commentRepository,
                           GuideRepository guideRepository,
-                          UserRepository userRepository) {
+                          UserRepository userRepository,
+                          SyncService syncService) {
         this.commentRepository = commentRepository;
         this.guideRepository = guideRepository;
         this.userRepository = userRepository;
+        this.syncService = syncService;
     }
 
     @Transactional
@@ -44,7 +57,10 @@ public class CommentService {
         comment.setGuide(guide);
         comment.setAuthor(author);
 
-        return new CommentResponseDTO(commentRepository.save(comment));
+        CommentResponseDTO response = new CommentResponseDTO(commentRepository.save(comment));
+        // Dans la même transaction que l'insertion : les totaux restent cohérents avec les commentaires
+        guideRepository.addRating(guideId, comment.getRating(), SyncTracked.now());
+        return response;
     }
 
     @Transactional(readOnly = true)
@@ -58,6 +74,32 @@ public class CommentService {
                 .collect(Collectors.toList());
     }
 
+    // Fil paginé par curseur, du plus récent au plus ancien — cursor vide ou null = première page
+    @Transactional(readOnly = true)
+    public PageResponseDTO<CommentResponseDTO> getCommentFeed(Long guideId, String cursor, int size) {
+        if (size < 1 || size > MAX_FEED_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_FEED_SIZE);
+        }
+        if (!guideRepository.existsById(guideId)) {
+            throw new ResourceNotFoundException("Guide not found with id: " + guideId);
+        }
+        // Une ligne de plus que demandé pour savoir s'il existe une page suivante
+        Limit limit = Limit.of(size + 1);
+        List<Comment> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = commentRepository.findFeedByGuideId(guideId, limit);
+        } else {
+            FeedCursor after = decodeCursor(cursor);
+            rows = commentRepository.findFeedByGuideIdAfter(guideId, after.createdAt(), after.id(), limit);
+        }
+
+        boolean hasNext = rows.size() > size;
+        List<Comment> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? encodeCursor(content.get(content.size() - 1)) : null;
+        return new PageResponseDTO<>(content.stream().map(CommentResponseDTO::new).collect(Collectors.toList()),
+                size, null, hasNext, nextCursor, null);
+    }
+
     @Transactional
     public void deleteComment(Long commentId, String requestingEmail, boolean isAdmin) {
         Comment comment = commentRepository.findById(commentId)
@@ -67,11 +109,33 @@ public class CommentService {
             throw new AccessDeniedException("You can only delete your own comments");
         }
 
+        Long guideId = comment.getGuide().getId();
         commentRepository.delete(comment);
+        syncService.recordDeletion(SyncTombstone.EntityType.COMMENT, commentId, guideId);
+        guideRepository.removeRating(guideId, comment.getRating(), SyncTracked.now());
+    }
+
+    // Curseur opaque : date et id du dernier commentaire renvoyé, encodés en base64 url-safe
+    static String encodeCursor(Comment last) {
+        String raw = last.getCreatedAt() + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
     }
 
+    static FeedCursor decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            return new FeedCursor(LocalDateTime.parse(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
+    record FeedCursor(LocalDateTime createdAt, Long id) {}
+
+    /** Reads the rating totals stored on the guide (no aggregate over comments). */
     @Transactional(readOnly = true)
     public Double getAverageRating(Long guideId) {
-        return commentRepository.findAverageRatingByGuideId(guideId);
+        return guideRepository.findById(guideId).map(Guide::getAverageRating).orElse(null);
     }
 }
@@ -0,0 +1,74 @@
+package com.journeo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.journeo.dto.GuideExportDTO;
+import com.journeo.model.Guide;
+import com.journeo.repository.GuideRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Export NDJSON de tous les guides (activités, utilisateurs, totaux de notes), une ligne par guide.
+ * Les guides sont lus par un curseur JDBC ; activités et utilisateurs sont chargés par paquets
+ * de chunkSize guides, écrits, puis détachés : la mémoire reste constante quel que soit le volume.
+ */
+@Service
+public class GuideExportService {
+
+    private static final byte NEWLINE = '\n';
+
+    private final GuideRepository guideRepository;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final int chunkSize;
+
+    public GuideExportService(GuideRepository guideRepository, ObjectMapper objectMapper,
+                              EntityManager entityManager,
+                              @Value("${guides.export.chunk-size:100}") int chunkSize) {
+        this.guideRepository = guideRepository;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.chunkSize = chunkSize;
+    }
+
+    /** Writes every guide as one JSON line, ordered by id; returns the number of guides written. */
+    @Transactional(readOnly = true)
+    public long exportNdjson(OutputStream out) throws IOException {
+        long written = 0;
+        List<Guide> chunk = new ArrayList<>(chunkSize);
+        try (Stream<Guide> guides = guideRepository.streamAllOrderById()) {
+            Iterator<Guide> it = guides.iterator();
+            while (it.hasNext()) {
+                chunk.add(it.next());
+                if (chunk.size() == chunkSize || !it.hasNext()) {
+                    written += writeChunk(chunk, out);
+                    chunk.clear();
+                }
+            }
+        }
+        return written;
+    }
+
+    // Deux requêtes groupées pour les collections du paquet, puis écriture et détachement
+    private int writeChunk(List<Guide> chunk, OutputStream out) throws IOException {
+        List<Long> ids = chunk.stream().map(Guide::getId).toList();
+        guideRepository.findWithActivitiesByIdIn(ids);
+        guideRepository.findWithUsersByIdIn(ids);
+        for (Guide guide : chunk) {
+            out.write(objectMapper.writeValueAsBytes(new GuideExportDTO(guide)));
+            out.write(NEWLINE);
+        }
+        out.flush();
+        entityManager.clear();
+        return chunk.size();
+    }
+}
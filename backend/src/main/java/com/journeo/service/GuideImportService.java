@@ -0,0 +1,201 @@
+package com.journeo.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.journeo.dto.ActivityRequestDTO;
+import com.journeo.dto.GuideImportDTO;
+import com.journeo.dto.ImportReportDTO;
+import com.journeo.model.Activity;
+import com.journeo.model.Guide;
+import com.journeo.repository.ActivityRepository;
+import com.journeo.repository.GuideRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Import en masse de guides avec leurs activités.
+ * Le flux (tableau JSON ou NDJSON) est lu enregistrement par enregistrement avec le parser
+ * streaming de Jackson : seul le lot en cours est gardé en mémoire, jamais le payload complet.
+ * Chaque lot est persisté dans sa propre transaction (INSERT en batch JDBC) ; si un lot échoue,
+ * ses enregistrements sont rejoués un par un pour isoler et signaler ceux qui posent problème.
+ */
+@Service
+public class GuideImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(GuideImportService.class);
+
+    // Nombre maximal d'erreurs détaillées dans le compte rendu (le compteur, lui, n'est pas borné)
+    static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final GuideRepository guideRepository;
+    private final ActivityRepository activityRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public GuideImportService(ObjectMapper objectMapper, Validator validator,
+                              GuideRepository guideRepository, ActivityRepository activityRepository,
+                              EntityManager entityManager, PlatformTransactionManager transactionManager,
+                              @Value("${guides.import.chunk-size:100}") int chunkSize) {
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.guideRepository = guideRepository;
+        this.activityRepository = activityRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    /** Imports every record of a JSON array or NDJSON stream; invalid records are reported, not fatal. */
+    public ImportReportDTO importGuides(InputStream in) throws IOException {
+        ImportReportDTO report = new ImportReportDTO();
+        List<Pending> chunk = new ArrayList<>(chunkSize);
+        int index = 0;
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            JsonToken token = parser.nextToken();
+            // Tableau JSON : on descend d'un niveau ; NDJSON : suite de valeurs racines
+            if (token == JsonToken.START_ARRAY) token = parser.nextToken();
+
+            while (token != null && token != JsonToken.END_ARRAY) {
+                JsonNode node = objectMapper.readTree(parser);
+                Pending pending = parseRecord(index++, node, report);
+                if (pending != null) {
+                    chunk.add(pending);
+                    if (chunk.size() >= chunkSize) {
+                        persistChunk(chunk, report);
+                        chunk.clear();
+                    }
+                }
+                token = parser.nextToken();
+            }
+        } catch (JsonProcessingException e) {
+            // JSON mal formé : impossible de resynchroniser le flux, on s'arrête après le dernier lot valide
+            report.setFatalError("Malformed JSON after record " + index + ": " + e.getOriginalMessage());
+        }
+
+        if (!chunk.isEmpty()) persistChunk(chunk, report);
+        return report;
+    }
+
+    // Conversion + validation d'un enregistrement ; null (et erreur signalée) s'il est invalide
+    private Pending parseRecord(int index, JsonNode node, ImportReportDTO report) {
+        String titre = node.path("titre").asText(null);
+        GuideImportDTO dto;
+        try {
+            dto = objectMapper.treeToValue(node, GuideImportDTO.class);
+        } catch (JsonProcessingException e) {
+            report.addError(index, titre, "Invalid record: " + e.getOriginalMessage(), MAX_REPORTED_ERRORS);
+            return null;
+        }
+
+        Set<ConstraintViolation<GuideImportDTO>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            String message = violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+            report.addError(index, titre, message, MAX_REPORTED_ERRORS);
+            return null;
+        }
+        try {
+            toGuide(dto);
+        } catch (IllegalArgumentException e) {
+            report.addError(index, titre, "Invalid enum value: " + e.getMessage(), MAX_REPORTED_ERRORS);
+            return null;
+        } catch (RuntimeException e) {
+            // Cas non couvert par la validation : l'enregistrement est rejeté, l'import continue
+            report.addError(index, titre, "Invalid record: " + rootMessage(e), MAX_REPORTED_ERRORS);
+            return null;
+        }
+        return new Pending(index, dto);
+    }
+
+    private void persistChunk(List<Pending> chunk, ImportReportDTO report) {
+        try {
+            save(chunk);
+            report.addImported(chunk.size());
+        } catch (RuntimeException e) {
+            log.debug("Import chunk failed, retrying {} records one by one", chunk.size(), e);
+            for (Pending pending : chunk) {
+                try {
+                    save(List.of(pending));
+                    report.addImported(1);
+                } catch (RuntimeException recordError) {
+                    report.addError(pending.index(), pending.dto().getTitre(),
+                            rootMessage(recordError), MAX_REPORTED_ERRORS);
+                }
+            }
+        }
+    }
+
+    // Une transaction par lot ; entités reconstruites à chaque tentative (aucun état d'un essai annulé)
+    private void save(List<Pending> records) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Guide> guides = new ArrayList<>(records.size());
+                List<Activity> activities = new ArrayList<>();
+                for (Pending pending : records) {
+                    Guide guide = toGuide(pending.dto());
+                    guides.add(guide);
+                    activities.addAll(guide.getActivities());
+                }
+                guideRepository.saveAll(guides);
+                activityRepository.saveAll(activities);
+                entityManager.flush();
+            });
+        } finally {
+            // Le contexte de persistance (open-in-view) ne doit pas accumuler les lots déjà écrits
+            entityManager.clear();
+        }
+    }
+
+    private static Guide toGuide(GuideImportDTO dto) {
+        Guide guide = new Guide(dto.getTitre(), dto.getDescription(), dto.getJours(),
+                dto.getMobiliteEnum(), dto.getSaisonEnum(), dto.getPourQuiEnum());
+        for (ActivityRequestDTO a : dto.getActivities()) {
+            Activity activity = new Activity();
+            activity.setTitre(a.getTitre());
+            activity.setDescription(a.getDescription());
+            activity.setType(a.getType());
+            activity.setAdresse(a.getAdresse());
+            activity.setTelephone(a.getTelephone());
+            activity.setSiteInternet(a.getSiteInternet());
+            activity.setHeureDebut(a.getHeureDebut());
+            activity.setDuree(a.getDuree());
+            activity.setOrdre(a.getOrdre());
+            activity.setJour(a.getJour());
+            activity.setLatitude(a.getLatitude());
+            activity.setLongitude(a.getLongitude());
+            guide.addActivity(activity);
+        }
+        return guide;
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null && root.getCause() != root) root = root.getCause();
+        return root.getMessage();
+    }
+
+    private record Pending(int index, GuideImportDTO dto) {}
+}
@@ -1,17 +1,19 @@
 package com.journeo.service;
 
+import com.journeo.config.MediaStorage;
 import com.journeo.config.MediaStorageService;
 import com.journeo.dto.GuideMediaResponseDTO;
 import com.journeo.exception.ResourceNotFoundException;
-import com.journeo.model.Guide;
 import com.journeo.model.GuideMedia;
+import com.journeo.model.SyncTombstone;
 import com.journeo.repository.GuideMediaRepository;
 import com.journeo.repository.GuideRepository;
-import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -21,38 +23,88 @@ public class GuideMediaService {
     private final GuideMediaRepository mediaRepository;
     private final GuideRepository guideRepository;
     private final MediaStorageService storageService;
+    private final SyncService syncService;
+    private final MediaVariantService variantService;
+    private final MediaBlobService blobService;
 
     public GuideMediaService(GuideMediaRepository mediaRepository,
                              GuideRepository guideRepository,
-                             MediaStorageService storageService) {
+                             MediaStorageService storageService,
+                             SyncService syncService,
+                             MediaVariantService variantService,
+                             MediaBlobService blobService) {
         this.mediaRepository = mediaRepository;
         this.guideRepository = guideRepository;
         this.storageService = storageService;
+        this.syncService = syncService;
+        this.variantService = variantService;
+        this.blobService = blobService;
     }
 
-    @Transactional
+    // Multipart : le conteneur a déjà mis le fichier sur disque, il est recopié une seule fois (avec empreinte)
     public GuideMediaResponseDTO uploadMedia(Long guideId, MultipartFile file, String baseUrl) {
-        Guide guide = guideRepository.findById(guideId)
-                .orElseThrow(() -> new ResourceNotFoundException("Guide not found with id: " + guideId));
+        try (InputStream content = file.getInputStream()) {
+            return uploadMedia(guideId, content, file.getOriginalFilename(), file.getContentType(), baseUrl);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read uploaded file", e);
+        }
+    }
+
+    /**
+     * Stores the content in a single pass, then saves the media row.
+     * No transaction is held while the body is read from a possibly slow client.
+     */
+    public GuideMediaResponseDTO uploadMedia(Long guideId, InputStream content, String originalName,
+                                             String contentType, String baseUrl) {
+        if (!guideRepository.existsById(guideId)) {
+            throw new ResourceNotFoundException("Guide not found with id: " + guideId);
+        }
+
+        MediaStorageService.StoredFile stored = storageService.store(content, originalName);
+        return createMedia(guideId, stored, originalName, contentType, baseUrl);
+    }
 
-        String fileName = storageService.store(file);
+    /** Saves the media row for a file already written by the storage service, or removes the file on failure. */
+    public GuideMediaResponseDTO createMedia(Long guideId, MediaStorageService.StoredFile stored, String originalName,
+                                             String contentType, String baseUrl) {
+        String fileName = stored.fileName();
+        // Mode adressé par contenu : le fichier rejoint le blob de même empreinte (file_name reste l'URL publique)
+        String storageName = blobService.acquire(stored);
         try {
             GuideMedia media = new GuideMedia();
             media.setFileName(fileName);
-            media.setOriginalName(file.getOriginalFilename() != null ? file.getOriginalFilename() : fileName);
-            media.setContentType(file.getContentType());
-            media.setSize(file.getSize());
-            media.setFileType(storageService.detectFileType(file.getContentType()));
-            media.setGuide(guide);
+            media.setStorageName(storageName);
+            media.setOriginalName(originalName != null && !originalName.isBlank() ? originalName : fileName);
+            media.setContentType(contentType);
+            media.setSize(stored.size());
+            media.setSha256(stored.sha256());
+            media.setFileType(storageService.detectFileType(contentType));
+            media.setGuide(guideRepository.getReferenceById(guideId));
+            boolean image = media.getFileType() == GuideMedia.FileType.IMAGE;
+            // Blob déjà décliné pour un autre média : ses dérivés sont réutilisés tels quels
+            boolean variantsReady = image && storageName != null && mediaRepository
+                    .existsByStorageNameAndVariantStatus(storageName, GuideMedia.VariantStatus.READY);
+            if (image) {
+                media.setVariantStatus(variantsReady ? GuideMedia.VariantStatus.READY : GuideMedia.VariantStatus.PENDING);
+            }
 
-            return new GuideMediaResponseDTO(mediaRepository.save(media), baseUrl);
+            GuideMedia saved = mediaRepository.save(media);
+            // Dérivés générés en arrière-plan après le commit ; la réponse n'attend pas
+            if (image && !variantsReady) variantService.scheduleAfterCommit(saved.getId(), media.storedFileName());
+            return new GuideMediaResponseDTO(saved, baseUrl);
         } catch (Exception e) {
-            // Nettoyage du fichier si la persistance DB échoue (évite les fichiers orphelins)
-            storageService.delete(fileName);
+            // Nettoyage du fichier (ou de la référence au blob) si la persistance DB échoue
+            if (storageName != null) blobService.release(stored.sha256());
+            else storageService.delete(fileName);
             throw e;
         }
     }
 
+    // ETag de la liste des médias d'un guide ; null si le guide est introuvable
+    public String findMediaETag(Long guideId) {
+        return mediaRepository.findMediaVersion(guideId).map(v -> v.toETag("media" + guideId)).orElse(null);
+    }
+
     @Transactional(readOnly = true)
     public List<GuideMediaResponseDTO> getMediaForGuide(Long guideId, String baseUrl) {
         if (!guideRepository.existsById(guideId)) {
@@ -68,11 +120,36 @@ public class GuideMediaService {
     public void deleteMedia(Long mediaId) {
         GuideMedia media = mediaRepository.findById(mediaId)
                 .orElseThrow(() -> new ResourceNotFoundException("Media not found with id: " + mediaId));
-        storageService.delete(media.getFileName());
+        if (media.getStorageName() != null) {
+            // Blob partagé : supprimé seulement avec sa dernière référence
+            blobService.release(media.getSha256());
+        } else {
+            storageService.delete(media.getFileName());
+            for (GuideMedia.Variant variant : GuideMedia.Variant.values()) {
+                storageService.delete(variant.fileName(media.getFileName()));
+            }
+        }
         mediaRepository.delete(media);
+        syncService.recordDeletion(SyncTombstone.EntityType.MEDIA, mediaId, media.getGuide().getId());
     }
 
-    public Resource loadFile(String fileName) {
-        return storageService.load(fileName);
+    @Transactional(readOnly = true)
+    public GuideMedia findByFileName(String fileName) {
+        return mediaRepository.findByFileName(fileName)
+                .orElseThrow(() -> new ResourceNotFoundException("Media not found: " + fileName));
+    }
+
+    public MediaStorage.StoredObject resolveFile(GuideMedia media) {
+        return storageService.resolve(media.storedFileName());
+    }
+
+    // Dérivé d'une image ; 404 pour une taille inconnue ou des dérivés pas (encore) disponibles
+    public MediaStorage.StoredObject resolveVariantFile(GuideMedia media, String key) {
+        for (GuideMedia.Variant variant : GuideMedia.Variant.values()) {
+            if (variant.key().equals(key) && media.getVariantStatus() == GuideMedia.VariantStatus.READY) {
+                return storageService.resolve(variant.fileName(media.storedFileName()));
+            }
+        }
+        throw new ResourceNotFoundException("Variant " + key + " not available for media: " + media.getFileName());
     }
 }
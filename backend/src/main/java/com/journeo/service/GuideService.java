@@ -2,14 +2,25 @@ package com.journeo.service;
 
 import com.journeo.dto.GuideRequestDTO;
 import com.journeo.dto.GuideResponseDTO;
+import com.journeo.dto.GuideSummaryDTO;
+import com.journeo.dto.PageResponseDTO;
 import com.journeo.model.Guide;
 import com.journeo.model.User;
 import com.journeo.repository.GuideRepository;
 import com.journeo.repository.UserRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -17,10 +28,15 @@ public class GuideService {
 
     private final GuideRepository guideRepository;
     private final UserRepository userRepository;
+    private final SyncService syncService;
+    private final MediaBlobService mediaBlobService;
 
-    public GuideService(GuideRepository guideRepository, UserRepository userRepository) {
+    public GuideService(GuideRepository guideRepository, UserRepository userRepository, SyncService syncService,
+                        MediaBlobService mediaBlobService) {
         this.guideRepository = guideRepository;
         this.userRepository = userRepository;
+        this.syncService = syncService;
+        this.mediaBlobService = mediaBlobService;
     }
 
     // Créer un guide
@@ -44,8 +60,11 @@ public class GuideService {
         return guideRepository.save(guide);
     }
 
-    // Supprimer un guide
+    // Supprimer un guide (ses médias partent en cascade, les références aux blobs partagés sont rendues)
+    @Transactional
     public void delete(Guide guide) {
+        syncService.recordGuideDeletion(guide);
+        mediaBlobService.releaseForGuide(guide.getId());
         guideRepository.delete(guide);
     }
 
@@ -54,28 +73,142 @@ public class GuideService {
         return guideRepository.findById(id).orElse(null);
     }
 
+    // ETag de GET /api/guides/{id} ; null si le guide est introuvable ou n'est pas assigné à :email
+    public String findETag(Long id, String email) {
+        return guideRepository.findContentVersion(id, email).map(v -> v.toETag("guide" + id)).orElse(null);
+    }
+
     // Lister tous les guides
     public List<Guide> findAll() {
         return guideRepository.findAll();
     }
 
+    // Lister tous les guides (paginé)
+    public Page<Guide> findAll(Pageable pageable) {
+        return guideRepository.findAll(pageable);
+    }
+
+    // Lister les guides assignés à un utilisateur — filtrage fait en base via guide_user
+    public Page<Guide> findByUserId(Long userId, Pageable pageable) {
+        return guideRepository.findByUsersId(userId, pageable);
+    }
+
+    // Page en mode offset — userId null = tous les guides ; le COUNT(*) n'est fait que si withTotal
+    @Transactional(readOnly = true)
+    public PageResponseDTO<Guide> findPage(Long userId, Pageable pageable, boolean withTotal) {
+        if (withTotal) {
+            Page<Guide> page = userId == null
+                    ? guideRepository.findAll(pageable)
+                    : guideRepository.findByUsersId(userId, pageable);
+            return new PageResponseDTO<>(withDetails(page.getContent()), page.getSize(), page.getNumber(),
+                    page.hasNext(), null, page.getTotalElements());
+        }
+        Slice<Guide> slice = userId == null
+                ? guideRepository.findAllBy(pageable)
+                : guideRepository.findAllByUsersId(userId, pageable);
+        return new PageResponseDTO<>(withDetails(slice.getContent()), slice.getSize(), slice.getNumber(),
+                slice.hasNext(), null, null);
+    }
+
+    // Page en mode keyset — cursor vide ou null = première page, triée par id croissant
+    @Transactional(readOnly = true)
+    public PageResponseDTO<Guide> findPageAfter(Long userId, String cursor, int size, boolean withTotal) {
+        long afterId = decodeCursor(cursor);
+        // Une ligne de plus que demandé pour savoir s'il existe une page suivante
+        Limit limit = Limit.of(size + 1);
+        List<Guide> rows = userId == null
+                ? guideRepository.findByIdGreaterThanOrderByIdAsc(afterId, limit)
+                : guideRepository.findByUsersIdAndIdGreaterThanOrderByIdAsc(userId, afterId, limit);
+        PageResponseDTO<Guide> page = keysetPage(rows, size, Guide::getId, withTotal ? countVisible(userId) : null);
+        withDetails(page.getContent());
+        return page;
+    }
+
+    // Initialise activités et utilisateurs de toute la page en deux requêtes au lieu de 2N.
+    // Les entités renvoyées par les requêtes groupées sont les mêmes instances (même contexte de persistance).
+    private List<Guide> withDetails(List<Guide> guides) {
+        if (guides.isEmpty()) return guides;
+        List<Long> ids = guides.stream().map(Guide::getId).collect(Collectors.toList());
+        guideRepository.findWithActivitiesByIdIn(ids);
+        guideRepository.findWithUsersByIdIn(ids);
+        return guides;
+    }
+
+    // Résumés paginés en mode offset (projection JPQL, sans collections)
+    public PageResponseDTO<GuideSummaryDTO> findSummaryPage(Long userId, Pageable pageable, boolean withTotal) {
+        Slice<GuideSummaryDTO> slice = userId == null
+                ? guideRepository.findAllSummaries(pageable)
+                : guideRepository.findSummariesByUserId(userId, pageable);
+        return new PageResponseDTO<>(slice.getContent(), slice.getSize(), slice.getNumber(),
+                slice.hasNext(), null, withTotal ? countVisible(userId) : null);
+    }
+
+    // Résumés paginés en mode keyset
+    public PageResponseDTO<GuideSummaryDTO> findSummaryPageAfter(Long userId, String cursor, int size,
+                                                                 boolean withTotal) {
+        long afterId = decodeCursor(cursor);
+        Limit limit = Limit.of(size + 1);
+        List<GuideSummaryDTO> rows = userId == null
+                ? guideRepository.findSummariesAfter(afterId, limit)
+                : guideRepository.findSummariesByUserIdAfter(userId, afterId, limit);
+        return keysetPage(rows, size, GuideSummaryDTO::getId, withTotal ? countVisible(userId) : null);
+    }
+
+    // Résumés de tous les guides assignés à un utilisateur
+    public List<GuideSummaryDTO> findSummariesByUserId(Long userId) {
+        return guideRepository.findSummariesByUserId(userId, Pageable.unpaged(Sort.by("id"))).getContent();
+    }
+
+    private long countVisible(Long userId) {
+        return userId == null ? guideRepository.count() : guideRepository.countByUsersId(userId);
+    }
+
+    // Découpe les size + 1 lignes lues : la ligne en trop signale une page suivante
+    private static <T> PageResponseDTO<T> keysetPage(List<T> rows, int size, Function<T, Long> idOf, Long total) {
+        boolean hasNext = rows.size() > size;
+        List<T> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? encodeCursor(idOf.apply(content.get(content.size() - 1))) : null;
+        return new PageResponseDTO<>(content, size, null, hasNext, nextCursor, total);
+    }
+
+    // Curseur opaque : id du dernier guide renvoyé, encodé en base64 url-safe
+    static String encodeCursor(Long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(lastId.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    static long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) return 0L;
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
     // Ajouter un utilisateur à un guide
+    @Transactional
     public Guide addUserToGuide(Long guideId, Long userId) {
         Guide guide = guideRepository.findById(guideId).orElse(null);
         if (guide == null) return null;
         User user = userRepository.findById(userId).orElse(null);
         if (user == null) return null;
         guide.addUser(user);
+        syncService.recordAssignment(guide);
         return guideRepository.save(guide);
     }
 
     // Retirer un utilisateur d’un guide
+    @Transactional
     public Guide removeUserFromGuide(Long guideId, Long userId) {
         Guide guide = guideRepository.findById(guideId).orElse(null);
         if (guide == null) return null;
         User user = userRepository.findById(userId).orElse(null);
         if (user == null) return null;
         guide.removeUser(user);
+        // La liste des utilisateurs fait partie du guide renvoyé : nouvelle version
+        guide.markChanged();
+        syncService.recordUnassignment(guideId, userId);
         return guideRepository.save(guide);
     }
 
@@ -0,0 +1,86 @@
+package com.journeo.service;
+
+import com.journeo.config.MediaStorageService;
+import com.journeo.model.GuideMedia;
+import com.journeo.model.MediaBlob;
+import com.journeo.repository.GuideMediaRepository;
+import com.journeo.repository.MediaBlobRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Stockage adressé par contenu (media.storage.content-addressed) : un fichier par empreinte SHA-256,
+ * partagé par tous les médias identiques et compté par référence. Le fichier et ses dérivés ne sont
+ * supprimés qu'à la libération de la dernière référence.
+ */
+@Service
+public class MediaBlobService {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final MediaBlobRepository blobRepository;
+    private final GuideMediaRepository mediaRepository;
+    private final MediaStorageService storageService;
+    private final boolean enabled;
+
+    public MediaBlobService(MediaBlobRepository blobRepository, GuideMediaRepository mediaRepository,
+                            MediaStorageService storageService,
+                            @Value("${media.storage.content-addressed:false}") boolean enabled) {
+        this.blobRepository = blobRepository;
+        this.mediaRepository = mediaRepository;
+        this.storageService = storageService;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Takes a reference on the blob holding the uploaded content and returns its file name, or null
+     * when the mode is off. The uploaded file is dropped if the blob exists, renamed to it otherwise.
+     */
+    public String acquire(MediaStorageService.StoredFile stored) {
+        if (!enabled) return null;
+        String blobName = stored.sha256() + extensionOf(stored.fileName());
+        for (int attempt = 1; ; attempt++) {
+            if (blobRepository.incrementRefCount(stored.sha256()) > 0) {
+                // Contenu déjà présent : la copie uploadée est inutile
+                storageService.delete(stored.fileName());
+                return blobRepository.findFileName(stored.sha256()).orElseThrow();
+            }
+            storageService.rename(stored.fileName(), blobName);
+            try {
+                blobRepository.saveAndFlush(new MediaBlob(stored.sha256(), blobName, stored.size()));
+                return blobName;
+            } catch (DataIntegrityViolationException e) {
+                // Même contenu créé en parallèle : on reprend une référence sur ce blob
+                if (attempt == MAX_ATTEMPTS) throw e;
+            }
+        }
+    }
+
+    /** Drops one reference; the last one deletes the blob file and its variants. */
+    @Transactional
+    public void release(String sha256) {
+        String blobName = blobRepository.findFileName(sha256).orElse(null);
+        if (blobName == null) return;
+        blobRepository.decrementRefCount(sha256);
+        // Suppression sous le verrou de ligne : un upload concurrent du même contenu attend le commit
+        if (blobRepository.deleteIfUnreferenced(sha256) > 0) {
+            storageService.delete(blobName);
+            for (GuideMedia.Variant variant : GuideMedia.Variant.values()) {
+                storageService.delete(variant.fileName(blobName));
+            }
+        }
+    }
+
+    // Les lignes guide_media d'un guide supprimé partent en cascade côté base : leurs références avec
+    @Transactional
+    public void releaseForGuide(Long guideId) {
+        mediaRepository.findBlobHashesByGuideId(guideId).forEach(this::release);
+    }
+
+    private static String extensionOf(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        return dot > 0 ? fileName.substring(dot) : "";
+    }
+}
@@ -0,0 +1,237 @@
+package com.journeo.service;
+
+import com.journeo.config.MediaStorage;
+import com.journeo.model.GuideMedia;
+import com.journeo.repository.GuideMediaRepository;
+import com.journeo.repository.MediaBlobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Réconciliation des fichiers média avec guide_media : supprime (ou signale seulement, media.gc.dry-run)
+ * les fichiers qu'aucun média ne référence, p. ex. ceux des médias supprimés par le ON DELETE CASCADE d'un guide.
+ * Listing du stockage et noms stockés en base sont parcourus tous deux triés et joints par fusion, sans
+ * charger l'un ou l'autre en mémoire. Un candidat est revérifié par requête ponctuelle avant suppression ;
+ * les fichiers récents (upload ou dérivés en cours d'écriture) ne sont jamais touchés. Désactivée et en
+ * simple signalement par défaut ; refuse de tourner sur un bucket S3 sans préfixe, partagé avec d'autres.
+ */
+@Service
+public class MediaReconciliationService {
+
+    private static final Logger log = LoggerFactory.getLogger(MediaReconciliationService.class);
+
+    /** Outcome of one pass: files listed, unreferenced files found, files deleted and their total size. */
+    public record Report(long scanned, long orphans, long deleted, long bytesReclaimed) {}
+
+    private final GuideMediaRepository mediaRepository;
+    private final MediaBlobRepository blobRepository;
+    private final MediaStorage storage;
+    private final boolean enabled;
+    private final boolean dryRun;
+    private final Duration minAge;
+    private final int batchSize;
+    private final long pauseMs;
+
+    // Cumul depuis le démarrage
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong filesDeleted = new AtomicLong();
+    private final AtomicLong bytesReclaimed = new AtomicLong();
+
+    public MediaReconciliationService(GuideMediaRepository mediaRepository, MediaBlobRepository blobRepository,
+                                      MediaStorage storage,
+                                      @Value("${media.gc.enabled:false}") boolean enabled,
+                                      @Value("${media.gc.dry-run:true}") boolean dryRun,
+                                      @Value("${media.gc.min-age-hours:6}") long minAgeHours,
+                                      @Value("${media.gc.batch-size:500}") int batchSize,
+                                      @Value("${media.gc.pause-ms:200}") long pauseMs) {
+        this.mediaRepository = mediaRepository;
+        this.blobRepository = blobRepository;
+        this.storage = storage;
+        this.enabled = enabled;
+        this.dryRun = dryRun;
+        this.minAge = Duration.ofHours(minAgeHours);
+        this.batchSize = batchSize;
+        this.pauseMs = pauseMs;
+    }
+
+    @Scheduled(initialDelayString = "${media.gc.initial-delay-ms:600000}",
+               fixedDelayString = "${media.gc.interval-ms:86400000}")
+    public void scheduledReconcile() {
+        if (!enabled) return;
+        try {
+            reconcile();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Media reconciliation failed", e);
+        }
+    }
+
+    /** Runs one full pass over the storage and returns its report. */
+    public Report reconcile() throws IOException {
+        if (!storage.isScoped()) {
+            throw new IllegalStateException("Media reconciliation refused: storage lists objects outside the media "
+                    + "namespace (set media.storage.s3.prefix)");
+        }
+        long start = System.currentTimeMillis();
+        Pass pass = new Pass(Instant.now().minus(minAge));
+        storage.forEachEntry(pass::visit);
+
+        Report report = new Report(pass.scanned, pass.orphans, pass.deleted, pass.bytes);
+        runs.incrementAndGet();
+        filesDeleted.addAndGet(report.deleted());
+        bytesReclaimed.addAndGet(report.bytesReclaimed());
+        log.info("Media reconciliation{}: {} files scanned, {} orphans, {} deleted, {} bytes reclaimed in {} ms "
+                        + "(since startup: {} runs, {} files, {} bytes reclaimed)",
+                dryRun ? " (dry run)" : "", report.scanned(), report.orphans(), report.deleted(),
+                report.bytesReclaimed(), System.currentTimeMillis() - start,
+                runs.get(), filesDeleted.get(), bytesReclaimed.get());
+        return report;
+    }
+
+    public long getRuns() { return runs.get(); }
+    public long getFilesDeleted() { return filesDeleted.get(); }
+    public long getBytesReclaimed() { return bytesReclaimed.get(); }
+
+    // Une passe : curseur sur les noms en base, avancé au fil du listing trié du stockage
+    private final class Pass {
+
+        private final Instant cutoff;
+        private final StoredNames names = new StoredNames();
+        private String last;
+        private long scanned, orphans, deleted, bytes;
+
+        private Pass(Instant cutoff) {
+            this.cutoff = cutoff;
+        }
+
+        void visit(MediaStorage.Entry entry) {
+            throttle();
+            String name = entry.name();
+            // Fichier hors ordre (ancienne disposition à plat) : pas de jointure, vérification ponctuelle
+            boolean inOrder = last == null || name.compareTo(last) > 0;
+            if (inOrder) {
+                last = name;
+                if (names.references(name)) return;
+            }
+            if (!isOld(entry.lastModified())) return;
+            if (isReferenced(name) || !stillOld(name)) return;
+
+            orphans++;
+            if (dryRun) {
+                log.info("Orphan media file {} ({} bytes)", name, entry.size());
+                return;
+            }
+            try {
+                storage.delete(name);
+                deleted++;
+                bytes += entry.size();
+                log.debug("Deleted orphan media file {} ({} bytes)", name, entry.size());
+            } catch (IOException | RuntimeException e) {
+                log.warn("Could not delete orphan media file {}", name, e);
+            }
+        }
+
+        private boolean isOld(Instant lastModified) {
+            return lastModified != null && !lastModified.isAfter(cutoff);
+        }
+
+        // Relu juste avant suppression : un upload peut avoir été renommé sur ce nom (MediaBlobService.acquire)
+        // depuis le listing, son blob n'étant pas encore visible lors de isReferenced
+        private boolean stillOld(String name) {
+            try {
+                MediaStorage.StoredObject current = storage.find(name);
+                return current != null && isOld(current.lastModified());
+            } catch (IOException | RuntimeException e) {
+                log.warn("Could not recheck orphan media file {}", name, e);
+                return false;
+            }
+        }
+
+        // Pause après chaque lot : la passe ne sature ni le disque / S3 ni la base
+        private void throttle() {
+            if (++scanned % batchSize != 0 || pauseMs <= 0) return;
+            try {
+                Thread.sleep(pauseMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Media reconciliation interrupted");
+            }
+        }
+    }
+
+    // Noms stockés en base, lus par pages keyset dans l'ordre croissant
+    private final class StoredNames {
+
+        private List<String> page = List.of();
+        private int index;
+        private boolean exhausted;
+
+        // Le listing étant trié, un nom en base inférieur au nom courant ne correspond plus à aucun fichier
+        boolean references(String name) {
+            String owner = ownerBaseName(name);
+            if (owner == null) {
+                advanceTo(name);
+                return name.equals(head());
+            }
+            // Dérivé : son original (base.ext) suit de près dans l'ordre des noms
+            advanceTo(owner);
+            String head = head();
+            return head != null && baseName(head).equals(owner);
+        }
+
+        private void advanceTo(String name) {
+            String head;
+            while ((head = head()) != null && head.compareTo(name) < 0) index++;
+        }
+
+        private String head() {
+            if (index == page.size()) {
+                if (exhausted) return null;
+                String after = page.isEmpty() ? "" : page.get(page.size() - 1);
+                page = mediaRepository.findStoredNamesAfter(after, Limit.of(batchSize));
+                index = 0;
+                exhausted = page.size() < batchSize;
+                if (page.isEmpty()) return null;
+            }
+            return page.get(index);
+        }
+    }
+
+    // Vérification avant suppression : fichier d'un média, dérivé d'un média, ou blob encore compté
+    // (un upload peut avoir pris une référence sans avoir encore enregistré son média)
+    private boolean isReferenced(String name) {
+        if (mediaRepository.existsByFileNameOrStorageName(name, name)) return true;
+        String owner = ownerBaseName(name);
+        if (owner != null && (mediaRepository.existsByFileNameOrStorageName(owner, owner)
+                || mediaRepository.existsByFileNameStartingWithOrStorageNameStartingWith(owner + ".", owner + "."))) {
+            return true;
+        }
+        return blobRepository.existsById(owner != null ? owner : baseName(name));
+    }
+
+    // Nom de l'original sans extension si name est un dérivé (cf. GuideMedia.Variant.fileName), sinon null
+    static String ownerBaseName(String name) {
+        for (GuideMedia.Variant variant : GuideMedia.Variant.values()) {
+            String suffix = "-" + variant.key() + ".jpg";
+            if (name.length() > suffix.length() && name.endsWith(suffix)) {
+                return name.substring(0, name.length() - suffix.length());
+            }
+        }
+        return null;
+    }
+
+    private static String baseName(String name) {
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+}
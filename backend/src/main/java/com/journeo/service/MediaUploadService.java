@@ -0,0 +1,181 @@
+package com.journeo.service;
+
+import com.journeo.config.MediaStorageService;
+import com.journeo.dto.GuideMediaResponseDTO;
+import com.journeo.dto.MediaUploadRequestDTO;
+import com.journeo.dto.MediaUploadResponseDTO;
+import com.journeo.exception.ConflictException;
+import com.journeo.exception.PayloadTooLargeException;
+import com.journeo.exception.ResourceNotFoundException;
+import com.journeo.model.MediaUpload;
+import com.journeo.model.SyncTracked;
+import com.journeo.repository.GuideRepository;
+import com.journeo.repository.MediaUploadRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Uploads reprenables par morceaux : initialisation, envoi d'un morceau à un offset, finalisation.
+ * Chaque morceau est une requête courte (aucun thread bloqué pour toute la durée d'un gros upload) ;
+ * après une coupure, le client relit l'offset reçu et reprend à partir de là. L'écriture d'un morceau et la
+ * finalisation d'un même upload sont sérialisées (fichier partiel local au nœud, verrou en mémoire) :
+ * le fichier partiel, lié physiquement au fichier stocké, n'est plus modifié une fois son empreinte calculée.
+ */
+@Service
+public class MediaUploadService {
+
+    private static final Logger log = LoggerFactory.getLogger(MediaUploadService.class);
+
+    private final MediaUploadRepository uploadRepository;
+    private final GuideRepository guideRepository;
+    private final MediaStorageService storageService;
+    private final GuideMediaService mediaService;
+    private final DataSize maxUploadSize;
+    private final DataSize maxChunkSize;
+    private final Duration expiry;
+
+    // Verrous des uploads en cours d'écriture ou de finalisation, retirés quand plus personne ne les tient
+    private final Map<UUID, UploadLock> locks = new ConcurrentHashMap<>();
+
+    public MediaUploadService(MediaUploadRepository uploadRepository, GuideRepository guideRepository,
+                              MediaStorageService storageService, GuideMediaService mediaService,
+                              @Value("${media.max-upload-size:50MB}") DataSize maxUploadSize,
+                              @Value("${media.uploads.max-chunk-size:8MB}") DataSize maxChunkSize,
+                              @Value("${media.uploads.expiry-hours:24}") long expiryHours) {
+        this.uploadRepository = uploadRepository;
+        this.guideRepository = guideRepository;
+        this.storageService = storageService;
+        this.mediaService = mediaService;
+        this.maxUploadSize = maxUploadSize;
+        this.maxChunkSize = maxChunkSize;
+        this.expiry = Duration.ofHours(expiryHours);
+    }
+
+    public MediaUploadResponseDTO initiate(Long guideId, MediaUploadRequestDTO request) {
+        if (!guideRepository.existsById(guideId)) {
+            throw new ResourceNotFoundException("Guide not found with id: " + guideId);
+        }
+        if (request.getSize() > maxUploadSize.toBytes()) {
+            throw new PayloadTooLargeException("File exceeds the maximum upload size of " + maxUploadSize);
+        }
+        MediaUpload upload = uploadRepository.save(
+                new MediaUpload(guideId, request.getFileName(), request.getContentType(), request.getSize()));
+        storageService.createPart(upload.getId().toString());
+        return new MediaUploadResponseDTO(upload, 0);
+    }
+
+    public MediaUploadResponseDTO getStatus(Long guideId, UUID uploadId) {
+        MediaUpload upload = find(guideId, uploadId);
+        return new MediaUploadResponseDTO(upload, upload.getReceived());
+    }
+
+    /**
+     * Writes a chunk at offset. The offset may go back over bytes already received (retransmission),
+     * but must not leave a gap; the chunk cannot extend past the declared size.
+     */
+    public MediaUploadResponseDTO writeChunk(Long guideId, UUID uploadId, long offset, InputStream content) {
+        return locked(uploadId, () -> doWriteChunk(guideId, uploadId, offset, content));
+    }
+
+    private MediaUploadResponseDTO doWriteChunk(Long guideId, UUID uploadId, long offset, InputStream content) {
+        // Ligne lue sous le verrou : une finalisation réservée avant est forcément visible
+        MediaUpload upload = find(guideId, uploadId);
+        if (upload.isCompleting()) {
+            throw new ConflictException("Upload " + uploadId + " is being completed");
+        }
+        if (offset < 0 || offset > upload.getReceived()) {
+            throw new ConflictException("Chunk offset " + offset + " does not follow the "
+                    + upload.getReceived() + " bytes received");
+        }
+        long allowed = Math.min(upload.getSize() - offset, maxChunkSize.toBytes());
+        long written = storageService.writeChunk(uploadId.toString(), offset, content, allowed);
+        long end = offset + written;
+        if (written > 0) uploadRepository.advanceReceived(uploadId, offset, end, SyncTracked.now());
+        return new MediaUploadResponseDTO(upload, Math.max(upload.getReceived(), end));
+    }
+
+    /** Turns a fully received upload into a guide media (same path as a single-request upload). */
+    public GuideMediaResponseDTO complete(Long guideId, UUID uploadId, String baseUrl) {
+        return locked(uploadId, () -> doComplete(guideId, uploadId, baseUrl));
+    }
+
+    private GuideMediaResponseDTO doComplete(Long guideId, UUID uploadId, String baseUrl) {
+        MediaUpload upload = find(guideId, uploadId);
+        // Réservation par une seule requête : deux finalisations concurrentes ne créent pas deux médias
+        if (uploadRepository.claimCompletion(uploadId, SyncTracked.now()) == 0) {
+            if (upload.isCompleting()) throw new ConflictException("Upload " + uploadId + " is being completed");
+            throw new ConflictException("Upload " + uploadId + " is incomplete: "
+                    + upload.getReceived() + " of " + upload.getSize() + " bytes received");
+        }
+        GuideMediaResponseDTO media;
+        try {
+            MediaStorageService.StoredFile stored = storageService.storeAssembled(uploadId.toString(), upload.getOriginalName());
+            media = mediaService.createMedia(guideId, stored, upload.getOriginalName(), upload.getContentType(), baseUrl);
+        } catch (RuntimeException e) {
+            // Fichier partiel intact : le client peut relancer la finalisation
+            uploadRepository.releaseCompletion(uploadId);
+            throw e;
+        }
+        uploadRepository.deleteById(uploadId);
+        storageService.deletePart(uploadId.toString());
+        return media;
+    }
+
+    public void abort(Long guideId, UUID uploadId) {
+        locked(uploadId, () -> {
+            MediaUpload upload = find(guideId, uploadId);
+            uploadRepository.delete(upload);
+            storageService.deletePart(uploadId.toString());
+            return null;
+        });
+    }
+
+    // Uploads sans nouveau morceau depuis media.uploads.expiry-hours : lignes et fichiers partiels supprimés
+    @Scheduled(fixedDelayString = "${media.uploads.purge-ms:3600000}")
+    public void purgeExpired() {
+        List<UUID> expired = uploadRepository.findIdsUpdatedBefore(SyncTracked.now().minus(expiry));
+        if (expired.isEmpty()) return;
+        uploadRepository.deleteAllByIdInBatch(expired);
+        expired.forEach(id -> storageService.deletePart(id.toString()));
+        log.info("Purged {} expired media uploads", expired.size());
+    }
+
+    private <T> T locked(UUID uploadId, Supplier<T> action) {
+        UploadLock lock = locks.compute(uploadId, (id, held) -> {
+            UploadLock acquired = held != null ? held : new UploadLock();
+            acquired.users++;
+            return acquired;
+        });
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+            locks.computeIfPresent(uploadId, (id, held) -> --held.users == 0 ? null : held);
+        }
+    }
+
+    // Compteur modifié uniquement dans compute/computeIfPresent (atomiques par clé)
+    private static final class UploadLock extends ReentrantLock {
+        private int users;
+    }
+
+    private MediaUpload find(Long guideId, UUID uploadId) {
+        return uploadRepository.findById(uploadId)
+                .filter(upload -> upload.getGuideId().equals(guideId))
+                .orElseThrow(() -> new ResourceNotFoundException("Upload not found with id: " + uploadId));
+    }
+}
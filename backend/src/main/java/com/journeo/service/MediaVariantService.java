@@ -0,0 +1,242 @@
+package com.journeo.service;
+
+import com.journeo.config.MediaStorage;
+import com.journeo.config.MediaStorageService;
+import com.journeo.model.GuideMedia;
+import com.journeo.model.SyncTracked;
+import com.journeo.repository.GuideMediaRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.FileImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Génération en arrière-plan des dérivés JPEG (GuideMedia.Variant) d'une image uploadée.
+ * Pool de threads à file bornée : un afflux d'uploads ne consomme ni threads ni mémoire sans limite,
+ * et une tâche refusée laisse simplement le média sans dérivés (l'original sert de repli).
+ * Décodage, redimensionnement et encodage avec ImageIO / Java2D uniquement.
+ */
+@Service
+public class MediaVariantService {
+
+    private static final Logger log = LoggerFactory.getLogger(MediaVariantService.class);
+
+    private final GuideMediaRepository mediaRepository;
+    private final MediaStorageService storageService;
+    private final ThreadPoolExecutor executor;
+    private final long maxPixels;
+    private final float jpegQuality;
+
+    public MediaVariantService(GuideMediaRepository mediaRepository, MediaStorageService storageService,
+                               @Value("${media.variants.threads:2}") int threads,
+                               @Value("${media.variants.queue-capacity:200}") int queueCapacity,
+                               @Value("${media.variants.max-pixels:50000000}") long maxPixels,
+                               @Value("${media.variants.jpeg-quality:0.8}") float jpegQuality) {
+        this.mediaRepository = mediaRepository;
+        this.storageService = storageService;
+        this.maxPixels = maxPixels;
+        this.jpegQuality = jpegQuality;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread thread = new Thread(r, "media-variants-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /** Queues generation once the current transaction commits, so the worker sees the media row. */
+    public void scheduleAfterCommit(Long mediaId, String fileName) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            submit(mediaId, fileName);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                submit(mediaId, fileName);
+            }
+        });
+    }
+
+    private void submit(Long mediaId, String fileName) {
+        try {
+            executor.execute(() -> generate(mediaId, fileName));
+        } catch (RejectedExecutionException e) {
+            log.warn("Variant queue full, media {} keeps its original only", mediaId);
+            mediaRepository.updateVariantStatus(mediaId, GuideMedia.VariantStatus.FAILED, SyncTracked.now());
+        }
+    }
+
+    /** Writes every variant of the image and records READY, or FAILED if it cannot be decoded. */
+    public GuideMedia.VariantStatus generate(Long mediaId, String fileName) {
+        List<String> written = new ArrayList<>();
+        GuideMedia.VariantStatus status = GuideMedia.VariantStatus.FAILED;
+        try {
+            BufferedImage source = read(storageService.resolve(fileName), largestDimension());
+            if (source != null) {
+                for (GuideMedia.Variant variant : GuideMedia.Variant.values()) {
+                    String target = variant.fileName(fileName);
+                    writeJpeg(resize(source, variant.getMaxDimension()), target);
+                    written.add(target);
+                }
+                status = GuideMedia.VariantStatus.READY;
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not generate variants of media {}: {}", mediaId, e.getMessage());
+        }
+
+        // Aucune ligne mise à jour : média supprimé pendant la génération
+        boolean recorded = mediaRepository.updateVariantStatus(mediaId, status, SyncTracked.now()) > 0;
+        // Dérivés d'un blob partagé : ils peuvent servir à un autre média, on les laisse en place
+        boolean unused = !recorded || status != GuideMedia.VariantStatus.READY;
+        if (unused && !mediaRepository.existsByStorageNameAndIdNot(fileName, mediaId)) {
+            written.forEach(this::deleteQuietly);
+        }
+        return status;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    // Décodage sous-échantillonné : une photo de 6000 px n'est pas chargée en pleine résolution
+    // pour produire du 1024 px (on garde au moins deux fois la taille cible pour la qualité)
+    private BufferedImage read(MediaStorage.StoredObject file, int targetDimension) throws IOException {
+        try (ImageInputStream in = open(file)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) return null;
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    log.warn("Image {} too large for variants ({}x{})", file.name(), width, height);
+                    return null;
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                int factor = Math.max(1, Math.max(width, height) / (2 * targetDimension));
+                param.setSourceSubsampling(factor, factor, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Fichier local lu par accès direct ; objet distant lu en flux, mis en cache mémoire par ImageIO
+    private static ImageInputStream open(MediaStorage.StoredObject file) throws IOException {
+        Path path = file.localPath();
+        if (path != null) return new FileImageInputStream(path.toFile());
+        InputStream source = file.openStream();
+        return new MemoryCacheImageInputStream(source) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    source.close();
+                }
+            }
+        };
+    }
+
+    static BufferedImage resize(BufferedImage source, int maxDimension) {
+        double scale = Math.min(1.0, (double) maxDimension / Math.max(source.getWidth(), source.getHeight()));
+        int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+
+        // Réductions successives par deux : l'interpolation bilinéaire reste nette au-delà d'un facteur 2
+        BufferedImage current = source;
+        int w = source.getWidth();
+        int h = source.getHeight();
+        do {
+            w = Math.max(w / 2, width);
+            h = Math.max(h / 2, height);
+            current = draw(current, w, h);
+        } while (w != width || h != height);
+        return current;
+    }
+
+    // JPEG sans transparence : fond blanc pour les PNG / GIF avec canal alpha
+    private static BufferedImage draw(BufferedImage image, int width, int height) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(image, 0, 0, width, height, Color.WHITE, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    // Écriture dans la zone de préparation puis remise au stockage : jamais de dérivé à moitié écrit servi
+    private void writeJpeg(BufferedImage image, String target) throws IOException {
+        Path tmp = storageService.createStagingFile(".jpg");
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(tmp.toFile())) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } catch (IOException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        } finally {
+            writer.dispose();
+        }
+        storageService.put(target, tmp);
+    }
+
+    private static int largestDimension() {
+        int largest = 0;
+        for (GuideMedia.Variant variant : GuideMedia.Variant.values()) {
+            largest = Math.max(largest, variant.getMaxDimension());
+        }
+        return largest;
+    }
+
+    private void deleteQuietly(String fileName) {
+        try {
+            storageService.delete(fileName);
+        } catch (RuntimeException e) {
+            log.warn("Could not delete variant {}", fileName, e);
+        }
+    }
+}
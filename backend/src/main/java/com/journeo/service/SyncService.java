@@ -0,0 +1,164 @@
+package com.journeo.service;
+
+import com.journeo.dto.ActivityResponseDTO;
+import com.journeo.dto.CommentResponseDTO;
+import com.journeo.dto.GuideMediaResponseDTO;
+import com.journeo.dto.SyncGuideDTO;
+import com.journeo.dto.SyncResponseDTO;
+import com.journeo.model.Comment;
+import com.journeo.model.Guide;
+import com.journeo.model.SyncTombstone;
+import com.journeo.model.SyncTracked;
+import com.journeo.model.User;
+import com.journeo.repository.ActivityRepository;
+import com.journeo.repository.CommentRepository;
+import com.journeo.repository.GuideMediaRepository;
+import com.journeo.repository.GuideRepository;
+import com.journeo.repository.SyncTombstoneRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Synchronisation incrémentale des clients hors ligne.
+ * Le jeton encode une date : la réponse contient les lignes dont updated_at est postérieur, et les
+ * tombstones des suppressions. Le jeton suivant est reculé de commit-lag pour ne pas manquer une
+ * transaction encore en cours au moment de la lecture (quelques lignes peuvent être renvoyées deux fois).
+ */
+@Service
+public class SyncService {
+
+    private static final Logger log = LoggerFactory.getLogger(SyncService.class);
+
+    // Borne basse d'une synchronisation complète (compatible avec les colonnes TIMESTAMP)
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final GuideRepository guideRepository;
+    private final ActivityRepository activityRepository;
+    private final CommentRepository commentRepository;
+    private final GuideMediaRepository mediaRepository;
+    private final SyncTombstoneRepository tombstoneRepository;
+    private final Duration commitLag;
+    private final Duration tombstoneRetention;
+
+    public SyncService(GuideRepository guideRepository, ActivityRepository activityRepository,
+                       CommentRepository commentRepository, GuideMediaRepository mediaRepository,
+                       SyncTombstoneRepository tombstoneRepository,
+                       @Value("${sync.commit-lag-ms:5000}") long commitLagMs,
+                       @Value("${sync.tombstone-retention-days:30}") long tombstoneRetentionDays) {
+        this.guideRepository = guideRepository;
+        this.activityRepository = activityRepository;
+        this.commentRepository = commentRepository;
+        this.mediaRepository = mediaRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.commitLag = Duration.ofMillis(commitLagMs);
+        this.tombstoneRetention = Duration.ofDays(tombstoneRetentionDays);
+    }
+
+    /**
+     * Changes visible to userId (null = admin, every guide) since the token.
+     * A missing token, or one older than the tombstone retention, yields a full snapshot.
+     */
+    @Transactional(readOnly = true)
+    public SyncResponseDTO changesSince(Long userId, String token, String baseUrl) {
+        LocalDateTime now = SyncTracked.now();
+        LocalDateTime since = token == null || token.isBlank() ? null : decodeToken(token);
+        boolean full = since == null || since.isBefore(now.minus(tombstoneRetention));
+        if (full) since = EPOCH;
+
+        List<SyncGuideDTO> guides = (userId == null
+                ? guideRepository.findChangedSince(since)
+                : guideRepository.findChangedSinceByUsersId(userId, since))
+                .stream().map(SyncGuideDTO::new).toList();
+        List<ActivityResponseDTO> activities = (userId == null
+                ? activityRepository.findChangedSince(since)
+                : activityRepository.findChangedSinceByUserId(userId, since))
+                .stream().map(ActivityResponseDTO::new).toList();
+        List<CommentResponseDTO> comments = (userId == null
+                ? commentRepository.findChangedSince(since)
+                : commentRepository.findChangedSinceByUserId(userId, since))
+                .stream().map(CommentResponseDTO::new).toList();
+        List<GuideMediaResponseDTO> media = (userId == null
+                ? mediaRepository.findChangedSince(since)
+                : mediaRepository.findChangedSinceByUserId(userId, since))
+                .stream().map(m -> new GuideMediaResponseDTO(m, baseUrl)).toList();
+        // Une synchronisation complète remplace les données locales : pas de tombstones à appliquer
+        List<SyncResponseDTO.Deleted> deleted = full ? List.of() : (userId == null
+                ? tombstoneRepository.findDeletedSince(since)
+                : tombstoneRepository.findDeletedSinceByUserId(userId, since))
+                .stream().map(SyncResponseDTO.Deleted::new).toList();
+
+        return new SyncResponseDTO(encodeToken(now.minus(commitLag)), full,
+                guides, activities, comments, media, deleted);
+    }
+
+    // Suppression d'une activité, d'un commentaire ou d'un média
+    public void recordDeletion(SyncTombstone.EntityType type, Long entityId, Long guideId) {
+        tombstoneRepository.save(new SyncTombstone(type, entityId, guideId, null));
+    }
+
+    // Commentaires d'un utilisateur supprimé, effacés en masse : une tombstone par commentaire
+    public void recordCommentDeletions(List<Comment> comments) {
+        List<SyncTombstone> tombstones = new ArrayList<>(comments.size());
+        for (Comment comment : comments) {
+            tombstones.add(new SyncTombstone(SyncTombstone.EntityType.COMMENT, comment.getId(),
+                    comment.getGuide().getId(), null));
+        }
+        tombstoneRepository.saveAll(tombstones);
+    }
+
+    // Guide supprimé : une tombstone pour les administrateurs et une par utilisateur assigné
+    public void recordGuideDeletion(Guide guide) {
+        List<SyncTombstone> tombstones = new ArrayList<>();
+        tombstones.add(new SyncTombstone(SyncTombstone.EntityType.GUIDE, guide.getId(), guide.getId(), null));
+        for (User user : guide.getUsers()) {
+            tombstones.add(new SyncTombstone(SyncTombstone.EntityType.GUIDE, guide.getId(), guide.getId(), user.getId()));
+        }
+        tombstoneRepository.saveAll(tombstones);
+    }
+
+    // Guide retiré à un utilisateur : il doit disparaître de ses données locales
+    public void recordUnassignment(Long guideId, Long userId) {
+        tombstoneRepository.save(new SyncTombstone(SyncTombstone.EntityType.GUIDE, guideId, guideId, userId));
+    }
+
+    // Guide assigné à un utilisateur : guide et contenu marqués modifiés pour qu'il les reçoive en entier
+    public void recordAssignment(Guide guide) {
+        LocalDateTime now = SyncTracked.now();
+        guide.markChanged();
+        activityRepository.touchByGuideId(guide.getId(), now);
+        commentRepository.touchByGuideId(guide.getId(), now);
+        mediaRepository.touchByGuideId(guide.getId(), now);
+    }
+
+    @Scheduled(fixedDelayString = "${sync.tombstone-purge-ms:3600000}")
+    public void purgeTombstones() {
+        int purged = tombstoneRepository.deleteDeletedBefore(SyncTracked.now().minus(tombstoneRetention));
+        if (purged > 0) log.info("Purged {} sync tombstones", purged);
+    }
+
+    // Jeton opaque : date de référence encodée en base64 url-safe
+    static String encodeToken(LocalDateTime since) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(since.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    static LocalDateTime decodeToken(String token) {
+        try {
+            return LocalDateTime.parse(new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid sync token: " + token);
+        }
+    }
+}
@@ -1,13 +1,20 @@
 package com.journeo.service;
 
+import com.journeo.config.TokenRevocationRegistry;
+import com.journeo.config.UserPrincipalCache;
 import com.journeo.dto.UserRequestDTO;
 import com.journeo.dto.UserResponseDTO;
 import com.journeo.exception.ConflictException;
+import com.journeo.model.SyncTracked;
 import com.journeo.model.User;
+import com.journeo.repository.CommentRepository;
+import com.journeo.repository.GuideRepository;
 import com.journeo.repository.UserRepository;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -16,10 +23,23 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
-
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    private final UserPrincipalCache userPrincipalCache;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
+    private final GuideRepository guideRepository;
+    private final CommentRepository commentRepository;
+    private final SyncService syncService;
+
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                       UserPrincipalCache userPrincipalCache, TokenRevocationRegistry tokenRevocationRegistry,
+                       GuideRepository guideRepository, CommentRepository commentRepository,
+                       SyncService syncService) {
         this.userRepository = userRepository;
+        this.guideRepository = guideRepository;
+        this.commentRepository = commentRepository;
+        this.syncService = syncService;
         this.passwordEncoder = passwordEncoder;
+        this.userPrincipalCache = userPrincipalCache;
+        this.tokenRevocationRegistry = tokenRevocationRegistry;
     }
 
     // Crée un utilisateur
@@ -57,9 +77,13 @@ public class UserService {
     }
 
     // Met à jour un utilisateur
+    @Transactional
     public User updateUser(Long id, UserRequestDTO dto) {
         User user = userRepository.findById(id).orElse(null);
         if (user == null) return null;
+        // Le principal en cache (email, rôle) ne doit pas survivre à la modification
+        userPrincipalCache.removeUserFromCache(user.getEmail());
+        boolean credentialsChanged = false;
 
         // Mise à jour conditionnelle du email
         if (dto.getEmail() != null && !dto.getEmail().isBlank()) {
@@ -68,12 +92,14 @@ public class UserService {
                     throw new ConflictException("Email already in use: " + dto.getEmail());
                 }
             });
+            credentialsChanged = !dto.getEmail().equals(user.getEmail());
             user.setEmail(dto.getEmail());
         }
 
         // Mise à jour conditionnelle du password
         if (dto.getPassword() != null && !dto.getPassword().isBlank()) {
             user.setPassword(passwordEncoder.encode(dto.getPassword()));
+            credentialsChanged = true;
         }
 
         if (dto.getFirstName() != null && !dto.getFirstName().isBlank()) {
@@ -84,18 +110,43 @@ public class UserService {
             user.setLastName(dto.getLastName());
         }
 
-        return userRepository.save(user);
+        // Email ou mot de passe modifié : les tokens déjà émis ne sont plus valides
+        if (credentialsChanged) {
+            user.setTokenVersion(user.getTokenVersion() + 1);
+        }
+        User saved = userRepository.save(user);
+        // Le profil figure dans la réponse des guides assignés : leur version (ETag) doit changer
+        guideRepository.touchByUserId(saved.getId(), SyncTracked.now());
+        userPrincipalCache.removeUserFromCache(saved.getEmail());
+        if (credentialsChanged) {
+            tokenRevocationRegistry.revoke(saved.getId(), saved.getTokenVersion());
+        }
+        return saved;
     }
 
     public User changeRole(Long id, String role) {
         User user = userRepository.findById(id).orElse(null);
         if (user == null) return null;
         user.setRole(User.Role.valueOf(role.toUpperCase()));
-        return userRepository.save(user);
+        // Le rôle est porté par les tokens sans état : on invalide ceux déjà émis
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        User saved = userRepository.save(user);
+        userPrincipalCache.removeUserFromCache(saved.getEmail());
+        tokenRevocationRegistry.revoke(saved.getId(), saved.getTokenVersion());
+        return saved;
     }
 
+    @Transactional
     public void deleteUser(User user) {
+        LocalDateTime now = SyncTracked.now();
+        guideRepository.touchByUserId(user.getId(), now);
+        // Totaux des notes et tombstones tenus à jour comme par CommentService.deleteComment
+        syncService.recordCommentDeletions(commentRepository.findByAuthorId(user.getId()));
+        guideRepository.removeRatingsByAuthor(user.getId(), now);
+        commentRepository.deleteByAuthorId(user.getId());
         userRepository.delete(user);
+        userPrincipalCache.removeUserFromCache(user.getEmail());
+        tokenRevocationRegistry.revoke(user.getId(), TokenRevocationRegistry.REVOKE_ALL);
     }
 
     public User findById(Long id) {
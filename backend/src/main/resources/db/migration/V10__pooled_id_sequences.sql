@@ -0,0 +1,19 @@
+-- Ids générés par séquence avec l'optimiseur "pooled" d'Hibernate (allocationSize = 50) :
+-- chaque nextval réserve 50 ids, les INSERT n'ont plus besoin de renvoyer leur clé et passent en batch JDBC.
+-- Les séquences créées par BIGSERIAL sont réutilisées (le DEFAULT nextval reste valable pour les INSERT SQL).
+-- setval(max) : le prochain bloc commence après le plus grand id existant.
+
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
+SELECT setval('users_id_seq', COALESCE((SELECT MAX(id) FROM users), 0) + 1, true);
+
+ALTER SEQUENCE guides_id_seq INCREMENT BY 50;
+SELECT setval('guides_id_seq', COALESCE((SELECT MAX(id) FROM guides), 0) + 1, true);
+
+ALTER SEQUENCE activities_id_seq INCREMENT BY 50;
+SELECT setval('activities_id_seq', COALESCE((SELECT MAX(id) FROM activities), 0) + 1, true);
+
+ALTER SEQUENCE comments_id_seq INCREMENT BY 50;
+SELECT setval('comments_id_seq', COALESCE((SELECT MAX(id) FROM comments), 0) + 1, true);
+
+ALTER SEQUENCE guide_media_id_seq INCREMENT BY 50;
+SELECT setval('guide_media_id_seq', COALESCE((SELECT MAX(id) FROM guide_media), 0) + 1, true);
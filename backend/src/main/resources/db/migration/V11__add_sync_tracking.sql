@@ -0,0 +1,38 @@
+-- Synchronisation incrémentale (GET /api/sync) : date et numéro de version de chaque ligne,
+-- maintenus par les callbacks JPA (@PrePersist / @PreUpdate) et par les UPDATE en masse
+ALTER TABLE guides ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP NOT NULL DEFAULT NOW();
+ALTER TABLE guides ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE activities ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP NOT NULL DEFAULT NOW();
+ALTER TABLE activities ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE comments ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP NOT NULL DEFAULT NOW();
+ALTER TABLE comments ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE guide_media ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP NOT NULL DEFAULT NOW();
+ALTER TABLE guide_media ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- Les lignes existantes gardent leur date de création quand elle est connue
+UPDATE comments SET updated_at = created_at;
+UPDATE guide_media SET updated_at = uploaded_at;
+
+CREATE INDEX IF NOT EXISTS idx_guides_updated_at ON guides (updated_at);
+CREATE INDEX IF NOT EXISTS idx_activities_updated_at ON activities (updated_at);
+CREATE INDEX IF NOT EXISTS idx_comments_updated_at ON comments (updated_at);
+CREATE INDEX IF NOT EXISTS idx_guide_media_updated_at ON guide_media (updated_at);
+
+-- Suppressions et retraits d'accès à transmettre aux clients hors ligne
+-- user_id renseigné : tombstone propre à un utilisateur (guide supprimé ou accès retiré)
+-- Pas de clé étrangère : la ligne doit survivre à la suppression du guide
+CREATE TABLE IF NOT EXISTS sync_tombstones (
+    id BIGSERIAL PRIMARY KEY,
+    entity_type VARCHAR(20) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    guide_id BIGINT NOT NULL,
+    user_id BIGINT,
+    deleted_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+ALTER SEQUENCE sync_tombstones_id_seq INCREMENT BY 50;
+
+CREATE INDEX IF NOT EXISTS idx_sync_tombstones_deleted_at ON sync_tombstones (deleted_at);
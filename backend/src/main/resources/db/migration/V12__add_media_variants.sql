@@ -0,0 +1,3 @@
+-- Dérivés redimensionnés des images (GuideMedia.Variant), générés en arrière-plan après l'upload.
+-- Les fichiers sont nommés d'après le média (<nom>-small.jpg, ...) : seul l'état est stocké
+ALTER TABLE guide_media ADD COLUMN IF NOT EXISTS variant_status VARCHAR(20) NOT NULL DEFAULT 'NONE';
@@ -0,0 +1,2 @@
+-- Empreinte SHA-256 du fichier, calculée pendant l'écriture de l'upload (NULL pour les médias existants)
+ALTER TABLE guide_media ADD COLUMN IF NOT EXISTS sha256 VARCHAR(64);
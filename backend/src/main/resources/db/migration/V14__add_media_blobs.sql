@@ -0,0 +1,12 @@
+-- Stockage adressé par contenu : un fichier par empreinte SHA-256, partagé par les médias identiques.
+-- guide_media.storage_name désigne le blob ; NULL pour un fichier propre au média (nommé file_name)
+CREATE TABLE IF NOT EXISTS media_blobs (
+    sha256 VARCHAR(64) PRIMARY KEY,
+    file_name VARCHAR(255) NOT NULL UNIQUE,
+    size BIGINT NOT NULL,
+    ref_count INTEGER NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+ALTER TABLE guide_media ADD COLUMN IF NOT EXISTS storage_name VARCHAR(255);
+CREATE INDEX IF NOT EXISTS idx_guide_media_storage_name ON guide_media (storage_name);
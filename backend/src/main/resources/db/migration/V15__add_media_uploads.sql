@@ -0,0 +1,14 @@
+-- Uploads par morceaux reprenables : état côté base, contenu dans uploads/partial/<id>.part
+CREATE TABLE IF NOT EXISTS media_uploads (
+    id UUID PRIMARY KEY,
+    guide_id BIGINT NOT NULL REFERENCES guides(id) ON DELETE CASCADE,
+    original_name VARCHAR(255) NOT NULL,
+    content_type VARCHAR(100),
+    size BIGINT NOT NULL,
+    received BIGINT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    updated_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+-- Purge des uploads abandonnés
+CREATE INDEX IF NOT EXISTS idx_media_uploads_updated_at ON media_uploads (updated_at);
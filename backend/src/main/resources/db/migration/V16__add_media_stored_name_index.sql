@@ -0,0 +1,5 @@
+-- Réconciliation des fichiers média : les noms stockés sont parcourus dans l'ordre binaire, celui du
+-- listing du stockage (répertoires triés, S3), par pages keyset sur un index d'expression
+ALTER TABLE guide_media ALTER COLUMN file_name TYPE VARCHAR(255) COLLATE "C";
+ALTER TABLE guide_media ALTER COLUMN storage_name TYPE VARCHAR(255) COLLATE "C";
+CREATE INDEX IF NOT EXISTS idx_guide_media_stored_name ON guide_media ((COALESCE(storage_name, file_name)));
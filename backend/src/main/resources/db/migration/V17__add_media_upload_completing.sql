@@ -0,0 +1,3 @@
+-- Finalisation d'un upload par morceaux réservée par un drapeau plutôt que par suppression de la ligne :
+-- un échec pendant la création du média laisse l'upload reprenable
+ALTER TABLE media_uploads ADD COLUMN IF NOT EXISTS completing BOOLEAN NOT NULL DEFAULT FALSE;
@@ -0,0 +1,12 @@
+-- Version des tokens d'un utilisateur : incrémentée à chaque changement de rôle / mot de passe / email
+ALTER TABLE users ADD COLUMN IF NOT EXISTS token_version INT NOT NULL DEFAULT 0;
+
+-- Révocations lues périodiquement par chaque nœud API (tokens JWT sans état)
+-- Pas de clé étrangère : la ligne doit survivre à la suppression de l'utilisateur
+CREATE TABLE IF NOT EXISTS token_revocations (
+    user_id BIGINT PRIMARY KEY,
+    min_version INT NOT NULL,
+    revoked_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX IF NOT EXISTS idx_token_revocations_revoked_at ON token_revocations (revoked_at);
@@ -0,0 +1,9 @@
+-- Totaux des notes dénormalisés sur le guide : la note moyenne est lue sans agréger les commentaires
+ALTER TABLE guides ADD COLUMN IF NOT EXISTS rating_count INT NOT NULL DEFAULT 0;
+ALTER TABLE guides ADD COLUMN IF NOT EXISTS rating_sum BIGINT NOT NULL DEFAULT 0;
+
+UPDATE guides g
+SET rating_count = t.cnt,
+    rating_sum   = t.total
+FROM (SELECT guide_id, COUNT(*) AS cnt, SUM(rating) AS total FROM comments GROUP BY guide_id) t
+WHERE t.guide_id = g.id;
@@ -0,0 +1,2 @@
+-- Fil de commentaires paginé par curseur : seek sur (created_at DESC, id) pour un guide
+CREATE INDEX IF NOT EXISTS idx_comments_guide_created_id ON comments (guide_id, created_at DESC, id);
@@ -0,0 +1,15 @@
+-- Index des chemins d'accès des requêtes fréquentes (filtre + tri de chaque méthode de repository).
+-- PostgreSQL n'indexe pas les clés étrangères : sans ces index, chaque requête par guide / utilisateur
+-- parcourt toute la table. Le fil des commentaires (guide_id, created_at DESC, id) est couvert par V8.
+
+-- ActivityRepository.findByGuideOrderByOrdreAsc / findByGuideAndOrdre
+CREATE INDEX IF NOT EXISTS idx_activities_guide_ordre ON activities (guide_id, ordre);
+
+-- GuideMediaRepository.findByGuideIdOrderByUploadedAtDesc
+CREATE INDEX IF NOT EXISTS idx_guide_media_guide_uploaded ON guide_media (guide_id, uploaded_at DESC);
+
+-- GuideRepository.findByUsersId / countByUsersId : la clé primaire (guide_id, user_id) ne sert pas à filtrer par user_id
+CREATE INDEX IF NOT EXISTS idx_guide_user_user_guide ON guide_user (user_id, guide_id);
+
+-- Suppression en cascade des commentaires d'un utilisateur
+CREATE INDEX IF NOT EXISTS idx_comments_user ON comments (user_id);
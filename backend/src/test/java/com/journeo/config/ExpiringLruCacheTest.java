@@ -0,0 +1,61 @@
+package com.journeo.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpiringLruCacheTest {
+
+    private final AtomicLong now = new AtomicLong(1_000);
+
+    @Test
+    void get_shouldReturnValueUntilTtlElapses() {
+        ExpiringLruCache<String, String> cache = new ExpiringLruCache<>(10, 100, now::get);
+        cache.put("a", "1");
+
+        now.addAndGet(99);
+        assertEquals("1", cache.get("a"));
+
+        now.addAndGet(1);
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void put_shouldHonourEarlierPerEntryExpiry() {
+        ExpiringLruCache<String, String> cache = new ExpiringLruCache<>(10, 1_000, now::get);
+        cache.put("a", "1", now.get() + 10);
+
+        now.addAndGet(10);
+        assertNull(cache.get("a"));
+    }
+
+    @Test
+    void put_shouldEvictLeastRecentlyUsedWhenFull() {
+        ExpiringLruCache<String, String> cache = new ExpiringLruCache<>(2, 1_000, now::get);
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.get("a");
+        cache.put("c", "3");
+
+        assertEquals("1", cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals("3", cache.get("c"));
+        assertEquals(1, cache.getEvictions());
+    }
+
+    @Test
+    void get_shouldCountHitsAndMisses() {
+        ExpiringLruCache<String, String> cache = new ExpiringLruCache<>(10, 1_000, now::get);
+        cache.put("a", "1");
+
+        cache.get("a");
+        cache.get("a");
+        cache.get("missing");
+
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+}
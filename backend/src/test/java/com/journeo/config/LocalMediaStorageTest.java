@@ -0,0 +1,110 @@
+package com.journeo.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalMediaStorageTest {
+
+    @TempDir
+    Path root;
+
+    private LocalMediaStorage storage;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        storage = new LocalMediaStorage(root, 2);
+    }
+
+    private Path staged(String content) throws IOException {
+        return Files.writeString(Files.createTempFile(root, "staged", ".tmp"), content);
+    }
+
+    @Test
+    void put_shouldFanOutByHexPrefixAndKeepVariantsWithTheirOriginal() throws IOException {
+        storage.put("3fa9c2e1.jpg", staged("original"));
+        storage.put("3fa9c2e1-small.jpg", staged("small"));
+
+        assertEquals("original", Files.readString(root.resolve("3f/a9/3fa9c2e1.jpg")));
+        assertEquals("small", Files.readString(root.resolve("3f/a9/3fa9c2e1-small.jpg")));
+        assertEquals(8, storage.find("3fa9c2e1.jpg").size());
+    }
+
+    @Test
+    void pathFor_shouldHashNamesWithoutHexPrefix() {
+        Path path = storage.pathFor("Photo.JPG");
+
+        assertEquals(root, path.getParent().getParent().getParent());
+        assertEquals(path, storage.pathFor("Photo.JPG"));
+    }
+
+    @Test
+    void pathFor_shouldRejectTraversal() {
+        assertThrows(IllegalArgumentException.class, () -> storage.pathFor("../secret"));
+        assertThrows(IllegalArgumentException.class, () -> storage.pathFor("ab/cd.jpg"));
+        assertThrows(IllegalArgumentException.class, () -> storage.pathFor(".."));
+    }
+
+    @Test
+    void find_shouldFallBackToFlatLayoutUntilResharded() throws IOException {
+        Files.writeString(root.resolve("ab12cd.mp4"), "legacy");
+
+        MediaStorage.StoredObject object = storage.find("ab12cd.mp4");
+
+        assertEquals(root.resolve("ab12cd.mp4"), object.localPath());
+        assertNull(storage.find("ffffff.mp4"));
+    }
+
+    @Test
+    void rename_shouldMoveLegacyFileToShardedTarget() throws IOException {
+        Files.writeString(root.resolve("ab12cd.jpg"), "content");
+
+        storage.rename("ab12cd.jpg", "0123ab.jpg");
+
+        assertFalse(Files.exists(root.resolve("ab12cd.jpg")));
+        assertEquals("content", Files.readString(root.resolve("01/23/0123ab.jpg")));
+        assertThrows(NoSuchFileException.class, () -> storage.rename("ab12cd.jpg", "0123ab.jpg"));
+    }
+
+    @Test
+    void delete_shouldRemoveShardedAndLegacyCopies() throws IOException {
+        storage.put("ab12cd.jpg", staged("new"));
+        Files.writeString(root.resolve("ab12cd.jpg"), "old");
+
+        storage.delete("ab12cd.jpg");
+
+        assertNull(storage.find("ab12cd.jpg"));
+    }
+
+    @Test
+    void reshard_shouldMoveFlatFilesAndSkipStagingAreas() throws IOException {
+        Files.writeString(root.resolve("ab12cd.jpg"), "a");
+        Files.writeString(root.resolve("ab12cd-small.jpg"), "b");
+        Files.createDirectories(root.resolve("ff"));
+        Files.writeString(root.resolve("ff/ee0011.png"), "c");  // ancienne profondeur 1
+        Files.createDirectories(root.resolve(MediaStorageService.PARTIAL_DIR));
+        Files.writeString(root.resolve(MediaStorageService.PARTIAL_DIR).resolve("upload.part"), "d");
+
+        assertEquals(3, storage.reshard());
+
+        assertEquals("a", Files.readString(root.resolve("ab/12/ab12cd.jpg")));
+        assertEquals("b", Files.readString(root.resolve("ab/12/ab12cd-small.jpg")));
+        assertEquals("c", Files.readString(root.resolve("ee/00/ee0011.png")));
+        assertTrue(Files.exists(root.resolve(MediaStorageService.PARTIAL_DIR).resolve("upload.part")));
+        assertFalse(Files.exists(root.resolve("ff")));
+        assertEquals(0, storage.reshard());
+
+        List<String> names = new ArrayList<>();
+        storage.forEachEntry(entry -> names.add(entry.name()));
+        assertEquals(List.of("ab12cd-small.jpg", "ab12cd.jpg", "ee0011.png"), names);
+    }
+}
@@ -0,0 +1,93 @@
+package com.journeo.config;
+
+import com.journeo.exception.PayloadTooLargeException;
+import com.journeo.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MediaStorageServiceTest {
+
+    @TempDir
+    Path uploadDir;
+
+    private MediaStorageService storage;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        storage = new MediaStorageService(new LocalMediaStorage(uploadDir, 2));
+        ReflectionTestUtils.setField(storage, "uploadDir", uploadDir.toString());
+        ReflectionTestUtils.setField(storage, "maxUploadSize", DataSize.ofKilobytes(256));
+        storage.init();
+    }
+
+    @Test
+    void store_shouldWriteContentAndComputeSha256InOnePass() throws Exception {
+        byte[] content = new byte[200 * 1024];
+        new Random(42).nextBytes(content);
+
+        MediaStorageService.StoredFile stored = storage.store(new ByteArrayInputStream(content), "photo.jpg");
+
+        assertTrue(stored.fileName().endsWith(".jpg"));
+        assertEquals(content.length, stored.size());
+        Path file = storage.resolve(stored.fileName()).localPath();
+        assertEquals(uploadDir.resolve(stored.fileName().substring(0, 2)).resolve(stored.fileName().substring(2, 4)),
+                file.getParent());
+        assertArrayEquals(content, Files.readAllBytes(file));
+        String expected = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        assertEquals(expected, stored.sha256());
+    }
+
+    @Test
+    void store_shouldAbortAndRemovePartialFileOverLimit() throws IOException {
+        byte[] content = new byte[256 * 1024 + 1];
+
+        assertThrows(PayloadTooLargeException.class,
+                () -> storage.store(new ByteArrayInputStream(content), "video.mp4"));
+
+        try (var files = Files.walk(uploadDir)) {
+            assertEquals(0, files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    void store_shouldSanitizeExtension() {
+        MediaStorageService.StoredFile stored =
+                storage.store(new ByteArrayInputStream(new byte[] {1, 2, 3}), "clip.m/../p4");
+
+        assertFalse(stored.fileName().contains("/"));
+        assertTrue(Files.exists(storage.resolve(stored.fileName()).localPath()));
+    }
+
+    @Test
+    void writeChunk_shouldNotRecreateAPartFileAlreadyCompleted() {
+        assertThrows(ResourceNotFoundException.class,
+                () -> storage.writeChunk("completed", 0, new ByteArrayInputStream(new byte[] {1}), 10));
+
+        assertFalse(Files.exists(uploadDir.resolve(MediaStorageService.PARTIAL_DIR).resolve("completed.part")));
+    }
+
+    @Test
+    void storeAssembled_shouldLeaveThePartFileForRetries() {
+        storage.createPart("upload");
+        storage.writeChunk("upload", 0, new ByteArrayInputStream(new byte[] {1, 2, 3}), 10);
+
+        MediaStorageService.StoredFile stored = storage.storeAssembled("upload", "clip.mp4");
+
+        assertEquals(3, stored.size());
+        assertTrue(Files.exists(storage.resolve(stored.fileName()).localPath()));
+        assertTrue(Files.exists(uploadDir.resolve(MediaStorageService.PARTIAL_DIR).resolve("upload.part")));
+    }
+}
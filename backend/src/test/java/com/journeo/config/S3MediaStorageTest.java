@@ -0,0 +1,246 @@
+package com.journeo.config;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * S3MediaStorage contre un faux serveur S3 en mémoire (adressage par chemin) : le vrai client SDK,
+ * sans conteneur MinIO ni accès réseau.
+ */
+class S3MediaStorageTest {
+
+    private static final String BUCKET = "media";
+    private static final Pattern RANGE = Pattern.compile("bytes=(\\d+)-(\\d+)");
+
+    @TempDir
+    Path stagingDir;
+
+    private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+    private HttpServer server;
+    private S3MediaStorage storage;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+        String endpoint = "http://localhost:" + server.getAddress().getPort();
+        storage = new S3MediaStorage(MediaStorageConfig.s3Client(endpoint, "us-east-1", "test", "test"),
+                BUCKET, "guides/");
+    }
+
+    @AfterEach
+    void tearDown() {
+        storage.close();
+        server.stop(0);
+    }
+
+    private Path staged(byte[] content) throws IOException {
+        return Files.write(Files.createTempFile(stagingDir, "staged", ".tmp"), content);
+    }
+
+    @Test
+    void put_shouldUploadUnderPrefixAndConsumeStagedFile() throws IOException {
+        Path staged = staged(new byte[] {1, 2, 3});
+
+        storage.put("abc.jpg", staged);
+
+        assertArrayEquals(new byte[] {1, 2, 3}, objects.get("guides/abc.jpg"));
+        assertFalse(Files.exists(staged));
+        MediaStorage.StoredObject object = storage.find("abc.jpg");
+        assertEquals(3, object.size());
+        assertNotNull(object.lastModified());
+        assertNull(object.localPath());
+        assertNull(storage.find("missing.jpg"));
+    }
+
+    @Test
+    void transferTo_shouldFetchOnlyTheRequestedRange() throws IOException {
+        byte[] content = "0123456789".getBytes(StandardCharsets.US_ASCII);
+        storage.put("video.mp4", staged(content));
+        MediaStorage.StoredObject object = storage.find("video.mp4");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        object.transferTo(2, 5, Channels.newChannel(out));
+
+        assertEquals("23456", out.toString(StandardCharsets.US_ASCII));
+        try (InputStream in = object.openStream()) {
+            assertArrayEquals(content, in.readAllBytes());
+        }
+    }
+
+    @Test
+    void rename_shouldCopyServerSideAndDeleteSource() throws IOException {
+        storage.put("upload.jpg", staged(new byte[] {7}));
+
+        storage.rename("upload.jpg", "blob.jpg");
+
+        assertNull(storage.find("upload.jpg"));
+        assertArrayEquals(new byte[] {7}, objects.get("guides/blob.jpg"));
+        assertThrows(NoSuchFileException.class, () -> storage.rename("upload.jpg", "other.jpg"));
+    }
+
+    @Test
+    void deleteAndList_shouldOnlySeeKeysUnderPrefix() throws IOException {
+        storage.put("a.jpg", staged(new byte[] {1}));
+        storage.put("b.jpg", staged(new byte[] {2}));
+        objects.put("other/c.jpg", new byte[] {3});
+
+        storage.delete("a.jpg");
+        storage.delete("never-existed.jpg");
+
+        List<MediaStorage.Entry> entries = new ArrayList<>();
+        storage.forEachEntry(entries::add);
+        assertEquals(1, entries.size());
+        assertEquals("b.jpg", entries.get(0).name());
+        assertEquals(1, entries.get(0).size());
+        assertNotNull(entries.get(0).lastModified());
+    }
+
+    @Test
+    void isScoped_shouldRequireAKeyPrefix() {
+        assertTrue(storage.isScoped());
+        assertFalse(new S3MediaStorage(MediaStorageConfig.s3Client("http://localhost:1", "us-east-1", "test", "test"),
+                BUCKET, "").isScoped());
+    }
+
+    @Test
+    void prefixWithoutSlash_shouldNotCoverSiblingKeys() throws IOException {
+        String endpoint = "http://localhost:" + server.getAddress().getPort();
+        S3MediaStorage unslashed = new S3MediaStorage(
+                MediaStorageConfig.s3Client(endpoint, "us-east-1", "test", "test"), BUCKET, "guides");
+        objects.put("guides-archive/old.jpg", new byte[] {9});
+        unslashed.put("a.jpg", staged(new byte[] {1}));
+
+        assertArrayEquals(new byte[] {1}, objects.get("guides/a.jpg"));
+        List<MediaStorage.Entry> entries = new ArrayList<>();
+        unslashed.forEachEntry(entries::add);
+        assertEquals(List.of("a.jpg"), entries.stream().map(MediaStorage.Entry::name).toList());
+        assertTrue(unslashed.isScoped());
+        unslashed.close();
+    }
+
+    // Sous-ensemble de l'API S3 utilisé par S3MediaStorage
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String path = exchange.getRequestURI().getPath();
+            String key = path.length() > BUCKET.length() + 2 ? path.substring(BUCKET.length() + 2) : "";
+            byte[] body = exchange.getRequestBody().readAllBytes();
+            switch (exchange.getRequestMethod()) {
+                case "PUT" -> {
+                    String copySource = exchange.getRequestHeaders().getFirst("x-amz-copy-source");
+                    if (copySource == null) {
+                        objects.put(key, body);
+                        exchange.getResponseHeaders().set("ETag", "\"etag\"");
+                        exchange.sendResponseHeaders(200, -1);
+                        return;
+                    }
+                    String source = URLDecoder.decode(copySource, StandardCharsets.UTF_8).replaceFirst("^/?" + BUCKET + "/", "");
+                    byte[] content = objects.get(source);
+                    if (content == null) {
+                        notFound(exchange);
+                        return;
+                    }
+                    objects.put(key, content);
+                    xml(exchange, "<CopyObjectResult><ETag>\"etag\"</ETag></CopyObjectResult>");
+                }
+                case "HEAD" -> {
+                    byte[] content = objects.get(key);
+                    if (content == null) {
+                        exchange.sendResponseHeaders(404, -1);
+                        return;
+                    }
+                    exchange.getResponseHeaders().set("Content-Length", String.valueOf(content.length));
+                    exchange.getResponseHeaders().set("Last-Modified", "Thu, 01 Jan 2026 00:00:00 GMT");
+                    exchange.sendResponseHeaders(200, -1);
+                }
+                case "GET" -> {
+                    if (key.isEmpty()) {
+                        list(exchange);
+                        return;
+                    }
+                    byte[] content = objects.get(key);
+                    if (content == null) {
+                        notFound(exchange);
+                        return;
+                    }
+                    String range = exchange.getRequestHeaders().getFirst("Range");
+                    Matcher matcher = range == null ? null : RANGE.matcher(range);
+                    if (matcher != null && matcher.matches()) {
+                        int start = Integer.parseInt(matcher.group(1));
+                        int end = Math.min(Integer.parseInt(matcher.group(2)), content.length - 1);
+                        exchange.getResponseHeaders().set("Content-Range", "bytes " + start + "-" + end + "/" + content.length);
+                        write(exchange, 206, Arrays.copyOfRange(content, start, end + 1));
+                    } else {
+                        write(exchange, 200, content);
+                    }
+                }
+                case "DELETE" -> {
+                    objects.remove(key);
+                    exchange.sendResponseHeaders(204, -1);
+                }
+                default -> exchange.sendResponseHeaders(405, -1);
+            }
+        }
+    }
+
+    private void list(HttpExchange exchange) throws IOException {
+        String query = exchange.getRequestURI().getQuery();
+        String prefix = "";
+        for (String param : query == null ? new String[0] : query.split("&")) {
+            if (param.startsWith("prefix=")) prefix = param.substring("prefix=".length());
+        }
+        StringBuilder xml = new StringBuilder("<ListBucketResult><Name>" + BUCKET + "</Name><IsTruncated>false</IsTruncated>");
+        for (String key : objects.keySet().stream().sorted().toList()) {
+            if (key.startsWith(prefix)) {
+                xml.append("<Contents><Key>").append(key).append("</Key><Size>")
+                        .append(objects.get(key).length).append("</Size><LastModified>2026-01-01T00:00:00.000Z</LastModified></Contents>");
+            }
+        }
+        xml(exchange, xml.append("</ListBucketResult>").toString());
+    }
+
+    private static void notFound(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/xml");
+        write(exchange, 404, "<Error><Code>NoSuchKey</Code><Message>Not found</Message></Error>"
+                .getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void xml(HttpExchange exchange, String xml) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/xml");
+        write(exchange, 200, xml.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void write(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
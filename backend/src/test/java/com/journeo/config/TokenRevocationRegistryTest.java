@@ -0,0 +1,91 @@
+package com.journeo.config;
+
+import com.journeo.model.TokenRevocation;
+import com.journeo.repository.TokenRevocationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationRegistryTest {
+
+    private static final long RETENTION_MILLIS = 60_000;
+
+    @Mock
+    private TokenRevocationRepository repository;
+
+    private TokenRevocationRegistry registry;
+
+    private final TokenRevocation expired =
+            new TokenRevocation(1L, 3, LocalDateTime.now().minusDays(1));
+    private final TokenRevocation deletedUser =
+            new TokenRevocation(2L, TokenRevocationRegistry.REVOKE_ALL, LocalDateTime.now());
+
+    @BeforeEach
+    void setUp() {
+        when(repository.findAll()).thenReturn(List.of(expired, deletedUser));
+        registry = new TokenRevocationRegistry(repository, RETENTION_MILLIS);
+        registry.init();
+        lenient().when(repository.findByRevokedAtAfter(any())).thenReturn(List.of());
+    }
+
+    @Test
+    void refresh_shouldDropOnlyPurgedRevocations() {
+        when(repository.findByRevokedAtBefore(any())).thenReturn(List.of(expired));
+        when(repository.deleteRevokedBefore(any())).thenReturn(1);
+
+        registry.refresh();
+
+        assertFalse(registry.isRevoked(1L, 0));
+        assertTrue(registry.isRevoked(2L, 5));
+    }
+
+    @Test
+    void refresh_shouldKeepAnEntryRevokedAgainSinceTheListing() {
+        when(repository.findByRevokedAtBefore(any())).thenReturn(List.of(expired));
+        when(repository.deleteRevokedBefore(any())).thenAnswer(i -> {
+            registry.revoke(1L, 4);  // révocation locale entre la lecture et la purge
+            return 0;
+        });
+        when(repository.findById(1L)).thenReturn(Optional.of(new TokenRevocation(1L, 3, expired.getRevokedAt())));
+        when(repository.save(any())).thenAnswer(i -> i.getArgument(0));
+
+        registry.refresh();
+
+        assertTrue(registry.isRevoked(1L, 3));
+    }
+
+    @Test
+    void isRevoked_shouldNeverReadAnEmptyRegistryDuringPurge() throws Exception {
+        when(repository.findByRevokedAtBefore(any())).thenReturn(List.of(expired));
+        when(repository.deleteRevokedBefore(any())).thenReturn(1);
+        AtomicBoolean purging = new AtomicBoolean(true);
+        AtomicInteger readmitted = new AtomicInteger();
+
+        CompletableFuture<Void> reader = CompletableFuture.runAsync(() -> {
+            while (purging.get()) {
+                if (!registry.isRevoked(2L, 1)) readmitted.incrementAndGet();
+            }
+        });
+        for (int i = 0; i < 2_000; i++) registry.refresh();
+        purging.set(false);
+        reader.get(10, TimeUnit.SECONDS);
+
+        assertEquals(0, readmitted.get());
+    }
+}
@@ -0,0 +1,63 @@
+package com.journeo.config;
+
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerifiedTokenCacheTest {
+
+    private static VerifiedToken verified(long expiresAtMillis) {
+        return new VerifiedToken(Jwts.claims()
+                .subject("user@example.com")
+                .expiration(new Date(expiresAtMillis))
+                .build());
+    }
+
+    @Test
+    void get_shouldReturnNullWhenDisabled() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(false, 10, 60_000);
+        cache.put("token", verified(System.currentTimeMillis() + 60_000));
+
+        assertFalse(cache.isEnabled());
+        assertNull(cache.get("token"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void get_shouldReturnCachedResultAndCountHitsAndMisses() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(true, 10, 60_000);
+        VerifiedToken token = verified(System.currentTimeMillis() + 60_000);
+
+        assertNull(cache.get("token"));
+        cache.put("token", token);
+
+        assertSame(token, cache.get("token"));
+        assertNull(cache.get("other"));
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    void get_shouldNotServeTokenPastItsExpiry() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(true, 10, 60_000);
+        cache.put("token", verified(System.currentTimeMillis() - 1));
+
+        assertNull(cache.get("token"));
+    }
+
+    @Test
+    void put_shouldBoundSize() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(true, 2, 60_000);
+        long exp = System.currentTimeMillis() + 60_000;
+        cache.put("a", verified(exp));
+        cache.put("b", verified(exp));
+        cache.put("c", verified(exp));
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+        assertNull(cache.get("a"));
+    }
+}
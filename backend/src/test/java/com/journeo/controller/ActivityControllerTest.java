@@ -2,6 +2,8 @@ package com.journeo.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.journeo.BackendApplication;
+import com.journeo.dto.ActivityMoveDTO;
+import com.journeo.dto.ActivityReorderDTO;
 import com.journeo.dto.ActivityRequestDTO;
 import com.journeo.model.Activity;
 import com.journeo.model.Guide;
@@ -144,6 +146,26 @@ public class ActivityControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", hasSize(0)));
         }
+
+        @Test
+        @DisplayName("Should return 304 until an activity of the guide changes")
+        @WithMockUser(roles = "ADMIN")
+        void shouldHonourIfNoneMatch() throws Exception {
+            String etag = mockMvc.perform(get("/api/activities/guide/{guideId}", testGuide.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+            mockMvc.perform(get("/api/activities/guide/{guideId}", testGuide.getId()).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+            testActivity.setTitre("Musée du Louvre");
+            activityRepository.saveAndFlush(testActivity);
+
+            mockMvc.perform(get("/api/activities/guide/{guideId}", testGuide.getId()).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(etag)))
+                .andExpect(jsonPath("$[0].titre", equalTo("Musée du Louvre")));
+        }
     }
 
     @Nested
@@ -359,4 +381,129 @@ public class ActivityControllerTest {
                 .andExpect(status().isUnauthorized());
         }
     }
+
+    @Nested
+    @DisplayName("PUT /api/activities/guide/{guideId}/order - Reorder activities")
+    class ReorderActivitiesTests {
+
+        private Activity secondActivity;
+
+        @BeforeEach
+        void addSecondActivity() {
+            secondActivity = new Activity();
+            secondActivity.setTitre("Tour Eiffel");
+            secondActivity.setType(Activity.Type.ACTIVITE);
+            secondActivity.setDuree(90);
+            secondActivity.setOrdre(2);
+            secondActivity.setJour(1);
+            testGuide.addActivity(secondActivity);
+            secondActivity = activityRepository.save(secondActivity);
+        }
+
+        private ActivityReorderDTO reorder(ActivityMoveDTO... moves) {
+            ActivityReorderDTO dto = new ActivityReorderDTO();
+            dto.setMoves(java.util.List.of(moves));
+            return dto;
+        }
+
+        @Test
+        @DisplayName("Should swap activities as ADMIN")
+        @WithMockUser(roles = "ADMIN")
+        void shouldSwapActivities() throws Exception {
+            ActivityReorderDTO dto = reorder(
+                new ActivityMoveDTO(testActivity.getId(), 1, 2),
+                new ActivityMoveDTO(secondActivity.getId(), 1, 1));
+
+            mockMvc.perform(put("/api/activities/guide/{guideId}/order", testGuide.getId())
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].titre", equalTo("Tour Eiffel")))
+                .andExpect(jsonPath("$[1].titre", equalTo("Visite du Louvre")))
+                .andExpect(jsonPath("$[1].ordre", equalTo(2)));
+
+            assertThat(activityRepository.findById(testActivity.getId()).orElseThrow().getOrdre()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Should move a single activity to another day")
+        @WithMockUser(roles = "ADMIN")
+        void shouldMoveSingleActivity() throws Exception {
+            ActivityReorderDTO dto = reorder(new ActivityMoveDTO(testActivity.getId(), 3, 1));
+
+            mockMvc.perform(put("/api/activities/guide/{guideId}/order", testGuide.getId())
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[1].id", equalTo(testActivity.getId().intValue())))
+                .andExpect(jsonPath("$[1].jour", equalTo(3)));
+        }
+
+        @Test
+        @DisplayName("Should reject an activity of another guide and change nothing")
+        @WithMockUser(roles = "ADMIN")
+        void shouldRejectForeignActivity() throws Exception {
+            Guide other = guideRepository.save(new Guide("Autre", null, 1,
+                Guide.Mobilite.VELO, Guide.Saison.HIVER, Guide.PublicCible.SEUL));
+            Activity foreign = new Activity();
+            foreign.setTitre("Ailleurs");
+            foreign.setType(Activity.Type.PARC);
+            foreign.setOrdre(1);
+            foreign.setJour(1);
+            other.addActivity(foreign);
+            foreign = activityRepository.save(foreign);
+
+            ActivityReorderDTO dto = reorder(
+                new ActivityMoveDTO(testActivity.getId(), 1, 5),
+                new ActivityMoveDTO(foreign.getId(), 1, 2));
+
+            mockMvc.perform(put("/api/activities/guide/{guideId}/order", testGuide.getId())
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isBadRequest());
+
+            assertThat(activityRepository.findById(testActivity.getId()).orElseThrow().getOrdre()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should reject an empty move list")
+        @WithMockUser(roles = "ADMIN")
+        void shouldRejectEmptyMoves() throws Exception {
+            mockMvc.perform(put("/api/activities/guide/{guideId}/order", testGuide.getId())
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(reorder())))
+                .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @DisplayName("Should return 404 when guide not found")
+        @WithMockUser(roles = "ADMIN")
+        void shouldReturn404WhenGuideNotFound() throws Exception {
+            ActivityReorderDTO dto = reorder(new ActivityMoveDTO(testActivity.getId(), 1, 1));
+
+            mockMvc.perform(put("/api/activities/guide/9999/order")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isNotFound());
+        }
+
+        @Test
+        @DisplayName("Should return 403 without ADMIN role")
+        @WithMockUser(roles = "USER")
+        void shouldReturn403WithoutAdminRole() throws Exception {
+            ActivityReorderDTO dto = reorder(new ActivityMoveDTO(testActivity.getId(), 1, 1));
+
+            mockMvc.perform(put("/api/activities/guide/{guideId}/order", testGuide.getId())
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isForbidden());
+        }
+    }
 }
@@ -5,10 +5,12 @@ import com.journeo.BackendApplication;
 import com.journeo.dto.CommentRequestDTO;
 import com.journeo.model.Comment;
 import com.journeo.model.Guide;
+import com.journeo.model.SyncTracked;
 import com.journeo.model.User;
 import com.journeo.repository.CommentRepository;
 import com.journeo.repository.GuideRepository;
 import com.journeo.repository.UserRepository;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -22,7 +24,12 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -49,6 +56,9 @@ public class CommentControllerTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     private Guide testGuide;
     private User adminUser;
     private User regularUser;
@@ -83,7 +93,10 @@ public class CommentControllerTest {
         c.setRating(rating);
         c.setGuide(testGuide);
         c.setAuthor(author);
-        return commentRepository.save(c);
+        Comment saved = commentRepository.save(c);
+        // Même mise à jour des totaux que CommentService.addComment
+        guideRepository.addRating(testGuide.getId(), rating, SyncTracked.now());
+        return saved;
     }
 
     // ─────────────────────────────────────────────────────────────────────────
@@ -238,6 +251,76 @@ public class CommentControllerTest {
         }
     }
 
+    // ─────────────────────────────────────────────────────────────────────────
+    @Nested
+    @DisplayName("GET /api/guides/{guideId}/comments/feed - Cursor-paginated feed")
+    class GetCommentFeedTests {
+
+        @Test
+        @DisplayName("Pages through every comment once, newest first")
+        @WithMockUser(username = "user@test.com", roles = "USER")
+        void pagesThroughAllComments() throws Exception {
+            for (int i = 1; i <= 5; i++) saveComment(regularUser, i);
+
+            List<Long> seen = new ArrayList<>();
+            String cursor = null;
+            int pages = 0;
+            do {
+                var request = get("/api/guides/{id}/comments/feed", testGuide.getId()).param("size", "2");
+                if (cursor != null) request.param("cursor", cursor);
+                String body = mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content", hasSize(lessThanOrEqualTo(2))))
+                    .andReturn().getResponse().getContentAsString();
+                var page = objectMapper.readTree(body);
+                page.get("content").forEach(c -> seen.add(c.get("id").asLong()));
+                cursor = page.get("hasNext").asBoolean() ? page.get("nextCursor").asText() : null;
+                pages++;
+            } while (cursor != null);
+
+            assertEquals(3, pages);
+            assertEquals(5, seen.size());
+            assertEquals(5, new HashSet<>(seen).size());
+        }
+
+        @Test
+        @DisplayName("Exposes author fields on each comment")
+        @WithMockUser(username = "user@test.com", roles = "USER")
+        void exposesAuthorFields() throws Exception {
+            saveComment(otherUser, 4);
+
+            mockMvc.perform(get("/api/guides/{id}/comments/feed", testGuide.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].authorEmail", equalTo("other@test.com")))
+                .andExpect(jsonPath("$.content[0].guideId", equalTo(testGuide.getId().intValue())))
+                .andExpect(jsonPath("$.hasNext", equalTo(false)));
+        }
+
+        @Test
+        @DisplayName("Invalid cursor returns 400")
+        @WithMockUser(roles = "ADMIN")
+        void invalidCursorReturns400() throws Exception {
+            mockMvc.perform(get("/api/guides/{id}/comments/feed", testGuide.getId()).param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @DisplayName("Out-of-range size returns 400")
+        @WithMockUser(roles = "ADMIN")
+        void invalidSizeReturns400() throws Exception {
+            mockMvc.perform(get("/api/guides/{id}/comments/feed", testGuide.getId()).param("size", "0"))
+                .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @DisplayName("Unknown guide returns 404")
+        @WithMockUser(roles = "ADMIN")
+        void unknownGuideReturns404() throws Exception {
+            mockMvc.perform(get("/api/guides/9999/comments/feed"))
+                .andExpect(status().isNotFound());
+        }
+    }
+
     // ─────────────────────────────────────────────────────────────────────────
     @Nested
     @DisplayName("DELETE /api/guides/{guideId}/comments/{commentId} - Delete comment")
@@ -321,5 +404,84 @@ public class CommentControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.averageRating", equalTo(3.0)));
         }
+
+        @Test
+        @DisplayName("averageRating follows comments added and deleted through the API")
+        @WithMockUser(username = "admin@test.com", roles = "ADMIN")
+        void averageRatingFollowsAddAndDelete() throws Exception {
+            mockMvc.perform(post("/api/guides/{id}/comments", testGuide.getId())
+                    .with(csrf())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(buildRequest("Top", 5))))
+                .andExpect(status().isCreated());
+            String body = mockMvc.perform(post("/api/guides/{id}/comments", testGuide.getId())
+                    .with(csrf())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(buildRequest("Bof", 2))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+            long commentId = objectMapper.readTree(body).get("id").asLong();
+
+            mockMvc.perform(get("/api/guides/{id}", testGuide.getId()))
+                .andExpect(jsonPath("$.averageRating", equalTo(3.5)));
+
+            mockMvc.perform(delete("/api/guides/{gId}/comments/{cId}", testGuide.getId(), commentId)
+                    .with(csrf()))
+                .andExpect(status().isOk());
+
+            mockMvc.perform(get("/api/guides/{id}", testGuide.getId()))
+                .andExpect(jsonPath("$.averageRating", equalTo(5.0)));
+            Guide reloaded = guideRepository.findById(testGuide.getId()).orElseThrow();
+            assertEquals(1, reloaded.getRatingCount());
+            assertEquals(commentRepository.findAverageRatingByGuideId(testGuide.getId()), reloaded.getAverageRating());
+        }
+
+        @Test
+        @DisplayName("Deleting a user removes their ratings from the guides they rated")
+        @WithMockUser(roles = "ADMIN")
+        void userDeletionRemovesRatings() throws Exception {
+            Guide otherGuide = guideRepository.save(new Guide(
+                "Rome", "Ancient tour", 2,
+                Guide.Mobilite.A_PIED, Guide.Saison.ETE, Guide.PublicCible.FAMILLE
+            ));
+            saveComment(regularUser, 5);
+            saveComment(regularUser, 4);
+            saveComment(otherUser, 2);
+            Comment elsewhere = new Comment();
+            elsewhere.setContent("Great guide!");
+            elsewhere.setRating(3);
+            elsewhere.setGuide(otherGuide);
+            elsewhere.setAuthor(regularUser);
+            commentRepository.save(elsewhere);
+            guideRepository.addRating(otherGuide.getId(), 3, SyncTracked.now());
+
+            mockMvc.perform(delete("/api/users/{id}", regularUser.getId()).with(csrf()))
+                .andExpect(status().isOk());
+            entityManager.clear();
+
+            Guide reloaded = guideRepository.findById(testGuide.getId()).orElseThrow();
+            assertEquals(1, reloaded.getRatingCount());
+            assertEquals(2, reloaded.getRatingSum());
+            assertEquals(commentRepository.findAverageRatingByGuideId(testGuide.getId()), reloaded.getAverageRating());
+            Guide reloadedOther = guideRepository.findById(otherGuide.getId()).orElseThrow();
+            assertEquals(0, reloadedOther.getRatingCount());
+            assertEquals(0, reloadedOther.getRatingSum());
+            assertEquals(commentRepository.findAverageRatingByGuideId(otherGuide.getId()), reloadedOther.getAverageRating());
+        }
+
+        @Test
+        @DisplayName("Updating a guide does not overwrite its rating totals")
+        @WithMockUser(roles = "ADMIN")
+        void guideUpdateKeepsRatingTotals() throws Exception {
+            // Guide lu avant la note : ses totaux en mémoire sont périmés
+            Guide guide = guideRepository.findById(testGuide.getId()).orElseThrow();
+            saveComment(regularUser, 4);
+            guide.setTitre("Renamed");
+            guideRepository.saveAndFlush(guide);
+            entityManager.clear();
+
+            mockMvc.perform(get("/api/guides/{id}", testGuide.getId()))
+                .andExpect(jsonPath("$.averageRating", equalTo(4.0)));
+        }
     }
 }
@@ -0,0 +1,36 @@
+package com.journeo.controller;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentCodingsTest {
+
+    @Test
+    void gzipCoding_shouldAcceptGzipWithPositiveQ() {
+        assertEquals("gzip", ContentCodings.gzipCoding("gzip"));
+        assertEquals("gzip", ContentCodings.gzipCoding("br;q=1.0, GZIP;q=0.5"));
+        assertEquals("gzip", ContentCodings.gzipCoding("deflate, *;q=0.1"));
+    }
+
+    @Test
+    void gzipCoding_shouldRefuseGzipWithZeroQ() {
+        assertNull(ContentCodings.gzipCoding("gzip;q=0"));
+        assertNull(ContentCodings.gzipCoding("gzip; q=0.000, *"));
+        assertNull(ContentCodings.gzipCoding("*;q=0"));
+    }
+
+    @Test
+    void gzipCoding_shouldAnswerXGzipOnlyWhenGzipIsNotListed() {
+        assertEquals("x-gzip", ContentCodings.gzipCoding("x-gzip"));
+        assertEquals("gzip", ContentCodings.gzipCoding("x-gzip, gzip"));
+        assertNull(ContentCodings.gzipCoding("x-gzip;q=0"));
+    }
+
+    @Test
+    void gzipCoding_shouldIgnoreOtherCodingsAndMalformedQ() {
+        assertNull(ContentCodings.gzipCoding(null));
+        assertNull(ContentCodings.gzipCoding("gzipped, deflate"));
+        assertNull(ContentCodings.gzipCoding("gzip;q=high"));
+    }
+}
@@ -3,12 +3,17 @@ package com.journeo.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.journeo.BackendApplication;
 import com.journeo.dto.GuideRequestDTO;
+import com.journeo.model.Activity;
 import com.journeo.model.Guide;
+import com.journeo.model.SyncTracked;
 import com.journeo.model.User;
+import com.journeo.repository.ActivityRepository;
 import com.journeo.repository.GuideRepository;
 import com.journeo.repository.UserRepository;
+import com.journeo.service.GuideExportService;
 import com.journeo.service.GuideService;
 import com.journeo.service.UserService;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -55,12 +60,21 @@ public class GuideControllerTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ActivityRepository activityRepository;
+
     @Autowired
     private GuideService guideService;
 
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private GuideExportService guideExportService;
+
+    @Autowired
+    private EntityManager entityManager;
+
     private Guide testGuide;
     private User adminUser;
     private User regularUser;
@@ -159,6 +173,56 @@ public class GuideControllerTest {
                 .andExpect(jsonPath("$.content", hasSize(0)));
         }
 
+        @Test
+        @DisplayName("Should compute total only when requested")
+        @WithMockUser(roles = "ADMIN")
+        void shouldComputeTotalOnlyWhenRequested() throws Exception {
+            mockMvc.perform(get("/api/guides"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.page", equalTo(0)))
+                .andExpect(jsonPath("$.totalElements", nullValue()));
+
+            mockMvc.perform(get("/api/guides").param("withTotal", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements", equalTo(1)));
+        }
+
+        @Test
+        @DisplayName("Should page through guides with a keyset cursor")
+        @WithMockUser(roles = "ADMIN")
+        void shouldPageWithKeysetCursor() throws Exception {
+            guideRepository.save(new Guide("Lyon Gastronomy", null, 2,
+                Guide.Mobilite.VOITURE, Guide.Saison.PRINTEMPS, Guide.PublicCible.EN_GROUPE));
+            guideRepository.save(new Guide("Nice Beaches", null, 1,
+                Guide.Mobilite.A_PIED, Guide.Saison.ETE, Guide.PublicCible.ENTRE_AMIS));
+
+            MvcResult first = mockMvc.perform(get("/api/guides").param("cursor", "").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(2)))
+                .andExpect(jsonPath("$.content[0].titre", equalTo("Paris City Tour")))
+                .andExpect(jsonPath("$.hasNext", equalTo(true)))
+                .andExpect(jsonPath("$.nextCursor", notNullValue()))
+                .andReturn();
+
+            String cursor = objectMapper.readTree(first.getResponse().getContentAsString())
+                .get("nextCursor").asText();
+
+            mockMvc.perform(get("/api/guides").param("cursor", cursor).param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].titre", equalTo("Nice Beaches")))
+                .andExpect(jsonPath("$.hasNext", equalTo(false)))
+                .andExpect(jsonPath("$.nextCursor", nullValue()));
+        }
+
+        @Test
+        @DisplayName("Should return 400 for a malformed cursor")
+        @WithMockUser(roles = "ADMIN")
+        void shouldReturn400ForMalformedCursor() throws Exception {
+            mockMvc.perform(get("/api/guides").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+        }
+
         @Test
         @DisplayName("Should return 401 when not authenticated")
         void shouldReturn401WhenNotAuthenticated() throws Exception {
@@ -167,6 +231,51 @@ public class GuideControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("GET /api/guides/summary - List guide summaries")
+    class GetGuideSummariesTests {
+
+        @BeforeEach
+        void addActivitiesAndUsers() {
+            for (int i = 1; i <= 3; i++) {
+                Activity activity = new Activity("Activity " + i, null, Activity.Type.MUSEE);
+                testGuide.addActivity(activity);
+                activityRepository.save(activity);
+            }
+            testGuide.addUser(regularUser);
+            testGuide.addUser(adminUser);
+            guideRepository.save(testGuide);
+        }
+
+        @Test
+        @DisplayName("Should return summaries with SQL-computed counts and no collections")
+        @WithMockUser(roles = "ADMIN")
+        void shouldReturnSummariesWithCounts() throws Exception {
+            mockMvc.perform(get("/api/guides/summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].titre", equalTo("Paris City Tour")))
+                .andExpect(jsonPath("$.content[0].activityCount", equalTo(3)))
+                .andExpect(jsonPath("$.content[0].userCount", equalTo(2)))
+                .andExpect(jsonPath("$.content[0].activities").doesNotExist())
+                .andExpect(jsonPath("$.content[0].users").doesNotExist());
+        }
+
+        @Test
+        @DisplayName("Should return only assigned summaries for regular user")
+        @WithMockUser(username = "user@test.com", roles = "USER")
+        void shouldReturnOnlyAssignedSummaries() throws Exception {
+            guideRepository.save(new Guide("Lyon Gastronomy", null, 2,
+                Guide.Mobilite.VOITURE, Guide.Saison.PRINTEMPS, Guide.PublicCible.EN_GROUPE));
+
+            mockMvc.perform(get("/api/guides/summary").param("cursor", "").param("withTotal", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].titre", equalTo("Paris City Tour")))
+                .andExpect(jsonPath("$.totalElements", equalTo(1)));
+        }
+    }
+
     @Nested
     @DisplayName("GET /api/guides/{id} - Get single guide")
     class GetGuideByIdTests {
@@ -219,6 +328,94 @@ public class GuideControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("GET /api/guides/{id} - Conditional requests (ETag)")
+    class ConditionalGetGuideTests {
+
+        private String fetchETag() throws Exception {
+            return mockMvc.perform(get("/api/guides/{id}", testGuide.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", containsString("no-cache")))
+                .andReturn().getResponse().getHeader("ETag");
+        }
+
+        @Test
+        @DisplayName("Should return 304 when If-None-Match matches the current version")
+        @WithMockUser(roles = "ADMIN")
+        void shouldReturn304WhenUnchanged() throws Exception {
+            String etag = fetchETag();
+            assertThat(etag).startsWith("\"guide" + testGuide.getId());
+
+            mockMvc.perform(get("/api/guides/{id}", testGuide.getId()).header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
+        }
+
+        @Test
+        @DisplayName("Should return 200 with a new ETag when an activity is added")
+        @WithMockUser(roles = "ADMIN")
+        void shouldChangeETagWhenActivityAdded() throws Exception {
+            String etag = fetchETag();
+
+            Activity activity = new Activity();
+            activity.setTitre("Louvre");
+            activity.setType(Activity.Type.MUSEE);
+            activity.setOrdre(1);
+            activity.setJour(1);
+            testGuide.addActivity(activity);
+            activityRepository.save(activity);
+
+            mockMvc.perform(get("/api/guides/{id}", testGuide.getId()).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", org.hamcrest.Matchers.not(etag)))
+                .andExpect(jsonPath("$.activities", hasSize(1)));
+        }
+
+        @Test
+        @DisplayName("Should return 200 with a new ETag when an edit lands after a rating")
+        @WithMockUser(roles = "ADMIN")
+        void shouldChangeETagWhenEditInterleavesWithRating() throws Exception {
+            // Guide lu avant la note, modifié après : les deux écritures ne doivent pas partager une version
+            Guide loaded = guideRepository.findById(testGuide.getId()).orElseThrow();
+            guideRepository.addRating(testGuide.getId(), 4, SyncTracked.now());
+            String etag = fetchETag();
+
+            loaded.setTitre("Renamed");
+            guideRepository.saveAndFlush(loaded);
+            entityManager.clear();
+
+            mockMvc.perform(get("/api/guides/{id}", testGuide.getId()).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", org.hamcrest.Matchers.not(etag)))
+                .andExpect(jsonPath("$.titre").value("Renamed"));
+        }
+
+        @Test
+        @DisplayName("Should return 200 with a new ETag when a user is unassigned")
+        @WithMockUser(roles = "ADMIN")
+        void shouldChangeETagWhenUserUnassigned() throws Exception {
+            guideService.addUserToGuide(testGuide.getId(), regularUser.getId());
+            String etag = fetchETag();
+
+            guideService.removeUserFromGuide(testGuide.getId(), regularUser.getId());
+
+            mockMvc.perform(get("/api/guides/{id}", testGuide.getId()).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users", hasSize(0)));
+        }
+
+        @Test
+        @DisplayName("Should still return 403 to an unassigned user sending a valid ETag")
+        @WithMockUser(username = "user@test.com", roles = "USER")
+        void shouldNotBypassAccessCheck() throws Exception {
+            String etag = guideService.findETag(testGuide.getId(), null);
+
+            mockMvc.perform(get("/api/guides/{id}", testGuide.getId()).header("If-None-Match", etag))
+                .andExpect(status().isForbidden());
+        }
+    }
+
     @Nested
     @DisplayName("POST /api/guides - Create guide")
     class CreateGuideTests {
@@ -551,4 +748,209 @@ public class GuideControllerTest {
                 .andExpect(status().isForbidden());
         }
     }
+
+    @Nested
+    @DisplayName("POST /api/guides/import - Bulk import")
+    class ImportGuidesTests {
+
+        private static final String ACTIVITY =
+            "{\"titre\":\"Musée\",\"type\":\"MUSEE\",\"duree\":60,\"ordre\":1,\"jour\":1}";
+
+        private String guideJson(String titre, String mobilite, String activities) {
+            return "{\"titre\":\"" + titre + "\",\"jours\":2,\"mobilite\":\"" + mobilite
+                + "\",\"saison\":\"ETE\",\"pourQui\":\"FAMILLE\",\"activities\":[" + activities + "]}";
+        }
+
+        @Test
+        @DisplayName("Should import a JSON array and report invalid records")
+        @WithMockUser(roles = "ADMIN")
+        void shouldImportJsonArray() throws Exception {
+            String body = "[" + guideJson("Lyon", "VELO", ACTIVITY + "," + ACTIVITY)
+                + "," + guideJson("Invalide", "FUSEE", "")
+                + "," + "{\"titre\":\"\",\"jours\":0}"
+                + "," + guideJson("Nice", "A_PIED", "") + "]";
+
+            mockMvc.perform(post("/api/guides/import")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", equalTo(2)))
+                .andExpect(jsonPath("$.failed", equalTo(2)))
+                .andExpect(jsonPath("$.errors[0].index", equalTo(1)))
+                .andExpect(jsonPath("$.errors[0].titre", equalTo("Invalide")))
+                .andExpect(jsonPath("$.errors[1].index", equalTo(2)))
+                .andExpect(jsonPath("$.errors[1].message", containsString("titre")))
+                .andExpect(jsonPath("$.fatalError").doesNotExist());
+
+            assertThat(guideRepository.findAll()).hasSize(3);
+            Guide lyon = guideRepository.findAll().stream()
+                .filter(g -> g.getTitre().equals("Lyon")).findFirst().orElseThrow();
+            assertThat(activityRepository.findByGuideOrderByOrdreAsc(lyon)).hasSize(2);
+        }
+
+        @Test
+        @DisplayName("Should import NDJSON")
+        @WithMockUser(roles = "ADMIN")
+        void shouldImportNdjson() throws Exception {
+            String body = guideJson("Lille", "VOITURE", ACTIVITY) + "\n"
+                + guideJson("Metz", "MOTO", "") + "\n";
+
+            mockMvc.perform(post("/api/guides/import")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", equalTo(2)))
+                .andExpect(jsonPath("$.failed", equalTo(0)));
+
+            assertThat(guideRepository.findAll()).hasSize(3);
+        }
+
+        @Test
+        @DisplayName("Should report null activities as record errors and keep importing")
+        @WithMockUser(roles = "ADMIN")
+        void shouldReportNullActivities() throws Exception {
+            String body = "[{\"titre\":\"Sans liste\",\"jours\":2,\"mobilite\":\"VELO\",\"saison\":\"ETE\","
+                + "\"pourQui\":\"FAMILLE\",\"activities\":null}"
+                + "," + guideJson("Trou", "VELO", "null")
+                + "," + guideJson("Nice", "A_PIED", ACTIVITY) + "]";
+
+            mockMvc.perform(post("/api/guides/import")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", equalTo(1)))
+                .andExpect(jsonPath("$.failed", equalTo(2)))
+                .andExpect(jsonPath("$.errors[0].index", equalTo(0)))
+                .andExpect(jsonPath("$.errors[0].message", containsString("activities")))
+                .andExpect(jsonPath("$.errors[1].index", equalTo(1)))
+                .andExpect(jsonPath("$.errors[1].message", containsString("activities")))
+                .andExpect(jsonPath("$.fatalError").doesNotExist());
+
+            assertThat(guideRepository.findAll()).hasSize(2);
+        }
+
+        @Test
+        @DisplayName("Should keep records read before malformed JSON")
+        @WithMockUser(roles = "ADMIN")
+        void shouldStopOnMalformedJson() throws Exception {
+            String body = guideJson("Brest", "VELO", "") + "\n{\"titre\": oops";
+
+            mockMvc.perform(post("/api/guides/import")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", equalTo(1)))
+                .andExpect(jsonPath("$.fatalError", containsString("Malformed JSON")));
+        }
+
+        @Test
+        @DisplayName("Should fail without ADMIN role")
+        @WithMockUser(roles = "USER")
+        void shouldFailWithoutAdminRole() throws Exception {
+            mockMvc.perform(post("/api/guides/import")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]"))
+                .andExpect(status().isForbidden());
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/guides/export - NDJSON export")
+    class ExportGuidesTests {
+
+        @Test
+        @DisplayName("Should write one line per guide with activities, users and rating totals")
+        void shouldExportGuidesAsNdjson() throws Exception {
+            Activity activity = new Activity();
+            activity.setTitre("Louvre");
+            activity.setType(Activity.Type.MUSEE);
+            activity.setOrdre(1);
+            activity.setJour(1);
+            testGuide.addActivity(activity);
+            activityRepository.save(activity);
+            testGuide.addUser(regularUser);
+            guideRepository.save(testGuide);
+            guideRepository.save(new Guide("Lyon", null, 1,
+                Guide.Mobilite.VELO, Guide.Saison.HIVER, Guide.PublicCible.SEUL));
+            guideRepository.addRating(testGuide.getId(), 4, SyncTracked.now());
+
+            java.io.ByteArrayOutputStream out = new java.io.ByteArrayOutputStream();
+            long written = guideExportService.exportNdjson(out);
+
+            String[] lines = out.toString(java.nio.charset.StandardCharsets.UTF_8).split("\n");
+            assertThat(written).isEqualTo(2);
+            assertThat(lines).hasSize(2);
+            com.fasterxml.jackson.databind.JsonNode first = objectMapper.readTree(lines[0]);
+            assertThat(first.get("titre").asText()).isEqualTo("Paris City Tour");
+            assertThat(first.get("activities").get(0).get("titre").asText()).isEqualTo("Louvre");
+            assertThat(first.get("users").get(0).get("email").asText()).isEqualTo("user@test.com");
+            assertThat(first.get("ratingCount").asInt()).isEqualTo(1);
+            assertThat(first.get("averageRating").asDouble()).isEqualTo(4.0);
+            assertThat(objectMapper.readTree(lines[1]).get("titre").asText()).isEqualTo("Lyon");
+        }
+
+        @Test
+        @DisplayName("Should stream gzip when accepted")
+        @WithMockUser(roles = "ADMIN")
+        void shouldStreamGzip() throws Exception {
+            MvcResult result = mockMvc.perform(get("/api/guides/export")
+                .header("Accept-Encoding", "gzip"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+            MvcResult done = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn();
+
+            byte[] body = done.getResponse().getContentAsByteArray();
+            try (java.util.zip.GZIPInputStream in = new java.util.zip.GZIPInputStream(
+                    new java.io.ByteArrayInputStream(body))) {
+                String ndjson = new String(in.readAllBytes(), java.nio.charset.StandardCharsets.UTF_8);
+                assertThat(ndjson.isEmpty() || ndjson.endsWith("\n")).isTrue();
+            }
+        }
+
+        @Test
+        @DisplayName("Should not gzip when gzip is refused with q=0")
+        @WithMockUser(roles = "ADMIN")
+        void shouldNotGzipWhenRefused() throws Exception {
+            MvcResult result = mockMvc.perform(get("/api/guides/export")
+                .header("Accept-Encoding", "gzip;q=0, identity"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+            mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"));
+        }
+
+        @Test
+        @DisplayName("Should answer x-gzip to clients that only accept x-gzip")
+        @WithMockUser(roles = "ADMIN")
+        void shouldAnswerXGzipAlias() throws Exception {
+            MvcResult result = mockMvc.perform(get("/api/guides/export")
+                .header("Accept-Encoding", "x-gzip;q=0.8"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+            mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "x-gzip"));
+        }
+
+        @Test
+        @DisplayName("Should fail without ADMIN role")
+        @WithMockUser(roles = "USER")
+        void shouldFailWithoutAdminRole() throws Exception {
+            mockMvc.perform(get("/api/guides/export"))
+                .andExpect(status().isForbidden());
+        }
+    }
 }
@@ -1,30 +1,46 @@
 package com.journeo.controller;
 
 import com.journeo.BackendApplication;
+import com.journeo.config.MediaStorage;
 import com.journeo.config.MediaStorageService;
+import com.journeo.exception.PayloadTooLargeException;
 import com.journeo.model.Guide;
 import com.journeo.model.GuideMedia;
+import com.journeo.model.MediaBlob;
+import com.journeo.model.SyncTracked;
 import com.journeo.model.User;
 import com.journeo.repository.GuideMediaRepository;
 import com.journeo.repository.GuideRepository;
+import com.journeo.repository.MediaBlobRepository;
 import com.journeo.repository.UserRepository;
+import com.jayway.jsonpath.JsonPath;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -49,11 +65,19 @@ public class GuideMediaControllerTest {
     @Autowired
     private GuideMediaRepository mediaRepository;
 
+    @Autowired
+    private MediaBlobRepository blobRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
     @MockBean
     private MediaStorageService mediaStorageService;
 
     private Guide testGuide;
 
+    private static final String SHA256 = "4a1b2c3d4e5f60718293a4b5c6d7e8f90a1b2c3d4e5f60718293a4b5c6d7e8f9";
+
     @BeforeEach
     void setUp() {
         mediaRepository.deleteAll();
@@ -69,7 +93,8 @@ public class GuideMediaControllerTest {
         ));
 
         // Default mock behaviour
-        when(mediaStorageService.store(any())).thenReturn("uuid-test.jpg");
+        when(mediaStorageService.store(any(), any()))
+            .thenReturn(new MediaStorageService.StoredFile("uuid-test.jpg", 16, SHA256));
         when(mediaStorageService.detectFileType(any())).thenReturn(GuideMedia.FileType.IMAGE);
     }
 
@@ -96,9 +121,61 @@ public class GuideMediaControllerTest {
                 .andExpect(jsonPath("$.originalName", equalTo("photo.jpg")))
                 .andExpect(jsonPath("$.fileType", equalTo("IMAGE")))
                 .andExpect(jsonPath("$.guideId", equalTo(testGuide.getId().intValue())))
-                .andExpect(jsonPath("$.url", containsString("/api/media/files/uuid-test.jpg")));
+                .andExpect(jsonPath("$.url", containsString("/api/media/files/uuid-test.jpg")))
+                .andExpect(jsonPath("$.variantStatus", equalTo("PENDING")))
+                .andExpect(jsonPath("$.variants", anEmptyMap()));
 
-            verify(mediaStorageService).store(any());
+            verify(mediaStorageService).store(any(), eq("photo.jpg"));
+        }
+
+        @Test
+        @DisplayName("ADMIN can stream an image as the raw request body")
+        @WithMockUser(username = "admin@test.com", roles = "ADMIN")
+        void adminCanStreamUpload() throws Exception {
+            mockMvc.perform(post("/api/guides/{id}/media", testGuide.getId())
+                    .param("name", "photo.jpg")
+                    .contentType(MediaType.IMAGE_JPEG)
+                    .content("fake-image-bytes".getBytes())
+                    .with(csrf()))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.fileName", equalTo("uuid-test.jpg")))
+                .andExpect(jsonPath("$.originalName", equalTo("photo.jpg")))
+                .andExpect(jsonPath("$.contentType", equalTo("image/jpeg")))
+                .andExpect(jsonPath("$.size", equalTo(16)))
+                .andExpect(jsonPath("$.sha256", equalTo(SHA256)));
+
+            verify(mediaStorageService).store(any(), eq("photo.jpg"));
+            assertThat(mediaRepository.findByFileName("uuid-test.jpg"))
+                .hasValueSatisfying(m -> assertThat(m.getSha256()).isEqualTo(SHA256));
+        }
+
+        @Test
+        @DisplayName("Stream upload over the size limit returns 413")
+        @WithMockUser(roles = "ADMIN")
+        void streamUploadTooLargeReturns413() throws Exception {
+            when(mediaStorageService.store(any(), any()))
+                .thenThrow(new PayloadTooLargeException("File exceeds the maximum upload size of 50MB"));
+
+            mockMvc.perform(post("/api/guides/{id}/media", testGuide.getId())
+                    .contentType("video/mp4")
+                    .content(new byte[1024])
+                    .with(csrf()))
+                .andExpect(status().isPayloadTooLarge());
+
+            assertThat(mediaRepository.findAll()).isEmpty();
+        }
+
+        @Test
+        @DisplayName("USER cannot stream an upload → 403")
+        @WithMockUser(username = "user@test.com", roles = "USER")
+        void userCannotStreamUpload() throws Exception {
+            mockMvc.perform(post("/api/guides/{id}/media", testGuide.getId())
+                    .contentType(MediaType.IMAGE_JPEG)
+                    .content("fake-image-bytes".getBytes())
+                    .with(csrf()))
+                .andExpect(status().isForbidden());
+
+            verify(mediaStorageService, never()).store(any(), any());
         }
 
         @Test
@@ -165,6 +242,31 @@ public class GuideMediaControllerTest {
                 .andExpect(jsonPath("$", hasSize(0)));
         }
 
+        @Test
+        @DisplayName("If-None-Match returns 304 until a media is added")
+        @WithMockUser(roles = "USER")
+        void ifNoneMatchReturns304UntilChanged() throws Exception {
+            String etag = mockMvc.perform(get("/api/guides/{id}/media", testGuide.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+            mockMvc.perform(get("/api/guides/{id}/media", testGuide.getId()).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+            GuideMedia media = new GuideMedia();
+            media.setFileName("uuid-new.jpg");
+            media.setOriginalName("new.jpg");
+            media.setFileType(GuideMedia.FileType.IMAGE);
+            media.setContentType("image/jpeg");
+            media.setSize(100L);
+            media.setGuide(testGuide);
+            mediaRepository.save(media);
+
+            mockMvc.perform(get("/api/guides/{id}/media", testGuide.getId()).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+        }
+
         @Test
         @DisplayName("Unknown guide returns 404")
         @WithMockUser(roles = "ADMIN")
@@ -239,4 +341,290 @@ public class GuideMediaControllerTest {
                 .andExpect(status().isUnauthorized());
         }
     }
+
+    // ─────────────────────────────────────────────────────────────────────────
+    @Nested
+    @DisplayName("Content-addressed storage - shared blobs")
+    class ContentAddressedStorageTests {
+
+        private final String blobName = SHA256 + ".jpg";
+        private final byte[] blobContent = "fake-image-bytes".getBytes();
+
+        @BeforeEach
+        void sameContentTwice() {
+            when(mediaStorageService.store(any(), any())).thenReturn(
+                new MediaStorageService.StoredFile("uuid-a.jpg", 16, SHA256),
+                new MediaStorageService.StoredFile("uuid-b.jpg", 16, SHA256));
+        }
+
+        private Long upload() throws Exception {
+            MvcResult result = mockMvc.perform(post("/api/guides/{id}/media", testGuide.getId())
+                    .param("name", "photo.jpg")
+                    .contentType(MediaType.IMAGE_JPEG)
+                    .content("fake-image-bytes".getBytes())
+                    .with(csrf()))
+                .andExpect(status().isCreated())
+                .andReturn();
+            return ((Number) JsonPath.read(result.getResponse().getContentAsString(), "$.id")).longValue();
+        }
+
+        private int refCount() {
+            entityManager.clear();
+            return blobRepository.findById(SHA256).map(MediaBlob::getRefCount).orElse(0);
+        }
+
+        @Test
+        @DisplayName("Identical uploads keep one file on disk referenced twice")
+        @WithMockUser(roles = "ADMIN")
+        void identicalUploadsShareOneBlob() throws Exception {
+            upload();
+            upload();
+
+            verify(mediaStorageService).rename("uuid-a.jpg", blobName);
+            verify(mediaStorageService).delete("uuid-b.jpg");
+            assertThat(mediaRepository.findAll())
+                .extracting(GuideMedia::getStorageName)
+                .containsExactly(blobName, blobName);
+            assertThat(refCount()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Shared blob is served under each media's own URL")
+        @WithMockUser(roles = "ADMIN")
+        void sharedBlobIsServedForEachMedia(@TempDir Path dir) throws Exception {
+            upload();
+            upload();
+            when(mediaStorageService.resolve(blobName))
+                .thenReturn(new MediaStorage.LocalObject(Files.write(dir.resolve(blobName), blobContent)));
+
+            mockMvc.perform(get("/api/media/files/uuid-b.jpg"))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(blobContent))
+                .andExpect(header().string("ETag", "\"" + blobName + "\""));
+        }
+
+        @Test
+        @DisplayName("Blob and its variants are deleted with the last reference only")
+        @WithMockUser(roles = "ADMIN")
+        void lastDeleteRemovesBlob() throws Exception {
+            Long first = upload();
+            Long second = upload();
+
+            mockMvc.perform(delete("/api/guides/{gId}/media/{mId}", testGuide.getId(), first).with(csrf()))
+                .andExpect(status().isOk());
+            verify(mediaStorageService, never()).delete(blobName);
+            assertThat(refCount()).isEqualTo(1);
+
+            mockMvc.perform(delete("/api/guides/{gId}/media/{mId}", testGuide.getId(), second).with(csrf()))
+                .andExpect(status().isOk());
+            verify(mediaStorageService).delete(blobName);
+            verify(mediaStorageService).delete(SHA256 + "-small.jpg");
+            verify(mediaStorageService).delete(SHA256 + "-medium.jpg");
+            assertThat(blobRepository.existsById(SHA256)).isFalse();
+        }
+
+        @Test
+        @DisplayName("Variants already generated for the blob are reused")
+        @WithMockUser(roles = "ADMIN")
+        void readyVariantsAreReused() throws Exception {
+            Long first = upload();
+            mediaRepository.updateVariantStatus(first, GuideMedia.VariantStatus.READY, SyncTracked.now());
+
+            mockMvc.perform(post("/api/guides/{id}/media", testGuide.getId())
+                    .contentType(MediaType.IMAGE_JPEG)
+                    .content("fake-image-bytes".getBytes())
+                    .with(csrf()))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.variantStatus", equalTo("READY")))
+                .andExpect(jsonPath("$.variants.medium", org.hamcrest.Matchers.endsWith("/api/media/files/uuid-b.jpg/medium")));
+        }
+    }
+
+    // ─────────────────────────────────────────────────────────────────────────
+    @Nested
+    @DisplayName("GET /api/media/files/{fileName} - Serve file")
+    class ServeFileTests {
+
+        private static final byte[] CONTENT = "0123456789abcdef".getBytes();
+
+        @TempDir
+        Path uploadDir;
+
+        private void storeMedia(String fileName, String contentType) throws IOException {
+            GuideMedia media = new GuideMedia();
+            media.setFileName(fileName);
+            media.setOriginalName("original");
+            media.setFileType(GuideMedia.FileType.VIDEO);
+            media.setContentType(contentType);
+            media.setSize((long) CONTENT.length);
+            media.setGuide(testGuide);
+            mediaRepository.save(media);
+            when(mediaStorageService.resolve(fileName))
+                .thenReturn(new MediaStorage.LocalObject(Files.write(uploadDir.resolve(fileName), CONTENT)));
+            for (GuideMedia.Variant variant : GuideMedia.Variant.values()) {
+                String variantName = variant.fileName(fileName);
+                when(mediaStorageService.resolve(variantName))
+                    .thenReturn(new MediaStorage.LocalObject(Files.write(uploadDir.resolve(variantName), CONTENT)));
+            }
+        }
+
+        @Test
+        @DisplayName("Full download uses the stored content type and immutable caching")
+        @WithMockUser(roles = "USER")
+        void fullDownload() throws Exception {
+            storeMedia("uuid-video.mp4", "video/mp4");
+
+            mockMvc.perform(get("/api/media/files/uuid-video.mp4"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("video/mp4"))
+                .andExpect(header().string("Accept-Ranges", "bytes"))
+                .andExpect(header().string("ETag", "\"uuid-video.mp4\""))
+                .andExpect(header().exists("Last-Modified"))
+                .andExpect(header().string("Cache-Control", containsString("immutable")))
+                .andExpect(content().bytes(CONTENT));
+        }
+
+        @Test
+        @DisplayName("Range request returns 206 with the requested bytes")
+        @WithMockUser(roles = "USER")
+        void rangeRequest() throws Exception {
+            storeMedia("uuid-video.mp4", "video/mp4");
+
+            mockMvc.perform(get("/api/media/files/uuid-video.mp4").header("Range", "bytes=4-7"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 4-7/16"))
+                .andExpect(content().contentType("video/mp4"))
+                .andExpect(content().string("4567"));
+        }
+
+        @Test
+        @DisplayName("Range is ignored when If-Range does not match")
+        @WithMockUser(roles = "USER")
+        void staleIfRangeServesFullFile() throws Exception {
+            storeMedia("uuid-video.mp4", "video/mp4");
+
+            mockMvc.perform(get("/api/media/files/uuid-video.mp4")
+                    .header("Range", "bytes=4-7")
+                    .header("If-Range", "\"another-file\""))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(CONTENT));
+        }
+
+        @Test
+        @DisplayName("Container with sendfile support receives the file and range instead of a body")
+        @WithMockUser(roles = "USER")
+        void delegatesToSendfile() throws Exception {
+            storeMedia("uuid-video.mp4", "video/mp4");
+
+            MvcResult result = mockMvc.perform(get("/api/media/files/uuid-video.mp4")
+                    .requestAttr("org.apache.tomcat.sendfile.support", Boolean.TRUE)
+                    .header("Range", "bytes=4-"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 4-15/16"))
+                .andExpect(header().longValue("Content-Length", 12))
+                .andExpect(content().bytes(new byte[0]))
+                .andReturn();
+
+            MockHttpServletRequest request = result.getRequest();
+            assertThat(request.getAttribute("org.apache.tomcat.sendfile.filename"))
+                .isEqualTo(uploadDir.resolve("uuid-video.mp4").toAbsolutePath().toString());
+            assertThat(request.getAttribute("org.apache.tomcat.sendfile.start")).isEqualTo(4L);
+            assertThat(request.getAttribute("org.apache.tomcat.sendfile.end")).isEqualTo(16L);
+        }
+
+        @Test
+        @DisplayName("Unsatisfiable range returns 416")
+        @WithMockUser(roles = "USER")
+        void unsatisfiableRange() throws Exception {
+            storeMedia("uuid-video.mp4", "video/mp4");
+
+            mockMvc.perform(get("/api/media/files/uuid-video.mp4").header("Range", "bytes=100-200"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string("Content-Range", "bytes */16"));
+        }
+
+        @Test
+        @DisplayName("If-None-Match returns 304 without a body")
+        @WithMockUser(roles = "USER")
+        void conditionalRequest() throws Exception {
+            storeMedia("uuid-video.mp4", "video/mp4");
+
+            mockMvc.perform(get("/api/media/files/uuid-video.mp4").header("If-None-Match", "\"uuid-video.mp4\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+        }
+
+        @Test
+        @DisplayName("Non media content types are served as octet-stream")
+        @WithMockUser(roles = "USER")
+        void nonMediaContentType() throws Exception {
+            storeMedia("uuid-page.html", "text/html");
+
+            mockMvc.perform(get("/api/media/files/uuid-page.html"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_OCTET_STREAM))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"uuid-page.html\""));
+        }
+
+        @Test
+        @DisplayName("SVG uploads are downloaded, never rendered inline")
+        @WithMockUser(roles = "USER")
+        void svgServedAsAttachment() throws Exception {
+            storeMedia("uuid-drawing.svg", "image/svg+xml");
+
+            mockMvc.perform(get("/api/media/files/uuid-drawing.svg"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_OCTET_STREAM))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"uuid-drawing.svg\""));
+        }
+
+        @Test
+        @DisplayName("Raster images are rendered inline with their own type")
+        @WithMockUser(roles = "USER")
+        void rasterImageServedInline() throws Exception {
+            storeMedia("uuid-photo.webp", "image/webp");
+
+            mockMvc.perform(get("/api/media/files/uuid-photo.webp"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("image/webp"))
+                .andExpect(header().string("Content-Disposition", "inline; filename=\"uuid-photo.webp\""));
+        }
+
+        @Test
+        @DisplayName("Variant is served as JPEG once generated")
+        @WithMockUser(roles = "USER")
+        void variantServedWhenReady() throws Exception {
+            storeMedia("uuid-photo.png", "image/png");
+            GuideMedia media = mediaRepository.findByFileName("uuid-photo.png").orElseThrow();
+            media.setVariantStatus(GuideMedia.VariantStatus.READY);
+            mediaRepository.save(media);
+
+            mockMvc.perform(get("/api/guides/{id}/media", testGuide.getId()))
+                .andExpect(jsonPath("$[0].variants.small", org.hamcrest.Matchers.endsWith("/api/media/files/uuid-photo.png/small")));
+            mockMvc.perform(get("/api/media/files/uuid-photo.png/small"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.IMAGE_JPEG))
+                .andExpect(content().bytes(CONTENT));
+        }
+
+        @Test
+        @DisplayName("Variant returns 404 while pending or for an unknown size")
+        @WithMockUser(roles = "USER")
+        void variantNotReady() throws Exception {
+            storeMedia("uuid-photo.png", "image/png");
+
+            mockMvc.perform(get("/api/media/files/uuid-photo.png/small"))
+                .andExpect(status().isNotFound());
+            mockMvc.perform(get("/api/media/files/uuid-photo.png/huge"))
+                .andExpect(status().isNotFound());
+        }
+
+        @Test
+        @DisplayName("Unknown file returns 404")
+        @WithMockUser(roles = "USER")
+        void unknownFileReturns404() throws Exception {
+            mockMvc.perform(get("/api/media/files/unknown.jpg"))
+                .andExpect(status().isNotFound());
+        }
+    }
 }
@@ -0,0 +1,306 @@
+package com.journeo.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import com.journeo.BackendApplication;
+import com.journeo.config.MediaStorage;
+import com.journeo.config.MediaStorageService;
+import com.journeo.model.Guide;
+import com.journeo.model.GuideMedia;
+import com.journeo.model.User;
+import com.journeo.repository.GuideMediaRepository;
+import com.journeo.repository.GuideRepository;
+import com.journeo.repository.MediaUploadRepository;
+import com.journeo.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(classes = BackendApplication.class,
+        properties = {"media.uploads.max-chunk-size=1KB", "media.max-upload-size=4KB"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("Media Upload Controller Tests")
+public class MediaUploadControllerTest {
+
+    @TempDir
+    static Path uploadDir;
+
+    @DynamicPropertySource
+    static void uploadDirectory(DynamicPropertyRegistry registry) {
+        registry.add("media.upload-dir", () -> uploadDir.toString());
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private GuideRepository guideRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private GuideMediaRepository mediaRepository;
+
+    @Autowired
+    private MediaUploadRepository uploadRepository;
+
+    @Autowired
+    private MediaStorageService storageService;
+
+    @SpyBean
+    private MediaStorage mediaStorage;
+
+    private Guide testGuide;
+
+    private final byte[] video = new byte[2500];
+
+    @BeforeEach
+    void setUp() {
+        mediaRepository.deleteAll();
+        uploadRepository.deleteAll();
+        guideRepository.deleteAll();
+        userRepository.deleteAll();
+
+        userRepository.save(new User("admin@test.com", "password", "Admin", "User", User.Role.ADMIN));
+
+        testGuide = guideRepository.save(new Guide(
+            "Paris City Tour", "Beautiful tour", 3,
+            Guide.Mobilite.A_PIED, Guide.Saison.ETE, Guide.PublicCible.FAMILLE
+        ));
+        new Random(7).nextBytes(video);
+    }
+
+    private String initiate(long size) throws Exception {
+        String body = mockMvc.perform(post("/api/guides/{id}/media/uploads", testGuide.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"fileName\":\"visite.mp4\",\"contentType\":\"video/mp4\",\"size\":" + size + "}")
+                .with(csrf()))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        return JsonPath.read(body, "$.id");
+    }
+
+    private ResultActions sendChunk(String uploadId, int from, int to) throws Exception {
+        return mockMvc.perform(put("/api/guides/{id}/media/uploads/{uploadId}", testGuide.getId(), uploadId)
+                .param("offset", String.valueOf(from))
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .content(Arrays.copyOfRange(video, from, to))
+                .with(csrf()));
+    }
+
+    private ResultActions complete(String uploadId) throws Exception {
+        return mockMvc.perform(post("/api/guides/{id}/media/uploads/{uploadId}/complete", testGuide.getId(), uploadId)
+                .with(csrf()));
+    }
+
+    // ─────────────────────────────────────────────────────────────────────────
+    @Nested
+    @DisplayName("Chunked upload - happy path")
+    class HappyPathTests {
+
+        @Test
+        @DisplayName("Chunks are assembled at their offsets and completed into a media")
+        @WithMockUser(roles = "ADMIN")
+        void chunksAreAssembledIntoMedia() throws Exception {
+            String uploadId = initiate(video.length);
+
+            sendChunk(uploadId, 0, 1000).andExpect(status().isOk()).andExpect(jsonPath("$.received", equalTo(1000)));
+            sendChunk(uploadId, 1000, 2000).andExpect(status().isOk()).andExpect(jsonPath("$.received", equalTo(2000)));
+
+            mockMvc.perform(get("/api/guides/{id}/media/uploads/{uploadId}", testGuide.getId(), uploadId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received", equalTo(2000)))
+                .andExpect(jsonPath("$.size", equalTo(2500)));
+
+            sendChunk(uploadId, 2000, 2500).andExpect(jsonPath("$.received", equalTo(2500)));
+
+            String sha256 = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(video));
+            complete(uploadId)
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.originalName", equalTo("visite.mp4")))
+                .andExpect(jsonPath("$.contentType", equalTo("video/mp4")))
+                .andExpect(jsonPath("$.size", equalTo(2500)))
+                .andExpect(jsonPath("$.sha256", equalTo(sha256)));
+
+            GuideMedia media = mediaRepository.findAll().get(0);
+            assertThat(Files.readAllBytes(storageService.resolve(media.storedFileName()).localPath())).isEqualTo(video);
+            assertThat(uploadDir.resolve("partial").resolve(uploadId + ".part")).doesNotExist();
+            assertThat(uploadRepository.count()).isZero();
+        }
+
+        @Test
+        @DisplayName("A chunk sent again after a dropped connection overwrites the same bytes")
+        @WithMockUser(roles = "ADMIN")
+        void retransmittedChunkIsIdempotent() throws Exception {
+            String uploadId = initiate(video.length);
+            sendChunk(uploadId, 0, 1000);
+            sendChunk(uploadId, 500, 1500).andExpect(jsonPath("$.received", equalTo(1500)));
+            sendChunk(uploadId, 0, 1000).andExpect(jsonPath("$.received", equalTo(1500)));
+            sendChunk(uploadId, 1500, 2500);
+
+            complete(uploadId).andExpect(status().isCreated());
+
+            GuideMedia media = mediaRepository.findAll().get(0);
+            assertThat(Files.readAllBytes(storageService.resolve(media.storedFileName()).localPath())).isEqualTo(video);
+        }
+
+        @Test
+        @DisplayName("Aborting removes the upload and its part file")
+        @WithMockUser(roles = "ADMIN")
+        void abortRemovesPartFile() throws Exception {
+            String uploadId = initiate(video.length);
+            sendChunk(uploadId, 0, 1000);
+            assertThat(uploadDir.resolve("partial").resolve(uploadId + ".part")).exists();
+
+            mockMvc.perform(delete("/api/guides/{id}/media/uploads/{uploadId}", testGuide.getId(), uploadId)
+                    .with(csrf()))
+                .andExpect(status().isOk());
+
+            assertThat(uploadDir.resolve("partial").resolve(uploadId + ".part")).doesNotExist();
+            assertThat(uploadRepository.count()).isZero();
+        }
+    }
+
+    // ─────────────────────────────────────────────────────────────────────────
+    @Nested
+    @DisplayName("Chunked upload - failed completion")
+    class FailedCompletionTests {
+
+        @Test
+        @DisplayName("A failed storage hand-off keeps the upload and its part file, and completion can be retried")
+        @WithMockUser(roles = "ADMIN")
+        void failedHandOffCanBeRetried() throws Exception {
+            String uploadId = initiate(video.length);
+            sendChunk(uploadId, 0, 1000);
+            sendChunk(uploadId, 1000, 2000);
+            sendChunk(uploadId, 2000, 2500);
+            doThrow(new IOException("storage unavailable")).doCallRealMethod()
+                .when(mediaStorage).put(anyString(), any());
+
+            complete(uploadId).andExpect(status().isInternalServerError());
+
+            assertThat(uploadDir.resolve("partial").resolve(uploadId + ".part")).exists();
+            mockMvc.perform(get("/api/guides/{id}/media/uploads/{uploadId}", testGuide.getId(), uploadId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received", equalTo(2500)));
+            assertThat(mediaRepository.count()).isZero();
+
+            complete(uploadId).andExpect(status().isCreated());
+
+            GuideMedia media = mediaRepository.findAll().get(0);
+            assertThat(Files.readAllBytes(storageService.resolve(media.storedFileName()).localPath())).isEqualTo(video);
+            assertThat(uploadDir.resolve("partial").resolve(uploadId + ".part")).doesNotExist();
+            assertThat(uploadRepository.count()).isZero();
+        }
+    }
+
+    // ─────────────────────────────────────────────────────────────────────────
+    @Nested
+    @DisplayName("Chunked upload - rejections")
+    class RejectionTests {
+
+        @Test
+        @DisplayName("Chunk leaving a gap returns 409")
+        @WithMockUser(roles = "ADMIN")
+        void gapReturns409() throws Exception {
+            String uploadId = initiate(video.length);
+            sendChunk(uploadId, 0, 1000);
+
+            sendChunk(uploadId, 1500, 2000).andExpect(status().isConflict());
+        }
+
+        @Test
+        @DisplayName("Chunk over the maximum chunk size returns 413")
+        @WithMockUser(roles = "ADMIN")
+        void oversizedChunkReturns413() throws Exception {
+            String uploadId = initiate(video.length);
+
+            sendChunk(uploadId, 0, 1500).andExpect(status().isPayloadTooLarge());
+        }
+
+        @Test
+        @DisplayName("Chunk past the declared size returns 413")
+        @WithMockUser(roles = "ADMIN")
+        void chunkPastDeclaredSizeReturns413() throws Exception {
+            String uploadId = initiate(800);
+
+            sendChunk(uploadId, 0, 1000).andExpect(status().isPayloadTooLarge());
+        }
+
+        @Test
+        @DisplayName("Declared size over the upload limit returns 413")
+        @WithMockUser(roles = "ADMIN")
+        void oversizedUploadReturns413() throws Exception {
+            mockMvc.perform(post("/api/guides/{id}/media/uploads", testGuide.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"fileName\":\"long.mp4\",\"size\":" + (4 * 1024 + 1) + "}")
+                    .with(csrf()))
+                .andExpect(status().isPayloadTooLarge());
+        }
+
+        @Test
+        @DisplayName("Completing before every byte is received returns 409")
+        @WithMockUser(roles = "ADMIN")
+        void incompleteUploadReturns409() throws Exception {
+            String uploadId = initiate(video.length);
+            sendChunk(uploadId, 0, 1000);
+
+            complete(uploadId).andExpect(status().isConflict());
+            assertThat(mediaRepository.count()).isZero();
+        }
+
+        @Test
+        @DisplayName("Upload of another guide returns 404")
+        @WithMockUser(roles = "ADMIN")
+        void otherGuideReturns404() throws Exception {
+            String uploadId = initiate(video.length);
+
+            mockMvc.perform(get("/api/guides/{id}/media/uploads/{uploadId}", testGuide.getId() + 1, uploadId))
+                .andExpect(status().isNotFound());
+        }
+
+        @Test
+        @DisplayName("USER cannot start an upload → 403")
+        @WithMockUser(roles = "USER")
+        void userCannotInitiate() throws Exception {
+            mockMvc.perform(post("/api/guides/{id}/media/uploads", testGuide.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"fileName\":\"visite.mp4\",\"size\":100}")
+                    .with(csrf()))
+                .andExpect(status().isForbidden());
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.journeo.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.journeo.BackendApplication;
+import com.journeo.dto.LoginRequestDTO;
+import com.journeo.model.User;
+import com.journeo.repository.UserRepository;
+import com.journeo.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Test Suite for stateless JWT authentication (jwt.stateless=true)
+ *
+ * Tokens carry user id, role and version claims: requests authenticate without
+ * reading the users table, and role changes or deletions revoke issued tokens.
+ */
+@SpringBootTest(classes = BackendApplication.class, properties = "jwt.stateless=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("Stateless JWT Authentication Tests")
+public class StatelessAuthTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private User admin;
+
+    @BeforeEach
+    void setUp() {
+        admin = userRepository.save(new User("stateless@example.com", passwordEncoder.encode("password123"),
+                "State", "Less", User.Role.ADMIN));
+    }
+
+    private String login() throws Exception {
+        LoginRequestDTO dto = new LoginRequestDTO();
+        dto.setEmail("stateless@example.com");
+        dto.setPassword("password123");
+        String body = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("token").asText();
+    }
+
+    @Test
+    @DisplayName("Should authenticate from token claims without reading the users table")
+    void shouldAuthenticateFromClaims() throws Exception {
+        String token = login();
+        // Row removed behind the service's back: no revocation, only the claims remain
+        userRepository.delete(admin);
+        userRepository.flush();
+
+        mockMvc.perform(get("/api/guides").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Should reject token issued before a role change")
+    void shouldRejectTokenAfterRoleChange() throws Exception {
+        String token = login();
+
+        userService.changeRole(admin.getId(), "USER");
+
+        mockMvc.perform(get("/api/guides").header("Authorization", "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/guides").header("Authorization", "Bearer " + login()))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Should reject token of a deleted user")
+    void shouldRejectTokenOfDeletedUser() throws Exception {
+        String token = login();
+
+        userService.deleteUser(admin);
+
+        mockMvc.perform(get("/api/guides").header("Authorization", "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+    }
+}
@@ -0,0 +1,249 @@
+package com.journeo.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.journeo.BackendApplication;
+import com.journeo.model.Activity;
+import com.journeo.model.Comment;
+import com.journeo.model.Guide;
+import com.journeo.model.User;
+import com.journeo.repository.ActivityRepository;
+import com.journeo.repository.CommentRepository;
+import com.journeo.repository.GuideRepository;
+import com.journeo.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Test Suite for the delta-sync endpoint
+ *
+ * Commit lag set to 0 so that the token returned by one call excludes everything already read.
+ */
+@SpringBootTest(classes = BackendApplication.class, properties = "sync.commit-lag-ms=0")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("Sync Controller Tests")
+public class SyncControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private GuideRepository guideRepository;
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    private Guide assignedGuide;
+    private Guide otherGuide;
+    private Activity activity;
+    private User regularUser;
+
+    @BeforeEach
+    void setUp() {
+        activityRepository.deleteAll();
+        guideRepository.deleteAll();
+        userRepository.deleteAll();
+
+        regularUser = userRepository.save(new User("user@test.com", "password", "Regular", "User", User.Role.USER));
+
+        assignedGuide = new Guide("Paris City Tour", null, 3,
+            Guide.Mobilite.A_PIED, Guide.Saison.ETE, Guide.PublicCible.FAMILLE);
+        assignedGuide.addUser(regularUser);
+        assignedGuide = guideRepository.save(assignedGuide);
+        otherGuide = guideRepository.save(new Guide("Lyon", null, 1,
+            Guide.Mobilite.VELO, Guide.Saison.HIVER, Guide.PublicCible.SEUL));
+
+        activity = new Activity();
+        activity.setTitre("Louvre");
+        activity.setType(Activity.Type.MUSEE);
+        activity.setOrdre(1);
+        activity.setJour(1);
+        assignedGuide.addActivity(activity);
+        activity = activityRepository.save(activity);
+    }
+
+    private JsonNode sync(String since) throws Exception {
+        String body = mockMvc.perform(get("/api/sync").param("since", since == null ? "" : since))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    @Nested
+    @DisplayName("GET /api/sync - Full sync")
+    class FullSyncTests {
+
+        @Test
+        @DisplayName("Should return everything when no token is given")
+        @WithMockUser(roles = "ADMIN")
+        void shouldReturnFullSnapshot() throws Exception {
+            mockMvc.perform(get("/api/sync"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.full", equalTo(true)))
+                .andExpect(jsonPath("$.token", notNullValue()))
+                .andExpect(jsonPath("$.guides", hasSize(2)))
+                .andExpect(jsonPath("$.activities", hasSize(1)))
+                .andExpect(jsonPath("$.activities[0].guideId", equalTo(assignedGuide.getId().intValue())))
+                .andExpect(jsonPath("$.deleted", hasSize(0)));
+        }
+
+        @Test
+        @DisplayName("Should only return assigned guides to a regular user")
+        @WithMockUser(username = "user@test.com", roles = "USER")
+        void shouldOnlyReturnAssignedGuides() throws Exception {
+            mockMvc.perform(get("/api/sync"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.guides", hasSize(1)))
+                .andExpect(jsonPath("$.guides[0].titre", equalTo("Paris City Tour")))
+                .andExpect(jsonPath("$.activities", hasSize(1)));
+        }
+
+        @Test
+        @DisplayName("Should reject an invalid token")
+        @WithMockUser(roles = "ADMIN")
+        void shouldRejectInvalidToken() throws Exception {
+            mockMvc.perform(get("/api/sync").param("since", "not-a-token"))
+                .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @DisplayName("Should require authentication")
+        void shouldRequireAuthentication() throws Exception {
+            mockMvc.perform(get("/api/sync"))
+                .andExpect(status().isUnauthorized());
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/sync?since= - Incremental sync")
+    class IncrementalSyncTests {
+
+        @Test
+        @DisplayName("Should return only records changed since the token")
+        @WithMockUser(roles = "ADMIN")
+        void shouldReturnOnlyChanges() throws Exception {
+            String token = sync(null).get("token").asText();
+
+            activity.setOrdre(2);
+            activityRepository.saveAndFlush(activity);
+
+            JsonNode delta = sync(token);
+            assertThat(delta.get("full").asBoolean()).isFalse();
+            assertThat(delta.get("guides")).isEmpty();
+            assertThat(delta.get("activities")).hasSize(1);
+            assertThat(delta.get("activities").get(0).get("ordre").asInt()).isEqualTo(2);
+            assertThat(delta.get("activities").get(0).get("version").asLong()).isEqualTo(1);
+
+            assertThat(sync(delta.get("token").asText()).get("activities")).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should return a tombstone for a deleted activity")
+        @WithMockUser(roles = "ADMIN")
+        void shouldReturnTombstoneForDeletedActivity() throws Exception {
+            String token = sync(null).get("token").asText();
+
+            mockMvc.perform(delete("/api/activities/{activityId}", activity.getId()).with(csrf()))
+                .andExpect(status().isOk());
+
+            JsonNode delta = sync(token);
+            assertThat(delta.get("deleted")).hasSize(1);
+            assertThat(delta.get("deleted").get(0).get("type").asText()).isEqualTo("ACTIVITY");
+            assertThat(delta.get("deleted").get(0).get("id").asLong()).isEqualTo(activity.getId());
+            assertThat(delta.get("activities")).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should return tombstones for the comments of a deleted user")
+        @WithMockUser(roles = "ADMIN")
+        void shouldReturnTombstonesForDeletedUsersComments() throws Exception {
+            User author = userRepository.save(new User("author@test.com", "password", "Author", "User", User.Role.USER));
+            Comment comment = new Comment();
+            comment.setContent("Super");
+            comment.setRating(4);
+            comment.setGuide(otherGuide);
+            comment.setAuthor(author);
+            comment = commentRepository.save(comment);
+            String token = sync(null).get("token").asText();
+
+            mockMvc.perform(delete("/api/users/{id}", author.getId()).with(csrf()))
+                .andExpect(status().isOk());
+
+            JsonNode delta = sync(token);
+            assertThat(delta.get("comments")).isEmpty();
+            assertThat(delta.get("deleted")).hasSize(1);
+            assertThat(delta.get("deleted").get(0).get("type").asText()).isEqualTo("COMMENT");
+            assertThat(delta.get("deleted").get(0).get("id").asLong()).isEqualTo(comment.getId());
+        }
+
+        @Test
+        @DisplayName("Should tell a user when a guide is no longer assigned to them")
+        @WithMockUser(username = "user@test.com", roles = "USER")
+        void shouldReturnTombstoneWhenUnassigned() throws Exception {
+            String token = sync(null).get("token").asText();
+
+            mockMvc.perform(delete("/api/guides/{guideId}/users/{userId}", assignedGuide.getId(), regularUser.getId())
+                    .with(csrf())
+                    .with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk());
+
+            JsonNode delta = sync(token);
+            assertThat(delta.get("guides")).isEmpty();
+            assertThat(delta.get("deleted")).hasSize(1);
+            assertThat(delta.get("deleted").get(0).get("type").asText()).isEqualTo("GUIDE");
+            assertThat(delta.get("deleted").get(0).get("id").asLong()).isEqualTo(assignedGuide.getId());
+        }
+
+        @Test
+        @DisplayName("Should send a newly assigned guide with its content")
+        @WithMockUser(username = "user@test.com", roles = "USER")
+        void shouldSendNewlyAssignedGuide() throws Exception {
+            Activity old = new Activity();
+            old.setTitre("Fourvière");
+            old.setType(Activity.Type.CHATEAU);
+            old.setOrdre(1);
+            old.setJour(1);
+            otherGuide.addActivity(old);
+            activityRepository.saveAndFlush(old);
+            String token = sync(null).get("token").asText();
+
+            mockMvc.perform(post("/api/guides/{guideId}/users/{userId}", otherGuide.getId(), regularUser.getId())
+                    .with(csrf())
+                    .with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk());
+
+            JsonNode delta = sync(token);
+            assertThat(delta.get("guides")).hasSize(1);
+            assertThat(delta.get("guides").get(0).get("titre").asText()).isEqualTo("Lyon");
+            assertThat(delta.get("activities")).hasSize(1);
+            assertThat(delta.get("activities").get(0).get("titre").asText()).isEqualTo("Fourvière");
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.journeo.repository;
+
+import com.journeo.dto.ActivityMoveDTO;
+import com.journeo.model.Activity;
+import com.journeo.model.Guide;
+import com.journeo.service.ActivityService;
+import com.journeo.service.SyncService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Batch-insert Test Suite
+ *
+ * With sequence ids (pooled optimizer) and hibernate.jdbc.batch_size, inserting a guide
+ * and its activities costs a handful of statements instead of one round trip per row.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Import({ActivityService.class, SyncService.class})
+@DisplayName("Batch Insert Tests")
+public class BatchInsertTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Autowired
+    private ActivityService activityService;
+
+    @Test
+    @DisplayName("Inserting 50 activities uses batched statements")
+    void activitiesAreInsertedInBatches() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Guide guide = entityManager.persist(new Guide("Batch", null, 2,
+                Guide.Mobilite.A_PIED, Guide.Saison.ETE, Guide.PublicCible.SEUL));
+
+        List<Activity> activities = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            Activity activity = new Activity();
+            activity.setTitre("Activity " + i);
+            activity.setType(Activity.Type.MUSEE);
+            activity.setOrdre(i);
+            activity.setGuide(guide);
+            activities.add(activity);
+        }
+        statistics.clear();
+
+        activityRepository.saveAll(activities);
+        entityManager.flush();
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(51);
+        // Au plus : appels de séquence + un INSERT guides + un INSERT activities (batché)
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(4);
+        assertThat(activities).allSatisfy(a -> assertThat(a.getId()).isNotNull());
+    }
+
+    @Test
+    @DisplayName("Reordering 50 activities sends one batched UPDATE")
+    void activitiesAreReorderedInOneBatch() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Guide guide = entityManager.persist(new Guide("Reorder", null, 2,
+                Guide.Mobilite.A_PIED, Guide.Saison.ETE, Guide.PublicCible.SEUL));
+        List<Long> ids = new ArrayList<>();
+        for (int i = 1; i <= 50; i++) {
+            Activity activity = new Activity();
+            activity.setTitre("Activity " + i);
+            activity.setType(Activity.Type.MUSEE);
+            activity.setOrdre(i);
+            activity.setJour(1);
+            activity.setGuide(guide);
+            ids.add(entityManager.persist(activity).getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        // Ordre inversé, le tout passé sur le jour 2
+        List<ActivityMoveDTO> moves = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) moves.add(new ActivityMoveDTO(ids.get(i), 2, ids.size() - i));
+        statistics.clear();
+
+        List<Activity> reordered = activityService.reorderActivities(guide.getId(), moves);
+        entityManager.flush();
+
+        assertThat(statistics.getEntityUpdateCount()).isEqualTo(50);
+        // SELECT guide + SELECT activities + un UPDATE activities (batché)
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+        List<Long> expected = new ArrayList<>(ids);
+        Collections.reverse(expected);
+        assertThat(reordered).extracting(Activity::getId).containsExactlyElementsOf(expected);
+    }
+}
@@ -0,0 +1,93 @@
+package com.journeo.repository;
+
+import com.journeo.model.Comment;
+import com.journeo.model.Guide;
+import com.journeo.model.User;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Integration Test Suite for the cursor-paginated comment feed queries.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@DisplayName("Comment Repository Tests")
+public class CommentRepositoryTest {
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private GuideRepository guideRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Guide guide;
+    private User author;
+
+    @BeforeEach
+    void setUp() {
+        author = userRepository.save(new User("author@test.com", "password", "Ann", "Author", User.Role.USER));
+        guide = guideRepository.save(new Guide("Paris Tour", "Tour", 2,
+                Guide.Mobilite.A_PIED, Guide.Saison.ETE, Guide.PublicCible.FAMILLE));
+    }
+
+    private Comment save(int rating) {
+        Comment c = new Comment();
+        c.setContent("Comment " + rating);
+        c.setRating(rating);
+        c.setGuide(guide);
+        c.setAuthor(author);
+        return commentRepository.save(c);
+    }
+
+    @Test
+    @DisplayName("Feed loads the author in the same query")
+    void feedFetchesAuthor() {
+        save(3);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Comment> feed = commentRepository.findFeedByGuideId(guide.getId(), Limit.of(10));
+
+        assertThat(feed).hasSize(1);
+        assertThat(Hibernate.isInitialized(feed.get(0).getAuthor())).isTrue();
+    }
+
+    @Test
+    @DisplayName("Seek after a cursor breaks created_at ties on id")
+    void feedBreaksTiesOnId() {
+        Comment a = save(1);
+        Comment b = save(2);
+        Comment c = save(3);
+        // Même horodatage pour les trois commentaires : seul l'id les départage
+        entityManager.createQuery("UPDATE Comment c SET c.createdAt = :t")
+                .setParameter("t", LocalDateTime.of(2026, 1, 1, 12, 0))
+                .executeUpdate();
+        entityManager.clear();
+
+        List<Comment> first = commentRepository.findFeedByGuideId(guide.getId(), Limit.of(2));
+        assertThat(first).extracting(Comment::getId).containsExactly(a.getId(), b.getId());
+
+        Comment last = first.get(1);
+        List<Comment> next = commentRepository.findFeedByGuideIdAfter(guide.getId(),
+                last.getCreatedAt(), last.getId(), Limit.of(2));
+        assertThat(next).extracting(Comment::getId).containsExactly(c.getId());
+    }
+}
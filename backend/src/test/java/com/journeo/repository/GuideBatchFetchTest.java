@@ -0,0 +1,115 @@
+package com.journeo.repository;
+
+import com.journeo.dto.GuideResponseDTO;
+import com.journeo.dto.PageResponseDTO;
+import com.journeo.model.Activity;
+import com.journeo.model.Guide;
+import com.journeo.model.User;
+import com.journeo.service.GuideService;
+import com.journeo.service.MediaBlobService;
+import com.journeo.service.SyncService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Query-count Test Suite for guide listings
+ *
+ * Uses Hibernate statistics to check that rendering a page of GuideResponseDTO
+ * (activities + assigned users) costs a bounded number of SQL statements,
+ * independent of the page size.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({GuideService.class, SyncService.class})
+@ActiveProfiles("test")
+@DisplayName("Guide Batch Fetch Tests")
+public class GuideBatchFetchTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private GuideService guideService;
+
+    // Suppression de guide non testée ici : pas de stockage de médias
+    @MockBean
+    private MediaBlobService mediaBlobService;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        User user1 = entityManager.persist(new User("one@test.com", "password", "User", "One", User.Role.USER));
+        User user2 = entityManager.persist(new User("two@test.com", "password", "User", "Two", User.Role.USER));
+        for (int i = 0; i < 40; i++) {
+            Guide guide = entityManager.persist(new Guide("Guide " + i, null, 2,
+                    Guide.Mobilite.A_PIED, Guide.Saison.ETE, Guide.PublicCible.FAMILLE));
+            for (int j = 1; j <= 3; j++) {
+                Activity activity = new Activity("Activity " + j, null, Activity.Type.PARC);
+                activity.setJour(1);
+                activity.setOrdre(j);
+                guide.addActivity(activity);
+                entityManager.persist(activity);
+            }
+            guide.addUser(user1);
+            guide.addUser(user2);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @ParameterizedTest(name = "page size {0}")
+    @ValueSource(ints = {5, 40})
+    @DisplayName("Should render a page of guides in three statements whatever the page size")
+    void shouldLoadPageInBoundedStatements(int pageSize) {
+        statistics.clear();
+
+        PageResponseDTO<Guide> page = guideService.findPage(null, PageRequest.of(0, pageSize, Sort.by("id")), false);
+        List<GuideResponseDTO> dtos = page.getContent().stream()
+                .map(GuideResponseDTO::new)
+                .collect(Collectors.toList());
+
+        assertThat(dtos).hasSize(pageSize);
+        assertThat(dtos).allSatisfy(dto -> {
+            assertThat(dto.getActivities()).hasSize(3);
+            assertThat(dto.getUsers()).hasSize(2);
+        });
+        // page + activities of the page + users of the page
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    @ParameterizedTest(name = "page size {0}")
+    @ValueSource(ints = {5, 40})
+    @DisplayName("Should render a keyset page of guides in three statements whatever the page size")
+    void shouldLoadKeysetPageInBoundedStatements(int pageSize) {
+        statistics.clear();
+
+        PageResponseDTO<Guide> page = guideService.findPageAfter(null, null, pageSize, false);
+        page.getContent().forEach(GuideResponseDTO::new);
+
+        assertThat(page.getContent()).hasSize(pageSize);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+}
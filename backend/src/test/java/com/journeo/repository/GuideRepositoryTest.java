@@ -8,6 +8,9 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.util.List;
@@ -381,6 +384,44 @@ public class GuideRepositoryTest {
         }
     }
 
+    @Nested
+    @DisplayName("findByUsersId() - User-scoped listing")
+    class FindByUsersIdTests {
+
+        @Test
+        @DisplayName("Should return only assigned guides among many unrelated guides")
+        void shouldReturnOnlyAssignedGuides() {
+            User savedUser = Objects.requireNonNull(userRepository.save(testUser));
+            for (int i = 0; i < 200; i++) {
+                guideRepository.save(new Guide("Other " + i, null, 1,
+                        Guide.Mobilite.A_PIED, Guide.Saison.ETE, Guide.PublicCible.SEUL));
+            }
+            testGuide1.addUser(savedUser);
+            testGuide2.addUser(savedUser);
+            guideRepository.saveAll(List.of(testGuide1, testGuide2));
+
+            Page<Guide> page = guideRepository.findByUsersId(savedUser.getId(),
+                    PageRequest.of(0, 10, Sort.by("id")));
+
+            assertThat(page.getTotalElements()).isEqualTo(2);
+            assertThat(page.getContent())
+                .extracting(Guide::getTitre)
+                .containsExactly("Paris Tour", "Lyon Gastronomy");
+        }
+
+        @Test
+        @DisplayName("Should return empty page for user without guides")
+        void shouldReturnEmptyPageForUserWithoutGuides() {
+            User savedUser = Objects.requireNonNull(userRepository.save(testUser));
+            guideRepository.saveAll(List.of(testGuide1, testGuide2));
+
+            Page<Guide> page = guideRepository.findByUsersId(savedUser.getId(), PageRequest.of(0, 10));
+
+            assertThat(page.getContent()).isEmpty();
+            assertThat(page.getTotalElements()).isZero();
+        }
+    }
+
     @Nested
     @DisplayName("Cascade Operations")
     class CascadeTests {
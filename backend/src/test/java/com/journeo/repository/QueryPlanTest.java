@@ -0,0 +1,245 @@
+package com.journeo.repository;
+
+import com.journeo.model.Guide;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Query-plan Test Suite for hot repository queries
+ *
+ * Applies the index migrations on top of the test schema (without H2's implicit
+ * foreign-key indexes), seeds the large tables once, then runs EXPLAIN on the SQL
+ * Hibernate generates for each repository method. Fails if a large table is read
+ * with a full scan.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.journeo.repository.CapturingStatementInspector")
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("Repository Query Plan Tests")
+public class QueryPlanTest {
+
+    private static final Set<String> LARGE_TABLES = Set.of("GUIDES", "ACTIVITIES", "COMMENTS", "GUIDE_MEDIA", "GUIDE_USER");
+    private static final Pattern TABLE_SCAN = Pattern.compile("/\\* PUBLIC\\.(\\w+)\\.tableScan");
+
+    private static final int GUIDES = 200;
+    private static final int USERS = 50;
+    private static final int ROWS_PER_GUIDE = 10;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private GuideRepository guideRepository;
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private GuideMediaRepository guideMediaRepository;
+
+    private long guideId;
+    private long userId;
+
+    // DDL et ANALYZE valident la transaction en cours sous H2 : jeu de données créé une fois, hors transaction
+    @BeforeAll
+    void seed() {
+        // H2 indexe automatiquement chaque clé étrangère, PostgreSQL non : on retire ces contraintes
+        // pour que seuls les index des migrations restent disponibles, comme en production
+        jdbcTemplate.queryForList("SELECT TABLE_NAME, CONSTRAINT_NAME FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS "
+                + "WHERE CONSTRAINT_TYPE = 'FOREIGN KEY'").forEach(fk -> jdbcTemplate.execute(
+                "ALTER TABLE " + fk.get("TABLE_NAME") + " DROP CONSTRAINT " + fk.get("CONSTRAINT_NAME")));
+        new ResourceDatabasePopulator(
+                new ClassPathResource("db/migration/V8__add_comments_feed_index.sql"),
+                new ClassPathResource("db/migration/V9__add_access_path_indexes.sql")
+        ).execute(dataSource);
+
+        List<Object[]> users = new ArrayList<>();
+        for (int u = 0; u < USERS; u++) {
+            users.add(new Object[]{"plan" + u + "@test.com", "password", "Plan", "User" + u, "USER"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, email, password, first_name, last_name, role, token_version) "
+                + "VALUES (NEXT VALUE FOR users_id_seq, ?, ?, ?, ?, ?, 0)", users);
+
+        List<Object[]> guides = new ArrayList<>();
+        for (int g = 0; g < GUIDES; g++) {
+            guides.add(new Object[]{"Guide " + g});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO guides (id, titre, jours, mobilite, saison, pour_qui, rating_count, rating_sum, "
+                + "updated_at, version) VALUES (NEXT VALUE FOR guides_id_seq, ?, 2, 'A_PIED', 'ETE', 'SEUL', 0, 0, "
+                + "CURRENT_TIMESTAMP, 0)", guides);
+
+        List<Long> guideIds = jdbcTemplate.queryForList("SELECT id FROM guides ORDER BY id", Long.class);
+        List<Long> userIds = jdbcTemplate.queryForList("SELECT id FROM users ORDER BY id", Long.class);
+        guideId = guideIds.get(GUIDES / 2);
+        userId = userIds.get(USERS / 2);
+
+        List<Object[]> activities = new ArrayList<>();
+        List<Object[]> comments = new ArrayList<>();
+        List<Object[]> media = new ArrayList<>();
+        List<Object[]> members = new ArrayList<>();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (Long g : guideIds) {
+            for (int i = 0; i < ROWS_PER_GUIDE; i++) {
+                Long u = userIds.get((int) ((g + i) % USERS));
+                activities.add(new Object[]{"Activity " + i, i, g});
+                comments.add(new Object[]{"Comment " + i, 1 + i % 5, now, g, u});
+                media.add(new Object[]{g + "-" + i + ".jpg", now, g});
+            }
+            members.add(new Object[]{g, userIds.get((int) (g % USERS))});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO activities (id, titre, type, duree, ordre, jour, guide_id, updated_at, version) "
+                + "VALUES (NEXT VALUE FOR activities_id_seq, ?, 'MUSEE', 60, ?, 1, ?, CURRENT_TIMESTAMP, 0)", activities);
+        jdbcTemplate.batchUpdate("INSERT INTO comments (id, content, rating, created_at, guide_id, user_id, updated_at, version) "
+                + "VALUES (NEXT VALUE FOR comments_id_seq, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP, 0)", comments);
+        jdbcTemplate.batchUpdate("INSERT INTO guide_media (id, file_name, original_name, file_type, uploaded_at, guide_id, updated_at, version, variant_status) "
+                + "VALUES (NEXT VALUE FOR guide_media_id_seq, ?, 'photo.jpg', 'IMAGE', ?, ?, CURRENT_TIMESTAMP, 0, 'NONE')", media);
+        jdbcTemplate.batchUpdate("INSERT INTO guide_user (guide_id, user_id) VALUES (?, ?)", members);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @AfterAll
+    void cleanUp() {
+        for (String table : List.of("guide_user", "guide_media", "comments", "activities", "guides", "users")) {
+            jdbcTemplate.execute("DELETE FROM " + table);
+        }
+    }
+
+    @BeforeEach
+    void resetCapture() {
+        CapturingStatementInspector.clear();
+    }
+
+    @Test
+    @DisplayName("ActivityRepository.findByGuideOrderByOrdreAsc uses an index")
+    void activitiesByGuide() {
+        Guide guide = guideRepository.getReferenceById(guideId);
+        CapturingStatementInspector.clear();
+
+        activityRepository.findByGuideOrderByOrdreAsc(guide);
+
+        assertIndexedPlan("ACTIVITIES");
+    }
+
+    @Test
+    @DisplayName("CommentRepository.findByGuideIdOrderByCreatedAtDesc uses an index")
+    void commentsByGuide() {
+        commentRepository.findByGuideIdOrderByCreatedAtDesc(guideId);
+
+        assertIndexedPlan("COMMENTS");
+    }
+
+    @Test
+    @DisplayName("CommentRepository feed queries use an index")
+    void commentFeed() {
+        commentRepository.findFeedByGuideId(guideId, Limit.of(20));
+        assertIndexedPlan("COMMENTS");
+
+        CapturingStatementInspector.clear();
+        commentRepository.findFeedByGuideIdAfter(guideId, LocalDateTime.now(), 1L, Limit.of(20));
+        assertIndexedPlan("COMMENTS");
+    }
+
+    @Test
+    @DisplayName("GuideMediaRepository.findByGuideIdOrderByUploadedAtDesc uses an index")
+    void mediaByGuide() {
+        guideMediaRepository.findByGuideIdOrderByUploadedAtDesc(guideId);
+
+        assertIndexedPlan("GUIDE_MEDIA");
+    }
+
+    @Test
+    @DisplayName("GuideRepository queries by user do not scan guides or guide_user")
+    void guidesByUser() {
+        guideRepository.findByUsersId(userId);
+        assertIndexedPlan("GUIDE_USER");
+
+        CapturingStatementInspector.clear();
+        guideRepository.countByUsersId(userId);
+        assertIndexedPlan("GUIDE_USER");
+
+        CapturingStatementInspector.clear();
+        guideRepository.findByUsersIdAndIdGreaterThanOrderByIdAsc(userId, 0L, Limit.of(20));
+        assertIndexedPlan("GUIDE_USER");
+    }
+
+    // EXPLAIN sur la requête SELECT capturée qui lit la table donnée
+    private void assertIndexedPlan(String table) {
+        String sql = CapturingStatementInspector.statements().stream()
+                .filter(s -> s.trim().toLowerCase().startsWith("select"))
+                .filter(s -> s.toUpperCase().contains(table))
+                .reduce((first, second) -> second)
+                .orElseThrow(() -> new AssertionError("No SELECT on " + table + " captured"));
+        String plan = explain(sql);
+
+        Matcher scan = TABLE_SCAN.matcher(plan);
+        while (scan.find()) {
+            assertThat(LARGE_TABLES)
+                    .as("Full scan of %s in plan:%n%s", scan.group(1), plan)
+                    .doesNotContain(scan.group(1));
+        }
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute((Connection con) -> {
+            try (PreparedStatement ps = con.prepareStatement("EXPLAIN " + sql)) {
+                bindSampleParameters(ps);
+                try (ResultSet rs = ps.executeQuery()) {
+                    StringBuilder plan = new StringBuilder();
+                    while (rs.next()) plan.append(rs.getString(1)).append('\n');
+                    return plan.toString();
+                }
+            }
+        });
+    }
+
+    // Valeurs représentatives : les plans H2 ne dépendent que du type des paramètres
+    private void bindSampleParameters(PreparedStatement ps) throws SQLException {
+        ParameterMetaData meta = ps.getParameterMetaData();
+        for (int i = 1; i <= meta.getParameterCount(); i++) {
+            switch (meta.getParameterType(i)) {
+                case Types.TIMESTAMP, Types.TIMESTAMP_WITH_TIMEZONE ->
+                        ps.setTimestamp(i, Timestamp.valueOf(LocalDateTime.now()));
+                case Types.VARCHAR, Types.CHAR -> ps.setString(i, "x");
+                default -> ps.setLong(i, guideId);
+            }
+        }
+    }
+}
@@ -39,6 +39,12 @@ public class GuideServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private SyncService syncService;
+
+    @Mock
+    private MediaBlobService mediaBlobService;
+
     @InjectMocks
     private GuideService guideService;
 
@@ -251,6 +257,7 @@ public class GuideServiceTest {
         void shouldDeleteGuide() {
             guideService.delete(testGuide);
 
+            verify(mediaBlobService).releaseForGuide(testGuide.getId());
             verify(guideRepository, times(1)).delete(testGuide);
         }
 
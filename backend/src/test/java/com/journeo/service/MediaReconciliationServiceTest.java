@@ -0,0 +1,222 @@
+package com.journeo.service;
+
+import com.journeo.BackendApplication;
+import com.journeo.config.LocalMediaStorage;
+import com.journeo.config.MediaStorage;
+import com.journeo.model.Guide;
+import com.journeo.model.GuideMedia;
+import com.journeo.model.MediaBlob;
+import com.journeo.repository.GuideMediaRepository;
+import com.journeo.repository.GuideRepository;
+import com.journeo.repository.MediaBlobRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(classes = BackendApplication.class,
+        properties = {"media.gc.dry-run=false", "media.gc.batch-size=2", "media.gc.pause-ms=0", "media.gc.min-age-hours=1"})
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("Media Reconciliation Tests")
+public class MediaReconciliationServiceTest {
+
+    @TempDir
+    static Path uploadDir;
+
+    @DynamicPropertySource
+    static void uploadDirectory(DynamicPropertyRegistry registry) {
+        registry.add("media.upload-dir", () -> uploadDir.toString());
+    }
+
+    @Autowired
+    private MediaReconciliationService reconciliationService;
+
+    @Autowired
+    private MediaStorage storage;
+
+    @Autowired
+    private GuideRepository guideRepository;
+
+    @Autowired
+    private GuideMediaRepository mediaRepository;
+
+    @Autowired
+    private MediaBlobRepository blobRepository;
+
+    private Guide guide;
+
+    @BeforeEach
+    void setUp() {
+        mediaRepository.deleteAll();
+        guide = guideRepository.save(new Guide(
+            "Paris City Tour", "Beautiful tour", 3,
+            Guide.Mobilite.A_PIED, Guide.Saison.ETE, Guide.PublicCible.FAMILLE
+        ));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        List<String> names = new ArrayList<>();
+        storage.forEachEntry(entry -> names.add(entry.name()));
+        for (String name : names) storage.delete(name);
+    }
+
+    private void media(String fileName, String storageName) {
+        GuideMedia media = new GuideMedia();
+        media.setFileName(fileName);
+        media.setStorageName(storageName);
+        media.setOriginalName("original");
+        media.setFileType(GuideMedia.FileType.IMAGE);
+        media.setContentType("image/jpeg");
+        media.setSize(10L);
+        media.setGuide(guide);
+        mediaRepository.save(media);
+    }
+
+    // Fichier rangé à son emplacement réparti, daté d'il y a deux jours (sauf recent)
+    private Path file(String name, int size, boolean recent) throws IOException {
+        Path path = ((LocalMediaStorage) storage).pathFor(name);
+        Files.createDirectories(path.getParent());
+        return age(Files.write(path, new byte[size]), recent);
+    }
+
+    // Ancienne disposition à plat, antérieure à la répartition
+    private Path legacyFile(String name, int size) throws IOException {
+        return age(Files.write(uploadDir.resolve(name), new byte[size]), false);
+    }
+
+    private static Path age(Path path, boolean recent) throws IOException {
+        Instant modified = recent ? Instant.now() : Instant.now().minus(Duration.ofDays(2));
+        Files.setLastModifiedTime(path, FileTime.from(modified));
+        return path;
+    }
+
+    @Test
+    @DisplayName("Deletes unreferenced files and keeps media files, variants, blobs and recent writes")
+    void deletesOrphansOnly() throws IOException {
+        media("11aa0001.jpg", null);
+        Path original = file("11aa0001.jpg", 10, false);
+        Path small = file("11aa0001-small.jpg", 3, false);
+        Path medium = file("11aa0001-medium.jpg", 5, false);
+        media("33cc0003.png", "22bb0002.png");
+        Path blob = file("22bb0002.png", 10, false);
+        Path blobVariant = file("22bb0002-small.jpg", 3, false);
+        Path deletedMedia = file("44dd0004.mp4", 100, false);
+        Path orphanVariant = file("55ee0005-small.jpg", 7, false);
+        Path recent = file("66ff0006.jpg", 9, true);
+        blobRepository.save(new MediaBlob("88bb0008", "88bb0008.jpg", 4));
+        Path acquiredBlob = file("88bb0008.jpg", 4, false);
+
+        MediaReconciliationService.Report report = reconciliationService.reconcile();
+
+        assertThat(report.scanned()).isEqualTo(9);
+        assertThat(report.orphans()).isEqualTo(2);
+        assertThat(report.deleted()).isEqualTo(2);
+        assertThat(report.bytesReclaimed()).isEqualTo(107);
+        assertThat(deletedMedia).doesNotExist();
+        assertThat(orphanVariant).doesNotExist();
+        assertThat(original).exists();
+        assertThat(small).exists();
+        assertThat(medium).exists();
+        assertThat(blob).exists();
+        assertThat(blobVariant).exists();
+        assertThat(recent).exists();
+        assertThat(acquiredBlob).exists();
+        assertThat(reconciliationService.getBytesReclaimed()).isGreaterThanOrEqualTo(107);
+    }
+
+    @Test
+    @DisplayName("Flat files listed out of order are checked one by one")
+    void checksLegacyFilesIndividually() throws IOException {
+        media("11aa0001.jpg", null);
+        file("11aa0001.jpg", 10, false);
+        media("11000010.jpg", null);
+        Path legacyReferenced = legacyFile("11000010.jpg", 6);
+        Path legacyOrphan = legacyFile("11000011.jpg", 8);
+
+        MediaReconciliationService.Report report = reconciliationService.reconcile();
+
+        assertThat(report.deleted()).isEqualTo(1);
+        assertThat(legacyReferenced).exists();
+        assertThat(legacyOrphan).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("Dry run reports orphans without deleting them")
+    void dryRunOnlyReports() throws IOException {
+        Path orphan = file("44dd0004.mp4", 100, false);
+        MediaReconciliationService dryRun = new MediaReconciliationService(mediaRepository, blobRepository,
+                storage, true, true, 1, 2, 0);
+
+        MediaReconciliationService.Report report = dryRun.reconcile();
+
+        assertThat(report.orphans()).isEqualTo(1);
+        assertThat(report.deleted()).isZero();
+        assertThat(report.bytesReclaimed()).isZero();
+        assertThat(orphan).exists();
+    }
+
+    @Test
+    @DisplayName("Refuses to run on a storage shared with other objects")
+    void refusesUnscopedStorage() throws IOException {
+        MediaStorage sharedBucket = mock(MediaStorage.class);
+        when(sharedBucket.isScoped()).thenReturn(false);
+        MediaReconciliationService shared = new MediaReconciliationService(mediaRepository, blobRepository,
+                sharedBucket, true, false, 1, 2, 0);
+
+        assertThatThrownBy(shared::reconcile).isInstanceOf(IllegalStateException.class);
+        verify(sharedBucket, never()).forEachEntry(any());
+        verify(sharedBucket, never()).delete(anyString());
+    }
+
+    @Test
+    @DisplayName("Keeps a file replaced by a fresh upload after it was listed")
+    void keepsFileRewrittenSinceListing() throws IOException {
+        Path listed = file("77aa0007.jpg", 5, false);
+        Instant listedAt = Files.getLastModifiedTime(listed).toInstant();
+        MediaStorage racing = spy(storage);
+        doAnswer(invocation -> {
+            Consumer<MediaStorage.Entry> action = invocation.getArgument(0);
+            // Rangement d'un upload par MediaBlobService.acquire entre le listing et la suppression
+            action.accept(new MediaStorage.Entry("77aa0007.jpg", 5, listedAt));
+            return null;
+        }).when(racing).forEachEntry(any());
+        Files.setLastModifiedTime(listed, FileTime.from(Instant.now()));
+        MediaReconciliationService service = new MediaReconciliationService(mediaRepository, blobRepository,
+                racing, true, false, 1, 2, 0);
+
+        MediaReconciliationService.Report report = service.reconcile();
+
+        assertThat(report.deleted()).isZero();
+        assertThat(listed).exists();
+    }
+}
@@ -0,0 +1,103 @@
+package com.journeo.service;
+
+import com.journeo.config.MediaStorageService;
+import com.journeo.exception.ResourceNotFoundException;
+import com.journeo.model.MediaUpload;
+import com.journeo.repository.GuideRepository;
+import com.journeo.repository.MediaUploadRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MediaUploadServiceTest {
+
+    @Mock
+    private MediaUploadRepository uploadRepository;
+
+    @Mock
+    private GuideRepository guideRepository;
+
+    @Mock
+    private MediaStorageService storageService;
+
+    @Mock
+    private GuideMediaService mediaService;
+
+    private MediaUploadService uploadService;
+
+    private final UUID uploadId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        uploadService = new MediaUploadService(uploadRepository, guideRepository, storageService, mediaService,
+                DataSize.ofKilobytes(4), DataSize.ofKilobytes(1), 24);
+    }
+
+    @Test
+    @DisplayName("A chunk arriving during completion waits for it and never touches the hashed part file")
+    void chunkWriteWaitsForCompletion() throws Exception {
+        // Ligne complète, lue non réservée par la requête du morceau (lecture périmée sans verrou)
+        MediaUpload upload = new MediaUpload(1L, "visite.mp4", "video/mp4", 100);
+        ReflectionTestUtils.setField(upload, "id", uploadId);
+        ReflectionTestUtils.setField(upload, "received", 100L);
+        AtomicBoolean deleted = new AtomicBoolean();
+        when(uploadRepository.findById(uploadId))
+            .thenAnswer(invocation -> deleted.get() ? Optional.empty() : Optional.of(upload));
+        doAnswer(invocation -> {
+            deleted.set(true);
+            return null;
+        }).when(uploadRepository).deleteById(uploadId);
+        when(uploadRepository.claimCompletion(eq(uploadId), any())).thenReturn(1);
+
+        CountDownLatch hashing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(storageService.storeAssembled(uploadId.toString(), "visite.mp4")).thenAnswer(invocation -> {
+            hashing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return new MediaStorageService.StoredFile("stored.mp4", 100, "hash");
+        });
+
+        CompletableFuture<?> completion = CompletableFuture.runAsync(
+            () -> uploadService.complete(1L, uploadId, "http://localhost"));
+        assertThat(hashing.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<?> chunk = CompletableFuture.runAsync(
+            () -> uploadService.writeChunk(1L, uploadId, 0, new ByteArrayInputStream(new byte[10])));
+
+        Thread.sleep(200);
+        assertThat(chunk).isNotDone();
+        verify(storageService, never()).writeChunk(anyString(), anyLong(), any(), anyLong());
+
+        release.countDown();
+        completion.get(5, TimeUnit.SECONDS);
+        assertThatThrownBy(() -> chunk.get(5, TimeUnit.SECONDS))
+            .isInstanceOf(ExecutionException.class)
+            .hasCauseInstanceOf(ResourceNotFoundException.class);
+        verify(storageService, never()).writeChunk(anyString(), anyLong(), any(), anyLong());
+    }
+}
@@ -0,0 +1,123 @@
+package com.journeo.service;
+
+import com.journeo.config.MediaStorage;
+import com.journeo.config.MediaStorageService;
+import com.journeo.model.GuideMedia;
+import com.journeo.repository.GuideMediaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MediaVariantServiceTest {
+
+    @Mock
+    private GuideMediaRepository mediaRepository;
+
+    @Mock
+    private MediaStorageService storageService;
+
+    @TempDir
+    Path uploadDir;
+
+    private MediaVariantService variantService;
+
+    @BeforeEach
+    void setUp() {
+        variantService = new MediaVariantService(mediaRepository, storageService, 1, 10, 50_000_000, 0.8f);
+        // Stockage à plat dans uploadDir
+        lenient().when(storageService.resolve(anyString()))
+                .thenAnswer(i -> new MediaStorage.LocalObject(uploadDir.resolve((String) i.getArgument(0))));
+        lenient().when(storageService.createStagingFile(anyString()))
+                .thenAnswer(i -> Files.createTempFile(uploadDir, "tmp-", i.getArgument(0)));
+        lenient().doAnswer(i -> Files.move(i.getArgument(1), uploadDir.resolve((String) i.getArgument(0))))
+                .when(storageService).put(anyString(), any());
+        lenient().doAnswer(i -> Files.deleteIfExists(uploadDir.resolve((String) i.getArgument(0))))
+                .when(storageService).delete(anyString());
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        variantService.shutdown();
+    }
+
+    private void writePng(String fileName, int width, int height) throws Exception {
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB), "png",
+                uploadDir.resolve(fileName).toFile());
+    }
+
+    @Test
+    void generate_shouldWriteEveryVariantAndMarkReady() throws Exception {
+        writePng("photo.png", 2000, 1000);
+        when(mediaRepository.updateVariantStatus(eq(1L), eq(GuideMedia.VariantStatus.READY), any())).thenReturn(1);
+
+        assertEquals(GuideMedia.VariantStatus.READY, variantService.generate(1L, "photo.png"));
+
+        BufferedImage small = ImageIO.read(uploadDir.resolve("photo-small.jpg").toFile());
+        BufferedImage medium = ImageIO.read(uploadDir.resolve("photo-medium.jpg").toFile());
+        assertEquals(320, small.getWidth());
+        assertEquals(160, small.getHeight());
+        assertEquals(1024, medium.getWidth());
+        assertEquals(512, medium.getHeight());
+    }
+
+    @Test
+    void generate_shouldNotUpscaleSmallImages() throws Exception {
+        writePng("icon.png", 200, 100);
+        when(mediaRepository.updateVariantStatus(eq(1L), eq(GuideMedia.VariantStatus.READY), any())).thenReturn(1);
+
+        variantService.generate(1L, "icon.png");
+
+        assertEquals(200, ImageIO.read(uploadDir.resolve("icon-medium.jpg").toFile()).getWidth());
+    }
+
+    @Test
+    void generate_shouldMarkFailed_whenFileIsNotAnImage() throws Exception {
+        Files.writeString(uploadDir.resolve("fake.jpg"), "not an image");
+
+        assertEquals(GuideMedia.VariantStatus.FAILED, variantService.generate(1L, "fake.jpg"));
+
+        verify(mediaRepository).updateVariantStatus(eq(1L), eq(GuideMedia.VariantStatus.FAILED), any());
+        assertFalse(Files.exists(uploadDir.resolve("fake-small.jpg")));
+    }
+
+    @Test
+    void generate_shouldRemoveVariants_whenMediaWasDeletedMeanwhile() throws Exception {
+        writePng("gone.png", 800, 600);
+        when(mediaRepository.updateVariantStatus(eq(1L), any(), any())).thenReturn(0);
+
+        variantService.generate(1L, "gone.png");
+
+        assertFalse(Files.exists(uploadDir.resolve("gone-small.jpg")));
+        assertFalse(Files.exists(uploadDir.resolve("gone-medium.jpg")));
+    }
+
+    @Test
+    void generate_shouldKeepVariants_whenBlobIsSharedWithAnotherMedia() throws Exception {
+        writePng("blob.png", 800, 600);
+        when(mediaRepository.updateVariantStatus(eq(1L), any(), any())).thenReturn(0);
+        when(mediaRepository.existsByStorageNameAndIdNot("blob.png", 1L)).thenReturn(true);
+
+        variantService.generate(1L, "blob.png");
+
+        assertTrue(Files.exists(uploadDir.resolve("blob-small.jpg")));
+        assertTrue(Files.exists(uploadDir.resolve("blob-medium.jpg")));
+    }
+}
@@ -1,7 +1,11 @@
 package com.journeo.service;
 
+import com.journeo.config.TokenRevocationRegistry;
+import com.journeo.config.UserPrincipalCache;
 import com.journeo.dto.UserRequestDTO;
 import com.journeo.model.User;
+import com.journeo.repository.CommentRepository;
+import com.journeo.repository.GuideRepository;
 import com.journeo.repository.UserRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -10,8 +14,12 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.Optional;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -23,6 +31,21 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private UserPrincipalCache userPrincipalCache;
+
+    @Mock
+    private TokenRevocationRegistry tokenRevocationRegistry;
+
+    @Mock
+    private GuideRepository guideRepository;
+
+    @Mock
+    private CommentRepository commentRepository;
+
+    @Mock
+    private SyncService syncService;
+
     @InjectMocks
     private UserService userService;
 
@@ -48,4 +71,51 @@ class UserServiceTest {
         assertEquals("Doe", created.getLastName());
         assertEquals("test@example.com", created.getEmail());
     }
-}
\ No newline at end of file
+
+    @Test
+    void updateUser_shouldEvictOldAndNewEmailFromPrincipalCache() {
+        User existing = new User("old@example.com", "hash", "John", "Doe", User.Role.USER);
+        existing.setId(1L);
+        UserRequestDTO dto = new UserRequestDTO();
+        dto.setEmail("new@example.com");
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(existing));
+        when(userRepository.findByEmail("new@example.com")).thenReturn(Optional.empty());
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        userService.updateUser(1L, dto);
+
+        verify(userPrincipalCache).removeUserFromCache("old@example.com");
+        verify(userPrincipalCache).removeUserFromCache("new@example.com");
+        verify(tokenRevocationRegistry).revoke(1L, 1);
+    }
+
+    @Test
+    void changeRole_shouldEvictPrincipalCache() {
+        User existing = new User("user@example.com", "hash", "John", "Doe", User.Role.USER);
+        existing.setId(1L);
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(existing));
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        User updated = userService.changeRole(1L, "admin");
+
+        assertEquals(User.Role.ADMIN, updated.getRole());
+        assertEquals(1, updated.getTokenVersion());
+        verify(userPrincipalCache).removeUserFromCache("user@example.com");
+        verify(tokenRevocationRegistry).revoke(1L, 1);
+    }
+
+    @Test
+    void deleteUser_shouldEvictPrincipalCacheAndRevokeTokens() {
+        User existing = new User("user@example.com", "hash", "John", "Doe", User.Role.USER);
+        existing.setId(1L);
+
+        userService.deleteUser(existing);
+
+        verify(guideRepository).removeRatingsByAuthor(eq(1L), any());
+        verify(userRepository).delete(existing);
+        verify(userPrincipalCache).removeUserFromCache("user@example.com");
+        verify(tokenRevocationRegistry).revoke(1L, TokenRevocationRegistry.REVOKE_ALL);
+    }
+}
@@ -0,0 +1,143 @@
+package com.journeo.benchmark;
+
+import com.journeo.BackendApplication;
+import com.journeo.dto.PageResponseDTO;
+import com.journeo.model.Guide;
+import com.journeo.model.User;
+import com.journeo.repository.GuideRepository;
+import com.journeo.repository.UserRepository;
+import com.journeo.service.GuideService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GET /api/guides pour un utilisateur non admin, selon le nombre total de guides en base : l'utilisateur
+ * en a toujours USER_GUIDES, les autres appartiennent à un second utilisateur (guide_user grandit avec
+ * le total). Ancien chemin (findAll puis filtrage en mémoire sur guide.getUsers()) contre la requête
+ * filtrée en base, en mode offset et keyset. Base H2 en mémoire par défaut ; pour Postgres, passer
+ * -Dspring.datasource.url=... (et username/password) à java -jar.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GuideListingBenchmark {
+
+    private static final int USER_GUIDES = 20;
+    private static final int PAGE_SIZE = 50;
+    private static final int SEED_CHUNK = 1_000;
+
+    @Param({"1000", "10000", "100000"})
+    private int totalGuides;
+
+    private ConfigurableApplicationContext context;
+    private GuideService guideService;
+    private TransactionTemplate readOnly;
+    private Long userId;
+    private String email;
+    private Pageable firstPage;
+
+    @Setup
+    public void setUp() throws IOException {
+        // Propriétés système : priment sur application.properties, sauf si déjà passées en -D
+        Map<String, String> defaults = Map.ofEntries(
+                Map.entry("spring.datasource.url", "jdbc:h2:mem:guides-bench;DB_CLOSE_DELAY=-1"),
+                Map.entry("spring.datasource.username", "sa"),
+                Map.entry("spring.datasource.password", ""),
+                Map.entry("spring.jpa.hibernate.ddl-auto", "create-drop"),
+                Map.entry("spring.jpa.show-sql", "false"),
+                Map.entry("spring.flyway.enabled", "false"),
+                Map.entry("server.port", "0"),
+                Map.entry("jwt.secret", "benchmark-secret-key-with-at-least-256-bits-for-hs256"),
+                Map.entry("media.upload-dir", Files.createTempDirectory("journeo-guides-bench").toString()),
+                Map.entry("logging.level.root", "WARN"),
+                Map.entry("logging.level.com.journeo", "WARN"));
+        defaults.forEach((key, value) -> {
+            if (System.getProperty(key) == null) System.setProperty(key, value);
+        });
+        // Contexte web complet (SecurityConfig l'exige), sur un port libre
+        context = new SpringApplicationBuilder(BackendApplication.class).run();
+        guideService = context.getBean(GuideService.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        seed(context.getBean(GuideRepository.class), context.getBean(UserRepository.class));
+        firstPage = PageRequest.of(0, PAGE_SIZE, Sort.by("id"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    // Guides de l'utilisateur répartis sur toute la plage d'ids, pour que le filtrage ne s'arrête pas tôt
+    private void seed(GuideRepository guides, UserRepository users) {
+        TransactionTemplate tx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        User user = users.save(new User("bench@journeo.com", "x", "Bench", "User", User.Role.USER));
+        User other = users.save(new User("other@journeo.com", "x", "Other", "User", User.Role.USER));
+        userId = user.getId();
+        email = user.getEmail();
+        int stride = totalGuides / USER_GUIDES;
+        for (int from = 0; from < totalGuides; from += SEED_CHUNK) {
+            int start = from;
+            tx.executeWithoutResult(status -> {
+                List<Guide> chunk = new ArrayList<>(SEED_CHUNK);
+                for (int i = start; i < Math.min(start + SEED_CHUNK, totalGuides); i++) {
+                    Guide guide = new Guide("Guide " + i, "Description " + i, 1 + i % 7,
+                            Guide.Mobilite.A_PIED, Guide.Saison.ETE, Guide.PublicCible.FAMILLE);
+                    guide.getUsers().add(i % stride == 0 ? user : other);
+                    chunk.add(guide);
+                }
+                guides.saveAll(chunk);
+            });
+        }
+    }
+
+    @Benchmark
+    public List<Guide> legacyInMemoryFilter() {
+        // Réplique du contrôleur avant filtrage en base : tous les guides, puis users chargés un par un
+        return readOnly.execute(status -> guideService.findAll().stream()
+                .filter(guide -> guide.getUsers().stream().anyMatch(u -> email.equals(u.getEmail())))
+                .toList());
+    }
+
+    @Benchmark
+    public PageResponseDTO<Guide> userScopedOffsetPage() {
+        return guideService.findPage(userId, firstPage, false);
+    }
+
+    @Benchmark
+    public PageResponseDTO<Guide> userScopedOffsetPageWithTotal() {
+        return guideService.findPage(userId, firstPage, true);
+    }
+
+    @Benchmark
+    public PageResponseDTO<Guide> userScopedKeysetPage() {
+        return guideService.findPageAfter(userId, "", PAGE_SIZE, false);
+    }
+}
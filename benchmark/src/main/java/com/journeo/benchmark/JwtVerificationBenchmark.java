@@ -0,0 +1,74 @@
+package com.journeo.benchmark;
+
+import com.journeo.config.JwtUtil;
+import com.journeo.config.VerifiedToken;
+import com.journeo.config.VerifiedTokenCache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vérification d'un token par requête authentifiée : ancien chemin (3 parsings, clé et parser
+ * reconstruits à chaque appel) contre JwtUtil.verify (1 parsing, clé et parser construits une fois)
+ * et contre un hit du VerifiedTokenCache (bearer déjà vu).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-with-at-least-256-bits-for-hs256";
+
+    private JwtUtil jwtUtil;
+    private VerifiedTokenCache verifiedTokenCache;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil(SECRET, 3_600_000, false);
+        token = jwtUtil.generateToken("bench@journeo.com");
+        verifiedTokenCache = new VerifiedTokenCache(true, 1_000, 3_600_000);
+        verifiedTokenCache.put(token, jwtUtil.verify(token));
+    }
+
+    @Benchmark
+    public boolean legacyTripleParse() {
+        // Réplique du filtre avant optimisation : extractEmail puis isTokenValid
+        String email = legacyClaims(token).getSubject();
+        return legacyClaims(token).getSubject().equals(email)
+                && !legacyClaims(token).getExpiration().before(new Date());
+    }
+
+    @Benchmark
+    public VerifiedToken singleParse() {
+        return jwtUtil.verify(token);
+    }
+
+    @Benchmark
+    public VerifiedToken cachedHit() {
+        return verifiedTokenCache.get(token);
+    }
+
+    private static Claims legacyClaims(String token) {
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        return Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload();
+    }
+}
@@ -0,0 +1,132 @@
+package com.journeo.benchmark;
+
+import com.journeo.config.MediaFileSender;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.UrlResource;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Envoi d'un fichier média de 50 Mo vers une socket (loopback), 4 envois concurrents : ancien chemin
+ * (UrlResource + copie par tampon du tas, comme ResourceHttpMessageConverter) contre FileChannel.transferTo
+ * (MediaFileSender, sendfile côté noyau). Une opération = un fichier complet ; débit en Mo/s = ops/s x 50.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class MediaServingBenchmark {
+
+    @Param("50")
+    private int fileSizeMb;
+
+    private Path file;
+    private long size;
+    private ServerSocketChannel server;
+    private ExecutorService drains;
+
+    @Setup
+    public void setUp() throws IOException {
+        file = Files.createTempFile("journeo-media-bench", ".mp4");
+        size = fileSizeMb * 1024L * 1024L;
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.setLength(size);
+        }
+        // Côté client : chaque connexion est lue et jetée au plus vite
+        server = ServerSocketChannel.open().bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        drains = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "bench-drain");
+            thread.setDaemon(true);
+            return thread;
+        });
+        drains.submit(() -> {
+            while (server.isOpen()) {
+                SocketChannel client = server.accept();
+                drains.submit(() -> drain(client));
+            }
+            return null;
+        });
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        server.close();
+        drains.shutdownNow();
+        Files.deleteIfExists(file);
+    }
+
+    /** Connexion propre à chaque thread de mesure, comme une requête par socket. */
+    @State(Scope.Thread)
+    public static class Connection {
+
+        SocketChannel socket;
+        OutputStream out;
+
+        @Setup(Level.Trial)
+        public void open(MediaServingBenchmark benchmark) throws IOException {
+            socket = SocketChannel.open(benchmark.server.getLocalAddress());
+            out = Channels.newOutputStream(socket);
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+
+    @Benchmark
+    public long legacyStreamCopy(Connection connection) throws IOException {
+        // Réplique de l'ancien chemin : UrlResource.getInputStream() puis copie par tampon de 8 Ko
+        try (InputStream in = new UrlResource(file.toUri()).getInputStream()) {
+            return StreamUtils.copy(in, connection.out);
+        }
+    }
+
+    @Benchmark
+    public long zeroCopyTransfer(Connection connection) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return MediaFileSender.transfer(channel, 0, size, connection.socket);
+        }
+    }
+
+    private static Void drain(SocketChannel client) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(256 * 1024);
+        try (client) {
+            while (client.read(buffer) >= 0) buffer.clear();
+        }
+        return null;
+    }
+}
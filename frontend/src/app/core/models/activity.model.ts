@@ -29,6 +29,12 @@ export interface ActivityRequest {
   jour: number;
 }
 
+export interface ActivityMove {
+  id: number;
+  jour: number;
+  ordre: number;
+}
+
 export const ACTIVITY_TYPE_LABELS: Record<ActivityType, string> = {
   MUSEE: 'Musée',
   CHATEAU: 'Château',
@@ -17,6 +17,18 @@ export interface Guide {
   users?: User[];
 }
 
+export interface GuideSummary {
+  id: number;
+  titre: string;
+  description?: string;
+  jours: number;
+  mobilite: Mobilite;
+  saison: Saison;
+  pourQui: PublicCible;
+  activityCount: number;
+  userCount: number;
+}
+
 export interface GuideRequest {
   titre: string;
   description?: string;
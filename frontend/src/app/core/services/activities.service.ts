@@ -1,7 +1,7 @@
 import { inject, Injectable } from '@angular/core';
 import { HttpClient } from '@angular/common/http';
 import { Observable } from 'rxjs';
-import { Activity, ActivityRequest } from '../models/activity.model';
+import { Activity, ActivityMove, ActivityRequest } from '../models/activity.model';
 import { environment } from '../../../environments/environment';
 
 const API = environment.apiUrl;
@@ -22,6 +22,10 @@ export class ActivitiesService {
     return this.http.put<Activity>(`${API}/activities/${activityId}`, activity);
   }
 
+  reorder(guideId: number, moves: ActivityMove[]): Observable<Activity[]> {
+    return this.http.put<Activity[]>(`${API}/activities/guide/${guideId}/order`, { moves });
+  }
+
   delete(activityId: number): Observable<void> {
     return this.http.delete<void>(`${API}/activities/${activityId}`);
   }
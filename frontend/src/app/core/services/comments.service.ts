@@ -14,6 +14,12 @@ export interface Comment {
   guideId: number;
 }
 
+export interface CommentPage {
+  content: Comment[];
+  hasNext: boolean;
+  nextCursor?: string;
+}
+
 export interface CommentRequest {
   content: string;
   rating: number;
@@ -29,6 +35,13 @@ export class CommentsService {
     return this.http.get<Comment[]>(`${API}/guides/${guideId}/comments`);
   }
 
+  /** Fil paginé par curseur : omettre `cursor` pour la première page. */
+  getFeed(guideId: number, cursor?: string, size = 20): Observable<CommentPage> {
+    const params: Record<string, string | number> = { size };
+    if (cursor) params['cursor'] = cursor;
+    return this.http.get<CommentPage>(`${API}/guides/${guideId}/comments/feed`, { params });
+  }
+
   add(guideId: number, payload: CommentRequest): Observable<Comment> {
     return this.http.post<Comment>(`${API}/guides/${guideId}/comments`, payload);
   }
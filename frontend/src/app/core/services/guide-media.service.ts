@@ -9,9 +9,14 @@ export interface GuideMedia {
   fileType: 'IMAGE' | 'VIDEO';
   contentType: string;
   size: number;
+  /** Hex SHA-256 of the file, null for media uploaded before it was recorded. */
+  sha256?: string | null;
   uploadedAt: string;
   guideId: number;
   url: string;
+  variantStatus?: 'NONE' | 'PENDING' | 'READY' | 'FAILED';
+  /** Resized JPEG URLs by size ('small', 'medium'), present once generated. */
+  variants?: Record<string, string>;
 }
 
 const API = 'http://localhost:8080/api';
@@ -25,6 +30,13 @@ export class GuideMediaService {
   }
 
   upload(guideId: number, file: File): Observable<GuideMedia> {
+    // Images et vidéos envoyées en corps brut : écrites directement sur disque côté serveur
+    if (file.type.startsWith('image/') || file.type.startsWith('video/')) {
+      return this.http.post<GuideMedia>(`${API}/guides/${guideId}/media`, file, {
+        headers: { 'Content-Type': file.type },
+        params: { name: file.name },
+      });
+    }
     const form = new FormData();
     form.append('file', file);
     return this.http.post<GuideMedia>(`${API}/guides/${guideId}/media`, form);
@@ -1,17 +1,34 @@
 import { inject, Injectable } from '@angular/core';
 import { HttpClient } from '@angular/common/http';
-import { Observable } from 'rxjs';
+import { EMPTY, Observable, expand, map, reduce } from 'rxjs';
 import { Guide, GuideRequest } from '../models/guide.model';
 import { environment } from '../../../environments/environment';
 
 const API = environment.apiUrl;
 
+export interface GuidePage {
+  content: Guide[];
+  size: number;
+  hasNext: boolean;
+  nextCursor?: string;
+  totalElements?: number;
+}
+
 @Injectable({ providedIn: 'root' })
 export class GuidesService {
   private http = inject(HttpClient);
 
-  getAll(): Observable<Guide[]> {
-    return this.http.get<Guide[]>(`${API}/guides`);
+  /** Pagination keyset par id : `cursor` vide pour la première page, `withTotal` pour obtenir le total. */
+  getPage(cursor = '', size = 50, withTotal = false): Observable<GuidePage> {
+    return this.http.get<GuidePage>(`${API}/guides`, { params: { cursor, size, withTotal } });
+  }
+
+  /** Tous les guides visibles, en suivant `nextCursor` page par page. */
+  getAll(size = 100): Observable<Guide[]> {
+    return this.getPage('', size).pipe(
+      expand(page => (page.hasNext && page.nextCursor ? this.getPage(page.nextCursor, size) : EMPTY)),
+      reduce((guides: Guide[], page) => guides.concat(page.content), []),
+    );
   }
 
   getById(id: number): Observable<Guide> {
@@ -2,7 +2,7 @@ import { inject, Injectable } from '@angular/core';
 import { HttpClient } from '@angular/common/http';
 import { Observable } from 'rxjs';
 import { User, UserRequest } from '../models/user.model';
-import { Guide } from '../models/guide.model';
+import { GuideSummary } from '../models/guide.model';
 import { environment } from '../../../environments/environment';
 
 const API = environment.apiUrl;
@@ -19,8 +19,8 @@ export class UsersService {
     return this.http.get<User>(`${API}/users/${id}`);
   }
 
-  getGuides(userId: number): Observable<Guide[]> {
-    return this.http.get<Guide[]>(`${API}/users/${userId}/guides`);
+  getGuides(userId: number): Observable<GuideSummary[]> {
+    return this.http.get<GuideSummary[]>(`${API}/users/${userId}/guides`);
   }
 
   create(user: UserRequest): Observable<User> {
@@ -63,6 +63,8 @@ export class GuideDetailComponent implements OnInit {
   // ── Comments ──────────────────────────────────────────────────────────────
   comments        = signal<Comment[]>([]);
   commentsLoading = signal(false);
+  commentsCursor  = signal<string | null>(null);
+  commentsLoadingMore = signal(false);
   commentSaving   = signal(false);
   commentError    = signal<string | null>(null);
   commentSuccess  = signal(false);
@@ -280,12 +282,33 @@ export class GuideDetailComponent implements OnInit {
   // ── Comments ──────────────────────────────────────────────────────────────
   loadComments(guideId: number): void {
     this.commentsLoading.set(true);
-    this.commentsService.getForGuide(guideId).subscribe({
-      next: list => { this.comments.set(list); this.commentsLoading.set(false); this.cdr.markForCheck(); },
+    this.commentsService.getFeed(guideId).subscribe({
+      next: page => {
+        this.comments.set(page.content);
+        this.commentsCursor.set(page.hasNext ? page.nextCursor ?? null : null);
+        this.commentsLoading.set(false);
+        this.cdr.markForCheck();
+      },
       error: ()  => { this.commentsLoading.set(false); },
     });
   }
 
+  loadMoreComments(): void {
+    const g = this.guide();
+    const cursor = this.commentsCursor();
+    if (!g || !cursor) return;
+    this.commentsLoadingMore.set(true);
+    this.commentsService.getFeed(g.id, cursor).subscribe({
+      next: page => {
+        this.comments.update(list => [...list, ...page.content]);
+        this.commentsCursor.set(page.hasNext ? page.nextCursor ?? null : null);
+        this.commentsLoadingMore.set(false);
+        this.cdr.markForCheck();
+      },
+      error: ()  => { this.commentsLoadingMore.set(false); },
+    });
+  }
+
   setRating(star: number): void {
     this.selectedRating.set(star);
   }
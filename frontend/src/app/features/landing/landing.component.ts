@@ -72,8 +72,8 @@ export class LandingComponent implements OnInit {
   ];
 
   ngOnInit(): void {
-    this.guidesService.getAll().subscribe({
-      next: data => this.guides.set(data.slice(0, 6)),
+    this.guidesService.getPage('', 6).subscribe({
+      next: page => this.guides.set(page.content),
       error: () => {},
     });
   }